@@ -0,0 +1,86 @@
+#!/bin/sh
+# Startup benchmark: time from launching the JVM to the first successful HTTP request.
+#
+#   scripts/startup-benchmark.sh [jar|fast] [runs] [-- extra application arguments]
+#
+#   jar   the repackaged jar from `mvn package` (default)
+#   fast  the AOT-processed jar and CDS archive from `mvn -Pfast-startup package`
+#
+# Prints the median, minimum and maximum over the runs, followed by a CSV line
+# (date,version,commit,mode,runs,median_ms,min_ms,max_ms) that is also appended to
+# $STARTUP_RESULTS when set, so results can be tracked from release to release.
+# Example: STARTUP_RESULTS=startup-benchmarks.csv scripts/startup-benchmark.sh fast 5 -- --spring.main.lazy-initialization=true
+
+set -e
+cd "$(dirname "$0")/.."
+
+MODE=${1:-jar}
+RUNS=${2:-5}
+shift $(( $# < 2 ? $# : 2 ))
+[ "$1" = "--" ] && shift
+
+PORT=${STARTUP_PORT:-18080}
+URL="http://localhost:$PORT${STARTUP_PATH:-/login}"
+TIMEOUT_SECONDS=${STARTUP_TIMEOUT:-180}
+VERSION=$(sed -n 's:.*<version>\(.*\)</version>.*:\1:p' pom.xml | sed -n 2p)
+
+case "$MODE" in
+    jar)
+        set -- -jar "target/student-monitor-$VERSION.jar" "$@"
+        ;;
+    fast)
+        [ -f target/startup/student-monitor.jsa ] || { echo "Run mvn -Pfast-startup package first" >&2; exit 1; }
+        set -- -XX:SharedArchiveFile=target/startup/student-monitor.jsa -Dspring.aot.enabled=true \
+            -jar target/startup/student-monitor.jar "$@"
+        ;;
+    *)
+        echo "Unknown mode $MODE, expected jar or fast" >&2
+        exit 1
+        ;;
+esac
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+TIMES=""
+run=1
+while [ "$run" -le "$RUNS" ]; do
+    started=$(now_ms)
+    java $JAVA_OPTS "$@" --server.port="$PORT" > "target/startup-benchmark-$run.log" 2>&1 &
+    pid=$!
+    elapsed=""
+    while kill -0 "$pid" 2>/dev/null; do
+        if [ "$(curl -s -o /dev/null -w '%{http_code}' "$URL")" = "200" ]; then
+            elapsed=$(( $(now_ms) - started ))
+            break
+        fi
+        if [ $(( $(now_ms) - started )) -gt $(( TIMEOUT_SECONDS * 1000 )) ]; then
+            break
+        fi
+        sleep 0.05
+    done
+    kill "$pid" 2>/dev/null || true
+    wait "$pid" 2>/dev/null || true
+    if [ -z "$elapsed" ]; then
+        echo "Run $run: no successful request, see target/startup-benchmark-$run.log" >&2
+        exit 1
+    fi
+    echo "Run $run: ${elapsed} ms"
+    TIMES="$TIMES $elapsed"
+    run=$(( run + 1 ))
+done
+
+SORTED=$(echo $TIMES | tr ' ' '\n' | sort -n)
+MEDIAN=$(echo "$SORTED" | sed -n "$(( (RUNS + 1) / 2 ))p")
+MIN=$(echo "$SORTED" | head -1)
+MAX=$(echo "$SORTED" | tail -1)
+echo "Time to first successful request ($MODE, $RUNS runs): median ${MEDIAN} ms, min ${MIN} ms, max ${MAX} ms"
+
+COMMIT=$(git rev-parse --short HEAD 2>/dev/null || echo unknown)
+LINE="$(date -u +%Y-%m-%dT%H:%M:%SZ),$VERSION,$COMMIT,$MODE,$RUNS,$MEDIAN,$MIN,$MAX"
+echo "$LINE"
+if [ -n "$STARTUP_RESULTS" ]; then
+    [ -f "$STARTUP_RESULTS" ] || echo "date,version,commit,mode,runs,median_ms,min_ms,max_ms" > "$STARTUP_RESULTS"
+    echo "$LINE" >> "$STARTUP_RESULTS"
+fi
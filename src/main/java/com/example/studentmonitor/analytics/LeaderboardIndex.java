@@ -0,0 +1,248 @@
+package com.example.studentmonitor.analytics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded per-subject top lists of students by best and by latest score. Writes that can only raise a
+ * ranking are applied in place; when a listed entry is deleted or lowered, or a latest score may or may not
+ * be the student's newest, the board is marked dirty and rebuilt from the column store on the next read.
+ */
+@Component
+public class LeaderboardIndex implements PerformanceIndex {
+    
+    public enum Mode {
+        BEST, LATEST
+    }
+    
+    /**
+     * One ranked student; score is in tenths of a point and date in epoch days
+     */
+    public record Entry(long studentId, long recordId, int score, int day) {
+    }
+    
+    private static final Comparator<Entry> RANKING = Comparator
+            .comparingInt(Entry::score).reversed()
+            .thenComparingLong(Entry::studentId);
+    
+    private final ScoreColumnStore columnStore;
+    private final int capacity;
+    private final Map<Integer, SubjectBoards> boards = new ConcurrentHashMap<>();
+    
+    public LeaderboardIndex(ScoreColumnStore columnStore,
+                            @Value("${app.leaderboard.capacity:100}") int capacity) {
+        this.columnStore = columnStore;
+        this.capacity = capacity;
+    }
+    
+    public int capacity() {
+        return capacity;
+    }
+    
+    @Override
+    public void clear() {
+        boards.clear();
+    }
+    
+    @Override
+    public void apply(PerformanceSnapshot before, PerformanceSnapshot after) {
+        PerformanceSnapshot scoredBefore = before != null && before.score() != null ? before : null;
+        PerformanceSnapshot scoredAfter = after != null && after.score() != null ? after : null;
+        
+        if (scoredBefore != null && scoredAfter != null && scoredBefore.subjectId() == scoredAfter.subjectId()) {
+            boardsFor(scoredAfter.subjectId()).apply(scoredBefore, scoredAfter);
+            return;
+        }
+        if (scoredBefore != null) {
+            boardsFor(scoredBefore.subjectId()).apply(scoredBefore, null);
+        }
+        if (scoredAfter != null) {
+            boardsFor(scoredAfter.subjectId()).apply(null, scoredAfter);
+        }
+    }
+    
+    /**
+     * Up to k leading entries, highest first
+     */
+    public List<Entry> top(int subjectId, Mode mode, int k) {
+        SubjectBoards subjectBoards = boards.get(subjectId);
+        if (subjectBoards == null) {
+            return List.of();
+        }
+        return subjectBoards.top(subjectId, mode, k);
+    }
+    
+    private SubjectBoards boardsFor(int subjectId) {
+        return boards.computeIfAbsent(subjectId, id -> new SubjectBoards());
+    }
+    
+    private static int tenths(Double score) {
+        return (int) Math.round(score * 10);
+    }
+    
+    private static int day(PerformanceSnapshot snapshot) {
+        return snapshot.date() != null ? (int) snapshot.date().toEpochDay() : Integer.MIN_VALUE;
+    }
+    
+    private static Entry entryOf(PerformanceSnapshot snapshot) {
+        return new Entry(snapshot.studentId(), snapshot.id(), tenths(snapshot.score()), day(snapshot));
+    }
+    
+    private static boolean newer(Entry candidate, Entry current) {
+        return candidate.day() > current.day()
+                || (candidate.day() == current.day() && candidate.recordId() > current.recordId());
+    }
+    
+    private final class SubjectBoards {
+        
+        private final Board best = new Board();
+        private final Board latest = new Board();
+        
+        synchronized void apply(PerformanceSnapshot before, PerformanceSnapshot after) {
+            applyBest(before, after);
+            applyLatest(before, after);
+        }
+        
+        synchronized List<Entry> top(int subjectId, Mode mode, int k) {
+            if (best.dirty || latest.dirty) {
+                recompute(subjectId);
+            }
+            Board board = mode == Mode.BEST ? best : latest;
+            List<Entry> entries = new ArrayList<>(Math.min(k, board.ranking.size()));
+            Iterator<Entry> iterator = board.ranking.iterator();
+            while (iterator.hasNext() && entries.size() < k) {
+                entries.add(iterator.next());
+            }
+            return entries;
+        }
+        
+        private void applyBest(PerformanceSnapshot before, PerformanceSnapshot after) {
+            if (best.dirty) {
+                return;
+            }
+            if (before != null) {
+                Entry listed = best.byStudent.get(before.studentId());
+                if (listed != null && listed.recordId() == before.id()) {
+                    if (after != null && tenths(after.score()) >= listed.score()) {
+                        best.replace(listed, entryOf(after));
+                    } else {
+                        best.dirty = true;
+                    }
+                    return;
+                }
+            }
+            if (after != null) {
+                Entry candidate = entryOf(after);
+                Entry listed = best.byStudent.get(candidate.studentId());
+                if (listed != null) {
+                    if (candidate.score() > listed.score()) {
+                        best.replace(listed, candidate);
+                    }
+                } else {
+                    // A student outside a full board had a best at or below its floor, so the new score is their best
+                    best.offer(candidate);
+                }
+            }
+        }
+        
+        private void applyLatest(PerformanceSnapshot before, PerformanceSnapshot after) {
+            if (latest.dirty) {
+                return;
+            }
+            if (before != null) {
+                Entry listed = latest.byStudent.get(before.studentId());
+                if (listed != null && listed.recordId() == before.id()) {
+                    Entry candidate = after != null ? entryOf(after) : null;
+                    if (candidate != null && candidate.day() >= listed.day() && candidate.score() >= listed.score()) {
+                        latest.replace(listed, candidate);
+                    } else {
+                        latest.dirty = true;
+                    }
+                    return;
+                }
+                if (listed == null && latest.ranking.size() >= capacity) {
+                    // An unlisted student's older, higher score may now be their latest
+                    latest.dirty = true;
+                    return;
+                }
+            }
+            if (after != null) {
+                Entry candidate = entryOf(after);
+                Entry listed = latest.byStudent.get(candidate.studentId());
+                if (listed != null) {
+                    if (newer(candidate, listed)) {
+                        if (candidate.score() >= listed.score()) {
+                            latest.replace(listed, candidate);
+                        } else {
+                            latest.dirty = true;
+                        }
+                    }
+                } else if (latest.ranking.size() < capacity) {
+                    // A board below capacity lists every student, so this is the student's first record
+                    latest.offer(candidate);
+                } else if (RANKING.compare(candidate, latest.ranking.last()) < 0) {
+                    // Unknown whether this is the student's newest record
+                    latest.dirty = true;
+                }
+            }
+        }
+        
+        private void recompute(int subjectId) {
+            Map<Long, Entry> bestByStudent = new HashMap<>();
+            Map<Long, Entry> latestByStudent = new HashMap<>();
+            columnStore.forEachRow(subjectId, (recordId, studentId, score, day) -> {
+                Entry entry = new Entry(studentId, recordId, score, day);
+                bestByStudent.merge(studentId, entry, (current, next) -> next.score() > current.score() ? next : current);
+                latestByStudent.merge(studentId, entry, (current, next) -> newer(next, current) ? next : current);
+            });
+            best.reset(bestByStudent.values());
+            latest.reset(latestByStudent.values());
+        }
+    }
+    
+    private final class Board {
+        
+        private final TreeSet<Entry> ranking = new TreeSet<>(RANKING);
+        private final Map<Long, Entry> byStudent = new HashMap<>();
+        private boolean dirty;
+        
+        void replace(Entry current, Entry next) {
+            ranking.remove(current);
+            ranking.add(next);
+            byStudent.put(next.studentId(), next);
+        }
+        
+        void offer(Entry candidate) {
+            if (ranking.size() < capacity) {
+                add(candidate);
+            } else if (RANKING.compare(candidate, ranking.last()) < 0) {
+                add(candidate);
+                Entry evicted = ranking.pollLast();
+                byStudent.remove(evicted.studentId());
+            }
+        }
+        
+        void reset(Iterable<Entry> entries) {
+            ranking.clear();
+            byStudent.clear();
+            dirty = false;
+            for (Entry entry : entries) {
+                offer(entry);
+            }
+        }
+        
+        private void add(Entry entry) {
+            ranking.add(entry);
+            byStudent.put(entry.studentId(), entry);
+        }
+    }
+}
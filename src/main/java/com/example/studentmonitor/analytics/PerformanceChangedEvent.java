@@ -0,0 +1,7 @@
+package com.example.studentmonitor.analytics;
+
+/**
+ * Published after a performance record is created (before is null), updated, or deleted (after is null)
+ */
+public record PerformanceChangedEvent(PerformanceSnapshot before, PerformanceSnapshot after) {
+}
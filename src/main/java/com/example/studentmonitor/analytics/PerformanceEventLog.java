@@ -0,0 +1,269 @@
+package com.example.studentmonitor.analytics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Append-only log of performance changes in fixed-size, memory-mapped segment files. Each frame is a length,
+ * a type byte, the payload and a CRC32C of type and payload; a zero length marks the unused end of a segment,
+ * and replay fails at the first frame that does not match its checksum. A record image is 32 bytes (id, student id,
+ * subject id, score as a double with NaN for none, epoch day with Integer.MIN_VALUE for none), so a change costs
+ * 41 to 73 bytes. The log is derived data like the indexes it feeds: every startup begins a new one from the
+ * table, and it is flushed to disk every app.event-log.sync-interval rather than on each append.
+ */
+@Component
+public class PerformanceEventLog {
+    
+    /**
+     * Receives logged events in the order they were appended
+     */
+    public interface Visitor {
+    
+        void change(PerformanceSnapshot before, PerformanceSnapshot after);
+    
+        void purge(List<Long> studentIds);
+    }
+    
+    /**
+     * Size of the current log; events counts frames, so a large purge may be more than one
+     */
+    public record Stats(long events, long bytes, int segments) {
+    }
+    
+    private static final byte INSERT = 1;
+    private static final byte UPDATE = 2;
+    private static final byte DELETE = 3;
+    private static final byte PURGE = 4;
+    
+    private static final int IMAGE_BYTES = 32;
+    // Length, type and checksum around every payload
+    private static final int FRAME_OVERHEAD = 9;
+    private static final int MAX_PURGE_IDS = 1024;
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    
+    private final Path directory;
+    private final int segmentBytes;
+    private final CRC32C crc = new CRC32C();
+    
+    // Null until the first generation starts; appends before that are already in the table it is built from
+    private MappedByteBuffer segment;
+    private int segmentIndex;
+    private long events;
+    private long bytes;
+    
+    public PerformanceEventLog(@Value("${app.event-log.directory:${java.io.tmpdir}/student-monitor-events-${server.port:8080}}") String directory,
+                               @Value("${app.event-log.segment-size:64MB}") DataSize segmentSize) throws IOException {
+        this.directory = Files.createDirectories(Path.of(directory));
+        this.segmentBytes = Math.toIntExact(segmentSize.toBytes());
+        // Must hold the largest frame, a full purge chunk, plus the end marker
+        if (segmentBytes < FRAME_OVERHEAD + 4 + 8 * MAX_PURGE_IDS + 4) {
+            throw new IllegalArgumentException("app.event-log.segment-size is too small: " + segmentSize);
+        }
+    }
+    
+    /**
+     * Discard the existing segments and start an empty log
+     */
+    public synchronized void reset() {
+        try {
+            segment = null;
+            for (Path file : segmentFiles()) {
+                Files.delete(file);
+            }
+            segmentIndex = 0;
+            events = 0;
+            bytes = 0;
+            segment = map(segmentIndex);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    public synchronized void append(PerformanceSnapshot before, PerformanceSnapshot after) {
+        if (segment == null) {
+            return;
+        }
+        byte type = before == null ? INSERT : after == null ? DELETE : UPDATE;
+        ByteBuffer frame = startFrame(type, type == UPDATE ? 2 * IMAGE_BYTES : IMAGE_BYTES);
+        if (before != null) {
+            putImage(frame, before);
+        }
+        if (after != null) {
+            putImage(frame, after);
+        }
+        finishFrame(frame);
+    }
+    
+    public synchronized void appendPurge(List<Long> studentIds) {
+        if (segment == null) {
+            return;
+        }
+        for (int start = 0; start < studentIds.size(); start += MAX_PURGE_IDS) {
+            List<Long> chunk = studentIds.subList(start, Math.min(studentIds.size(), start + MAX_PURGE_IDS));
+            ByteBuffer frame = startFrame(PURGE, 4 + 8 * chunk.size());
+            frame.putInt(chunk.size());
+            chunk.forEach(frame::putLong);
+            finishFrame(frame);
+        }
+    }
+    
+    /**
+     * Read the whole log sequentially, returning the number of events passed to the visitor; throws
+     * IllegalStateException at a corrupt frame, after the events before it were already passed on
+     */
+    public synchronized long replay(Visitor visitor) {
+        long replayed = 0;
+        try {
+            for (Path file : segmentFiles()) {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                    while (data.remaining() >= 4) {
+                        int length = data.getInt();
+                        if (length == 0) {
+                            break;
+                        }
+                        if (length < 0 || length + 4 > data.remaining() || !checksumMatches(data, length)) {
+                            throw new IllegalStateException("Event log segment " + file.getFileName()
+                                    + " is corrupt at offset " + (data.position() - 4));
+                        }
+                        read(data, visitor);
+                        data.position(data.position() + 4);
+                        replayed++;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return replayed;
+    }
+    
+    public synchronized Stats stats() {
+        return new Stats(events, bytes, segment == null ? 0 : segmentIndex + 1);
+    }
+    
+    @Scheduled(fixedDelayString = "${app.event-log.sync-interval:PT1S}")
+    public synchronized void sync() {
+        if (segment != null) {
+            segment.force();
+        }
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        sync();
+    }
+    
+    private ByteBuffer startFrame(byte type, int payloadBytes) {
+        int frameBytes = FRAME_OVERHEAD + payloadBytes;
+        // Keep room for the zero length that ends a segment
+        if (segment.remaining() < frameBytes + 4) {
+            roll();
+        }
+        ByteBuffer frame = segment.slice(segment.position(), frameBytes);
+        frame.putInt(1 + payloadBytes);
+        frame.put(type);
+        return frame;
+    }
+    
+    private void finishFrame(ByteBuffer frame) {
+        int payloadEnd = frame.position();
+        crc.reset();
+        crc.update(frame.slice(4, payloadEnd - 4));
+        frame.putInt((int) crc.getValue());
+        // The frame only becomes part of the log once its checksum is in place
+        segment.position(segment.position() + frame.position());
+        events++;
+        bytes += frame.position();
+    }
+    
+    private void roll() {
+        segment.force();
+        try {
+            segment = map(++segmentIndex);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private MappedByteBuffer map(int index) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory.resolve(String.format("segment-%06d.log", index)),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The mapping outlives the channel and the file is zero-filled up to its full size
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+    }
+    
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(file -> file.getFileName().toString().matches("segment-\\d+\\.log"))
+                    .sorted()
+                    .toList();
+        }
+    }
+    
+    private boolean checksumMatches(ByteBuffer data, int length) {
+        crc.reset();
+        crc.update(data.slice(data.position(), length));
+        return data.getInt(data.position() + length) == (int) crc.getValue();
+    }
+    
+    private static void read(ByteBuffer data, Visitor visitor) {
+        byte type = data.get();
+        switch (type) {
+            case INSERT -> visitor.change(null, getImage(data));
+            case UPDATE -> {
+                PerformanceSnapshot before = getImage(data);
+                visitor.change(before, getImage(data));
+            }
+            case DELETE -> visitor.change(getImage(data), null);
+            case PURGE -> {
+                int count = data.getInt();
+                List<Long> studentIds = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    studentIds.add(data.getLong());
+                }
+                visitor.purge(studentIds);
+            }
+            default -> throw new IllegalStateException("Unknown event type " + type);
+        }
+    }
+    
+    private static void putImage(ByteBuffer frame, PerformanceSnapshot snapshot) {
+        frame.putLong(snapshot.id());
+        frame.putLong(snapshot.studentId());
+        frame.putInt(snapshot.subjectId());
+        frame.putDouble(snapshot.score() != null ? snapshot.score() : Double.NaN);
+        frame.putInt(snapshot.date() != null ? Math.toIntExact(snapshot.date().toEpochDay()) : NO_DATE);
+    }
+    
+    private static PerformanceSnapshot getImage(ByteBuffer data) {
+        long id = data.getLong();
+        long studentId = data.getLong();
+        int subjectId = data.getInt();
+        double score = data.getDouble();
+        int day = data.getInt();
+        return new PerformanceSnapshot(id, studentId, subjectId,
+                Double.isNaN(score) ? null : score,
+                day == NO_DATE ? null : LocalDate.ofEpochDay(day));
+    }
+}
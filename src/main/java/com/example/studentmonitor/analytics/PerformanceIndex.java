@@ -0,0 +1,14 @@
+package com.example.studentmonitor.analytics;
+
+/**
+ * In-memory structure derived from performance records and kept current by {@link PerformanceIndexMaintainer}
+ */
+public interface PerformanceIndex {
+    
+    void clear();
+    
+    /**
+     * Apply one change; before is null for inserts and after is null for deletes
+     */
+    void apply(PerformanceSnapshot before, PerformanceSnapshot after);
+}
@@ -0,0 +1,177 @@
+package com.example.studentmonitor.analytics;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.studentmonitor.repository.PerformanceRepository;
+import com.example.studentmonitor.sharding.ShardRouter;
+
+/**
+ * Loads every {@link PerformanceIndex} once the application is ready, ahead of the other ready listeners, and
+ * then applies committed changes.
+ * Changes are applied one at a time so indexes never observe interleaved updates. Each change is also appended
+ * to the {@link PerformanceEventLog}, which starts from the same table scan, so the indexes can later be rebuilt
+ * from the log alone.
+ * A change committed while the table is being scanned may or may not be in what the scan reads, so changes that
+ * arrive during a rebuild are held back and applied once the scan is done, moving each record from whatever image
+ * the scan left in the {@link ScoreColumnStore} to its new one instead of from the event's before image.
+ */
+@Component
+public class PerformanceIndexMaintainer {
+    
+    private static final Logger log = LoggerFactory.getLogger(PerformanceIndexMaintainer.class);
+    
+    private final List<PerformanceIndex> indexes;
+    private final ScoreColumnStore columnStore;
+    private final PerformanceRepository performanceRepository;
+    private final PerformanceEventLog eventLog;
+    private final ShardRouter shardRouter;
+    // Held for a whole rebuild or replay; the monitor itself is only held for one row or one change at a time
+    private final Object rebuildLock = new Object();
+    // Guarded by the monitor
+    private boolean rebuilding;
+    private final List<Object> heldBack = new ArrayList<>();
+    
+    public PerformanceIndexMaintainer(List<PerformanceIndex> indexes,
+                                      ScoreColumnStore columnStore,
+                                      PerformanceRepository performanceRepository,
+                                      PerformanceEventLog eventLog,
+                                      ShardRouter shardRouter) {
+        this.indexes = indexes;
+        this.columnStore = columnStore;
+        this.performanceRepository = performanceRepository;
+        this.eventLog = eventLog;
+        this.shardRouter = shardRouter;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            long started = System.currentTimeMillis();
+            synchronized (this) {
+                rebuilding = true;
+                indexes.forEach(PerformanceIndex::clear);
+                eventLog.reset();
+            }
+            int reconciled;
+            try {
+                shardRouter.forEachShard(true, shard -> {
+                    try (Stream<PerformanceSnapshot> rows = performanceRepository.streamAllSnapshots()) {
+                        rows.forEach(row -> {
+                            synchronized (this) {
+                                applyToAll(null, row);
+                                eventLog.append(null, row);
+                            }
+                        });
+                    }
+                });
+            } finally {
+                reconciled = applyHeldBack();
+            }
+            log.info("Loaded {} performance records into {} in-memory indexes in {} ms ({} changes during the scan)",
+                    columnStore.size(), indexes.size(), System.currentTimeMillis() - started, reconciled);
+        }
+    }
+    
+    // Every held-back change sets its record to the new image, so applying them in order is right whichever of
+    // them the scan already saw
+    private synchronized int applyHeldBack() {
+        for (Object change : heldBack) {
+            if (change instanceof PerformanceChangedEvent event) {
+                PerformanceSnapshot after = event.after();
+                PerformanceSnapshot current = columnStore.find(after != null ? after.id() : event.before().id());
+                applyToAll(current, after);
+                eventLog.append(current, after);
+            } else if (change instanceof StudentsPurgedEvent event) {
+                removeStudents(event.studentIds());
+                eventLog.appendPurge(event.studentIds());
+            }
+        }
+        int changes = heldBack.size();
+        heldBack.clear();
+        rebuilding = false;
+        return changes;
+    }
+    
+    /**
+     * Rebuild every index from the event log instead of the table; returns the number of events replayed, or -1
+     * when the log could not be read and the indexes were reloaded from the table instead
+     */
+    public long replay() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                long started = System.currentTimeMillis();
+                indexes.forEach(PerformanceIndex::clear);
+                try {
+                    long events = replayLog();
+                    log.info("Replayed {} logged events into {} in-memory indexes in {} ms",
+                            events, indexes.size(), System.currentTimeMillis() - started);
+                    return events;
+                } catch (IllegalStateException | UncheckedIOException e) {
+                    log.warn("Event log replay failed, reloading from the database instead", e);
+                }
+            }
+            // Outside the monitor, so changes committed meanwhile are held back rather than waiting for the scan
+            rebuild();
+            return -1;
+        }
+    }
+    
+    private long replayLog() {
+        return eventLog.replay(new PerformanceEventLog.Visitor() {
+            @Override
+            public void change(PerformanceSnapshot before, PerformanceSnapshot after) {
+                applyToAll(before, after);
+            }
+            
+            @Override
+            public void purge(List<Long> studentIds) {
+                removeStudents(studentIds);
+            }
+        });
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPerformanceChanged(PerformanceChangedEvent event) {
+        if (rebuilding) {
+            heldBack.add(event);
+            return;
+        }
+        applyToAll(event.before(), event.after());
+        eventLog.append(event.before(), event.after());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onStudentsPurged(StudentsPurgedEvent event) {
+        if (rebuilding) {
+            heldBack.add(event);
+            return;
+        }
+        removeStudents(event.studentIds());
+        eventLog.appendPurge(event.studentIds());
+    }
+    
+    private void removeStudents(List<Long> studentIds) {
+        for (PerformanceSnapshot removed : columnStore.findByStudents(studentIds)) {
+            applyToAll(removed, null);
+        }
+    }
+    
+    private void applyToAll(PerformanceSnapshot before, PerformanceSnapshot after) {
+        for (PerformanceIndex index : indexes) {
+            index.apply(before, after);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.studentmonitor.analytics;
+
+import java.time.LocalDate;
+
+/**
+ * Immutable view of the analytics-relevant columns of a performance record; subjects are dictionary ids
+ */
+public record PerformanceSnapshot(long id, long studentId, int subjectId, Double score, LocalDate date) {
+}
@@ -0,0 +1,93 @@
+package com.example.studentmonitor.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Per-subject running totals produced by a {@link ScoreColumnStore} scan. Scores are kept in tenths of a point
+ * so sums stay exact in long arithmetic.
+ */
+public final class ScoreAggregate {
+    
+    private final long[] count;
+    private final long[] sum;
+    private final long[] sumOfSquares;
+    private final int[] min;
+    private final int[] max;
+    
+    ScoreAggregate(int subjects) {
+        count = new long[subjects];
+        sum = new long[subjects];
+        sumOfSquares = new long[subjects];
+        min = new int[subjects];
+        max = new int[subjects];
+        Arrays.fill(min, Integer.MAX_VALUE);
+        Arrays.fill(max, Integer.MIN_VALUE);
+    }
+    
+    void add(int subject, int tenths) {
+        count[subject]++;
+        sum[subject] += tenths;
+        sumOfSquares[subject] += (long) tenths * tenths;
+        if (tenths < min[subject]) {
+            min[subject] = tenths;
+        }
+        if (tenths > max[subject]) {
+            max[subject] = tenths;
+        }
+    }
+    
+    ScoreAggregate merge(ScoreAggregate other) {
+        for (int s = 0; s < count.length; s++) {
+            count[s] += other.count[s];
+            sum[s] += other.sum[s];
+            sumOfSquares[s] += other.sumOfSquares[s];
+            min[s] = Math.min(min[s], other.min[s]);
+            max[s] = Math.max(max[s], other.max[s]);
+        }
+        return this;
+    }
+    
+    public int subjects() {
+        return count.length;
+    }
+    
+    public long count(int subject) {
+        return count[subject];
+    }
+    
+    public double mean(int subject) {
+        return count[subject] == 0 ? 0.0 : sum[subject] / (count[subject] * 10.0);
+    }
+    
+    public double stddev(int subject) {
+        if (count[subject] == 0) {
+            return 0.0;
+        }
+        double n = count[subject];
+        double variance = (sumOfSquares[subject] - (double) sum[subject] * sum[subject] / n) / n;
+        return Math.sqrt(Math.max(0.0, variance)) / 10.0;
+    }
+    
+    public double min(int subject) {
+        return count[subject] == 0 ? 0.0 : min[subject] / 10.0;
+    }
+    
+    public double max(int subject) {
+        return count[subject] == 0 ? 0.0 : max[subject] / 10.0;
+    }
+    
+    /**
+     * Collapse all subjects into a single-subject aggregate
+     */
+    public ScoreAggregate combined() {
+        ScoreAggregate total = new ScoreAggregate(1);
+        for (int s = 0; s < count.length; s++) {
+            total.count[0] += count[s];
+            total.sum[0] += sum[s];
+            total.sumOfSquares[0] += sumOfSquares[s];
+            total.min[0] = Math.min(total.min[0], min[s]);
+            total.max[0] = Math.max(total.max[0], max[s]);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,293 @@
+package com.example.studentmonitor.analytics;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Column-oriented in-memory copy of every performance record, laid out as parallel primitive arrays so that
+ * analytics scans touch no per-row objects. Subjects are the integer ids of the subject dictionary, scores are
+ * fixed-point tenths and dates are epoch days. Deleted rows are filled by moving the last row into the hole.
+ * The rows of each student are chained through two more columns, so one student's records are found without
+ * scanning the others.
+ * It is applied before every other index, so indexes that rebuild from it never see it lag behind them.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ScoreColumnStore implements PerformanceIndex {
+    
+    public static final int ANY_SUBJECT = -1;
+    
+    private static final int CHUNK_ROWS = 1 << 16;
+    private static final short NO_SCORE = -1;
+    // Undated rows only match unbounded date filters
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    // Ends a student's chain of rows; also what the maps return for a missing key
+    private static final int NO_ROW = LongIntHashMap.MISSING;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    private long[] recordIds = new long[1024];
+    private long[] studentIds = new long[1024];
+    private int[] subjects = new int[1024];
+    private short[] scores = new short[1024];
+    private int[] days = new int[1024];
+    private int[] nextOfStudent = new int[1024];
+    private int[] previousOfStudent = new int[1024];
+    private int size;
+    
+    // One past the largest subject id seen, which sizes the per-subject aggregates
+    private int subjectBound;
+    
+    private final LongIntHashMap rowByRecordId = new LongIntHashMap(1024);
+    private final LongIntHashMap firstRowByStudent = new LongIntHashMap(1024);
+    
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            size = 0;
+            subjectBound = 0;
+            rowByRecordId.clear();
+            firstRowByStudent.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public void apply(PerformanceSnapshot before, PerformanceSnapshot after) {
+        lock.writeLock().lock();
+        try {
+            if (after == null) {
+                removeRow(before.id());
+            } else {
+                upsertRow(after);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Current state of a record as last applied, or null when the store has not seen it
+     */
+    public PerformanceSnapshot find(long recordId) {
+        lock.readLock().lock();
+        try {
+            int row = rowByRecordId.get(recordId);
+            return row == LongIntHashMap.MISSING ? null : toSnapshot(row);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public List<PerformanceSnapshot> findByStudents(Collection<Long> students) {
+        long[] cohort = sortedIds(students);
+        List<PerformanceSnapshot> rows = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < cohort.length; i++) {
+                if (i > 0 && cohort[i] == cohort[i - 1]) {
+                    continue;
+                }
+                for (int row = firstRowByStudent.get(cohort[i]); row != NO_ROW; row = nextOfStudent[row]) {
+                    rows.add(toSnapshot(row));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return rows;
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Aggregate scores per subject across all cores. Bounds are inclusive and may be null; a null or empty
+     * cohort means every student.
+     */
+    public ScoreAggregate aggregate(int subject, LocalDate from, LocalDate to, Collection<Long> cohort) {
+        int fromDay = from != null ? (int) from.toEpochDay() : Integer.MIN_VALUE;
+        int toDay = to != null ? (int) to.toEpochDay() : Integer.MAX_VALUE;
+        long[] cohortIds = cohort == null || cohort.isEmpty() ? null : sortedIds(cohort);
+        
+        lock.readLock().lock();
+        try {
+            int rows = size;
+            int dimensions = subjectBound;
+            int chunks = (rows + CHUNK_ROWS - 1) / CHUNK_ROWS;
+            return IntStream.range(0, chunks).parallel()
+                    .mapToObj(chunk -> scanChunk(chunk * CHUNK_ROWS, Math.min(rows, (chunk + 1) * CHUNK_ROWS),
+                            dimensions, subject, fromDay, toDay, cohortIds))
+                    .reduce(ScoreAggregate::merge)
+                    .orElseGet(() -> new ScoreAggregate(dimensions));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Visit the scored rows of one subject under the read lock, without allocating per row
+     */
+    public void forEachRow(int subject, RowVisitor visitor) {
+        lock.readLock().lock();
+        try {
+            for (int row = 0; row < size; row++) {
+                if (subjects[row] == subject && scores[row] != NO_SCORE) {
+                    visitor.visit(recordIds[row], studentIds[row], scores[row], days[row]);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private ScoreAggregate scanChunk(int start, int end, int dimensions, int subject,
+                                     int fromDay, int toDay, long[] cohortIds) {
+        ScoreAggregate aggregate = new ScoreAggregate(dimensions);
+        for (int row = start; row < end; row++) {
+            int code = subjects[row];
+            short score = scores[row];
+            int day = days[row];
+            if (score == NO_SCORE || (subject != ANY_SUBJECT && code != subject)) {
+                continue;
+            }
+            if (day < fromDay || day > toDay) {
+                continue;
+            }
+            if (cohortIds != null && Arrays.binarySearch(cohortIds, studentIds[row]) < 0) {
+                continue;
+            }
+            aggregate.add(code, score);
+        }
+        return aggregate;
+    }
+    
+    private void upsertRow(PerformanceSnapshot snapshot) {
+        int row = rowByRecordId.get(snapshot.id());
+        if (row == LongIntHashMap.MISSING) {
+            ensureCapacity(size + 1);
+            row = size++;
+            rowByRecordId.put(snapshot.id(), row);
+            studentIds[row] = snapshot.studentId();
+            link(row);
+        } else if (studentIds[row] != snapshot.studentId()) {
+            unlink(row);
+            studentIds[row] = snapshot.studentId();
+            link(row);
+        }
+        recordIds[row] = snapshot.id();
+        subjects[row] = snapshot.subjectId();
+        subjectBound = Math.max(subjectBound, snapshot.subjectId() + 1);
+        scores[row] = snapshot.score() != null ? (short) Math.round(snapshot.score() * 10) : NO_SCORE;
+        days[row] = snapshot.date() != null ? (int) snapshot.date().toEpochDay() : NO_DATE;
+    }
+    
+    private void removeRow(long recordId) {
+        int row = rowByRecordId.remove(recordId);
+        if (row == LongIntHashMap.MISSING) {
+            return;
+        }
+        unlink(row);
+        int last = --size;
+        if (row != last) {
+            recordIds[row] = recordIds[last];
+            studentIds[row] = studentIds[last];
+            subjects[row] = subjects[last];
+            scores[row] = scores[last];
+            days[row] = days[last];
+            rowByRecordId.put(recordIds[row], row);
+            // The moved row keeps its place in its student's chain
+            int previous = previousOfStudent[last];
+            int next = nextOfStudent[last];
+            previousOfStudent[row] = previous;
+            nextOfStudent[row] = next;
+            if (previous == NO_ROW) {
+                firstRowByStudent.put(studentIds[row], row);
+            } else {
+                nextOfStudent[previous] = row;
+            }
+            if (next != NO_ROW) {
+                previousOfStudent[next] = row;
+            }
+        }
+    }
+    
+    private void link(int row) {
+        int first = firstRowByStudent.get(studentIds[row]);
+        previousOfStudent[row] = NO_ROW;
+        nextOfStudent[row] = first;
+        if (first != NO_ROW) {
+            previousOfStudent[first] = row;
+        }
+        firstRowByStudent.put(studentIds[row], row);
+    }
+    
+    private void unlink(int row) {
+        int previous = previousOfStudent[row];
+        int next = nextOfStudent[row];
+        if (previous == NO_ROW) {
+            if (next == NO_ROW) {
+                firstRowByStudent.remove(studentIds[row]);
+            } else {
+                firstRowByStudent.put(studentIds[row], next);
+            }
+        } else {
+            nextOfStudent[previous] = next;
+        }
+        if (next != NO_ROW) {
+            previousOfStudent[next] = previous;
+        }
+    }
+    
+    private PerformanceSnapshot toSnapshot(int row) {
+        return new PerformanceSnapshot(
+                recordIds[row],
+                studentIds[row],
+                subjects[row],
+                scores[row] == NO_SCORE ? null : scores[row] / 10.0,
+                days[row] == NO_DATE ? null : LocalDate.ofEpochDay(days[row])
+        );
+    }
+    
+    private void ensureCapacity(int required) {
+        if (required <= recordIds.length) {
+            return;
+        }
+        int capacity = Math.max(required, recordIds.length * 2);
+        recordIds = Arrays.copyOf(recordIds, capacity);
+        studentIds = Arrays.copyOf(studentIds, capacity);
+        subjects = Arrays.copyOf(subjects, capacity);
+        scores = Arrays.copyOf(scores, capacity);
+        days = Arrays.copyOf(days, capacity);
+        nextOfStudent = Arrays.copyOf(nextOfStudent, capacity);
+        previousOfStudent = Arrays.copyOf(previousOfStudent, capacity);
+    }
+    
+    private static long[] sortedIds(Collection<Long> ids) {
+        long[] sorted = ids.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        return sorted;
+    }
+    
+    @FunctionalInterface
+    public interface RowVisitor {
+        void visit(long recordId, long studentId, int scoreTenths, int epochDay);
+    }
+}
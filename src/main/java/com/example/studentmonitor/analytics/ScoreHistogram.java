@@ -0,0 +1,75 @@
+package com.example.studentmonitor.analytics;
+
+/**
+ * Fixed-bucket histogram over scores 0-100 at 0.1-point resolution, backed by a Fenwick tree so that
+ * updates, rank and quantile queries cost a bounded number of steps regardless of how many scores it holds.
+ */
+public final class ScoreHistogram {
+    
+    public static final int BUCKETS = 1001;
+    
+    // Highest power of two not above BUCKETS, the starting step for quantile descent
+    private static final int TOP_STEP = Integer.highestOneBit(BUCKETS);
+    
+    private final long[] tree = new long[BUCKETS + 1];
+    private long total;
+    
+    public static int bucketOf(double score) {
+        return (int) Math.max(0, Math.min(BUCKETS - 1, Math.round(score * 10)));
+    }
+    
+    public synchronized void add(double score, int delta) {
+        for (int i = bucketOf(score) + 1; i <= BUCKETS; i += i & -i) {
+            tree[i] += delta;
+        }
+        total += delta;
+    }
+    
+    public synchronized long total() {
+        return total;
+    }
+    
+    /**
+     * Number of scores in buckets 0..bucket inclusive
+     */
+    public synchronized long countAtOrBelow(int bucket) {
+        long count = 0;
+        for (int i = Math.min(bucket, BUCKETS - 1) + 1; i > 0; i -= i & -i) {
+            count += tree[i];
+        }
+        return count;
+    }
+    
+    /**
+     * Percentile rank in 0-100, counting half of the ties at the given score
+     */
+    public synchronized double percentileRank(double score) {
+        if (total == 0) {
+            return 0.0;
+        }
+        int bucket = bucketOf(score);
+        long below = bucket == 0 ? 0 : countAtOrBelow(bucket - 1);
+        long equal = countAtOrBelow(bucket) - below;
+        return (below + equal / 2.0) * 100.0 / total;
+    }
+    
+    /**
+     * Smallest score whose cumulative share reaches the given fraction in 0-1
+     */
+    public synchronized double quantile(double fraction) {
+        if (total == 0) {
+            return 0.0;
+        }
+        long target = Math.max(1, (long) Math.ceil(fraction * total));
+        int position = 0;
+        long remaining = target;
+        for (int step = TOP_STEP; step > 0; step >>= 1) {
+            int next = position + step;
+            if (next <= BUCKETS && tree[next] < remaining) {
+                position = next;
+                remaining -= tree[next];
+            }
+        }
+        return position / 10.0;
+    }
+}
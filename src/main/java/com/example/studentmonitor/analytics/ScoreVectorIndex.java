@@ -0,0 +1,338 @@
+package com.example.studentmonitor.analytics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Dense per-student score profiles for nearest-neighbour queries. Every student with a score owns a slot holding
+ * their average per subject, laid out row-major with one float per subject id, so a query is a parallel scan over
+ * flat arrays with no per-student objects. Sums and counts are kept next to the averages so that updates and
+ * deletes adjust a profile without reading the student's other records. Subjects a student has no score in are
+ * NaN and are skipped when comparing two profiles.
+ */
+@Component
+public class ScoreVectorIndex implements PerformanceIndex {
+    
+    public enum Metric {
+        // Root mean square score difference over the shared subjects; smaller is more similar
+        EUCLIDEAN,
+        // Cosine of the profiles relative to the class average of each subject; larger is more similar
+        COSINE
+    }
+    
+    /**
+     * A neighbour and its distance (euclidean) or similarity (cosine), compared over the shared subjects only
+     */
+    public record Neighbor(long studentId, double value, int sharedSubjects) {
+    }
+    
+    private static final int CHUNK_SLOTS = 1 << 14;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    private final LongIntHashMap slotByStudent = new LongIntHashMap(1024);
+    private long[] students = new long[1024];
+    // Number of subjects each slot has at least one score in; a slot is released when it drops to zero
+    private int[] scoredSubjects = new int[1024];
+    private int size;
+    
+    // Cells are slot * stride + subject id; stride grows as new subject ids appear
+    private int stride = 8;
+    // One past the largest subject id seen; scans stop there rather than at the padded stride
+    private int subjectBound;
+    private int[] sums = new int[1024 * 8];
+    private int[] counts = new int[1024 * 8];
+    private float[] averages = newAverages(1024 * 8);
+    
+    // Class-wide sums per subject, in tenths, to centre profiles for the cosine metric
+    private long[] subjectSums = new long[8];
+    private long[] subjectCounts = new long[8];
+    
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            slotByStudent.clear();
+            size = 0;
+            subjectBound = 0;
+            Arrays.fill(subjectSums, 0);
+            Arrays.fill(subjectCounts, 0);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public void apply(PerformanceSnapshot before, PerformanceSnapshot after) {
+        lock.writeLock().lock();
+        try {
+            if (before != null && before.score() != null) {
+                remove(before.studentId(), before.subjectId(), tenths(before.score()));
+            }
+            if (after != null && after.score() != null) {
+                add(after.studentId(), after.subjectId(), tenths(after.score()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * The k students whose profiles are closest to the given student's, sharing at least minShared subjects
+     * with it; empty when the student has no scores
+     */
+    public List<Neighbor> nearest(long studentId, int k, Metric metric, int minShared) {
+        lock.readLock().lock();
+        try {
+            int slot = slotByStudent.get(studentId);
+            if (slot == LongIntHashMap.MISSING) {
+                return List.of();
+            }
+            // Only subjects the student has a score in can be shared, so scans visit just those
+            int[] subjects = new int[scoredSubjects[slot]];
+            float[] target = new float[subjects.length];
+            float[] centre = new float[subjects.length];
+            int dimensions = 0;
+            for (int subject = 0; subject < subjectBound; subject++) {
+                float average = averages[slot * stride + subject];
+                if (!Float.isNaN(average)) {
+                    subjects[dimensions] = subject;
+                    target[dimensions] = average;
+                    centre[dimensions] = subjectSums[subject] / (subjectCounts[subject] * 10f);
+                    dimensions++;
+                }
+            }
+    
+            int slots = size;
+            int chunks = (slots + CHUNK_SLOTS - 1) / CHUNK_SLOTS;
+            TopK best = IntStream.range(0, chunks).parallel()
+                    .mapToObj(chunk -> scanChunk(chunk * CHUNK_SLOTS, Math.min(slots, (chunk + 1) * CHUNK_SLOTS),
+                            slot, subjects, target, centre, k, metric, minShared))
+                    .reduce(TopK::merge)
+                    .orElseGet(() -> new TopK(k));
+            return best.toNeighbors(metric);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private TopK scanChunk(int start, int end, int self, int[] subjects, float[] target, float[] centre,
+                           int k, Metric metric, int minShared) {
+        TopK best = new TopK(k);
+        for (int slot = start; slot < end; slot++) {
+            if (slot != self) {
+                if (metric == Metric.EUCLIDEAN) {
+                    euclidean(best, slot, subjects, target, minShared);
+                } else {
+                    cosine(best, slot, subjects, target, centre, minShared);
+                }
+            }
+        }
+        return best;
+    }
+    
+    // Offered with the negated distance, so that a larger key is better for both metrics
+    private void euclidean(TopK best, int slot, int[] subjects, float[] target, int minShared) {
+        int base = slot * stride;
+        int shared = 0;
+        double squares = 0;
+        for (int i = 0; i < subjects.length; i++) {
+            float theirs = averages[base + subjects[i]];
+            if (!Float.isNaN(theirs)) {
+                double difference = target[i] - theirs;
+                squares += difference * difference;
+                shared++;
+            }
+        }
+        if (shared > 0 && shared >= minShared) {
+            best.offer(students[slot], -Math.sqrt(squares / shared), shared);
+        }
+    }
+    
+    private void cosine(TopK best, int slot, int[] subjects, float[] target, float[] centre, int minShared) {
+        int base = slot * stride;
+        int shared = 0;
+        double dot = 0;
+        double targetNorm = 0;
+        double otherNorm = 0;
+        for (int i = 0; i < subjects.length; i++) {
+            float theirs = averages[base + subjects[i]];
+            if (!Float.isNaN(theirs)) {
+                double a = target[i] - centre[i];
+                double b = theirs - centre[i];
+                dot += a * b;
+                targetNorm += a * a;
+                otherNorm += b * b;
+                shared++;
+            }
+        }
+        if (shared > 0 && shared >= minShared && targetNorm > 0 && otherNorm > 0) {
+            best.offer(students[slot], dot / Math.sqrt(targetNorm * otherNorm), shared);
+        }
+    }
+    
+    private void add(long studentId, int subject, int score) {
+        ensureStride(subject + 1);
+        subjectBound = Math.max(subjectBound, subject + 1);
+        int slot = slotByStudent.get(studentId);
+        if (slot == LongIntHashMap.MISSING) {
+            slot = allocate(studentId);
+        }
+        int cell = slot * stride + subject;
+        if (counts[cell] == 0) {
+            scoredSubjects[slot]++;
+        }
+        sums[cell] += score;
+        counts[cell]++;
+        averages[cell] = sums[cell] / (counts[cell] * 10f);
+        subjectSums[subject] += score;
+        subjectCounts[subject]++;
+    }
+    
+    private void remove(long studentId, int subject, int score) {
+        int slot = slotByStudent.get(studentId);
+        if (slot == LongIntHashMap.MISSING || subject >= stride) {
+            return;
+        }
+        int cell = slot * stride + subject;
+        if (counts[cell] == 0) {
+            return;
+        }
+        sums[cell] -= score;
+        counts[cell]--;
+        subjectSums[subject] -= score;
+        subjectCounts[subject]--;
+        if (counts[cell] > 0) {
+            averages[cell] = sums[cell] / (counts[cell] * 10f);
+            return;
+        }
+        averages[cell] = Float.NaN;
+        if (--scoredSubjects[slot] == 0) {
+            release(slot);
+        }
+    }
+    
+    private int allocate(long studentId) {
+        if (size == students.length) {
+            int capacity = students.length * 2;
+            students = Arrays.copyOf(students, capacity);
+            scoredSubjects = Arrays.copyOf(scoredSubjects, capacity);
+            sums = Arrays.copyOf(sums, capacity * stride);
+            counts = Arrays.copyOf(counts, capacity * stride);
+            float[] grown = newAverages(capacity * stride);
+            System.arraycopy(averages, 0, grown, 0, size * stride);
+            averages = grown;
+        }
+        int slot = size++;
+        students[slot] = studentId;
+        scoredSubjects[slot] = 0;
+        // Slots are reused after a release or a clear, so start from an empty profile
+        int base = slot * stride;
+        Arrays.fill(sums, base, base + stride, 0);
+        Arrays.fill(counts, base, base + stride, 0);
+        Arrays.fill(averages, base, base + stride, Float.NaN);
+        slotByStudent.put(studentId, slot);
+        return slot;
+    }
+    
+    // The last slot moves into the hole so that scans stay dense
+    private void release(int slot) {
+        slotByStudent.remove(students[slot]);
+        int last = --size;
+        if (slot != last) {
+            students[slot] = students[last];
+            scoredSubjects[slot] = scoredSubjects[last];
+            System.arraycopy(sums, last * stride, sums, slot * stride, stride);
+            System.arraycopy(counts, last * stride, counts, slot * stride, stride);
+            System.arraycopy(averages, last * stride, averages, slot * stride, stride);
+            slotByStudent.put(students[slot], slot);
+        }
+    }
+    
+    private void ensureStride(int dimensions) {
+        if (dimensions <= stride) {
+            return;
+        }
+        int grownStride = Math.max(dimensions, stride * 2);
+        int capacity = students.length;
+        int[] grownSums = new int[capacity * grownStride];
+        int[] grownCounts = new int[capacity * grownStride];
+        float[] grownAverages = newAverages(capacity * grownStride);
+        for (int slot = 0; slot < size; slot++) {
+            System.arraycopy(sums, slot * stride, grownSums, slot * grownStride, stride);
+            System.arraycopy(counts, slot * stride, grownCounts, slot * grownStride, stride);
+            System.arraycopy(averages, slot * stride, grownAverages, slot * grownStride, stride);
+        }
+        sums = grownSums;
+        counts = grownCounts;
+        averages = grownAverages;
+        subjectSums = Arrays.copyOf(subjectSums, grownStride);
+        subjectCounts = Arrays.copyOf(subjectCounts, grownStride);
+        stride = grownStride;
+    }
+    
+    private static float[] newAverages(int length) {
+        float[] averages = new float[length];
+        Arrays.fill(averages, Float.NaN);
+        return averages;
+    }
+    
+    private static int tenths(double score) {
+        return (int) Math.round(score * 10);
+    }
+    
+    /**
+     * Bounded best-k list kept in parallel arrays, ordered by descending key
+     */
+    private static final class TopK {
+    
+        private final long[] ids;
+        private final double[] keys;
+        private final int[] shared;
+        private int size;
+    
+        TopK(int k) {
+            this.ids = new long[k];
+            this.keys = new double[k];
+            this.shared = new int[k];
+        }
+    
+        void offer(long id, double key, int sharedSubjects) {
+            int k = ids.length;
+            if (size == k && key <= keys[k - 1]) {
+                return;
+            }
+            int position = size < k ? size++ : k - 1;
+            while (position > 0 && keys[position - 1] < key) {
+                ids[position] = ids[position - 1];
+                keys[position] = keys[position - 1];
+                shared[position] = shared[position - 1];
+                position--;
+            }
+            ids[position] = id;
+            keys[position] = key;
+            shared[position] = sharedSubjects;
+        }
+    
+        TopK merge(TopK other) {
+            for (int i = 0; i < other.size; i++) {
+                offer(other.ids[i], other.keys[i], other.shared[i]);
+            }
+            return this;
+        }
+    
+        List<Neighbor> toNeighbors(Metric metric) {
+            List<Neighbor> neighbors = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                double value = metric == Metric.EUCLIDEAN ? -keys[i] : keys[i];
+                neighbors.add(new Neighbor(ids[i], value, shared[i]));
+            }
+            return neighbors;
+        }
+    }
+}
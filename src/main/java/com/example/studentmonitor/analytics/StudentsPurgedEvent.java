@@ -0,0 +1,9 @@
+package com.example.studentmonitor.analytics;
+
+import java.util.List;
+
+/**
+ * Published after students and their whole performance history were removed with set-based deletes
+ */
+public record StudentsPurgedEvent(List<Long> studentIds) {
+}
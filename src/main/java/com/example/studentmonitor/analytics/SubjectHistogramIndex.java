@@ -0,0 +1,37 @@
+package com.example.studentmonitor.analytics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * One {@link ScoreHistogram} per subject, adjusted incrementally as records are created, changed or deleted
+ */
+@Component
+public class SubjectHistogramIndex implements PerformanceIndex {
+    
+    private final Map<Integer, ScoreHistogram> histograms = new ConcurrentHashMap<>();
+    
+    @Override
+    public void clear() {
+        histograms.clear();
+    }
+    
+    @Override
+    public void apply(PerformanceSnapshot before, PerformanceSnapshot after) {
+        if (before != null && before.score() != null) {
+            histograms.computeIfAbsent(before.subjectId(), subject -> new ScoreHistogram()).add(before.score(), -1);
+        }
+        if (after != null && after.score() != null) {
+            histograms.computeIfAbsent(after.subjectId(), subject -> new ScoreHistogram()).add(after.score(), 1);
+        }
+    }
+    
+    /**
+     * Histogram for a subject, or null when no scores were ever recorded for it
+     */
+    public ScoreHistogram get(int subjectId) {
+        return histograms.get(subjectId);
+    }
+}
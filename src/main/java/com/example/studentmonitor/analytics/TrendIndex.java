@@ -0,0 +1,197 @@
+package com.example.studentmonitor.analytics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Score trends per student and subject, kept as running sums of day (x) and score (y) so that the mean and the
+ * least-squares slope are available without reading any history. A moving average over the newest few records
+ * is kept alongside; when one of those is deleted or moved back in time, the window is refilled from the column
+ * store on the next read. Records without a date or score take no part in trends.
+ */
+@Component
+public class TrendIndex implements PerformanceIndex {
+
+    /**
+     * Trend of one student in one subject; slope is in points per day and null until two distinct days exist
+     */
+    public record Trend(int subjectId, long count, double mean, Double slope, double movingAverage, boolean declining) {
+    }
+
+    private record Point(int day, long recordId, int score) {
+    }
+
+    private static final Comparator<Point> CHRONOLOGICAL = Comparator
+            .comparingInt(Point::day)
+            .thenComparingLong(Point::recordId);
+
+    private final ScoreColumnStore columnStore;
+    private final int window;
+    private final int minPoints;
+    private final double declineThreshold;
+    private final Map<Long, Map<Integer, Series>> byStudent = new ConcurrentHashMap<>();
+
+    public TrendIndex(ScoreColumnStore columnStore,
+                      @Value("${app.trends.window:3}") int window,
+                      @Value("${app.trends.min-points:3}") int minPoints,
+                      @Value("${app.trends.decline-threshold:1.0}") double declineThreshold) {
+        this.columnStore = columnStore;
+        this.window = window;
+        this.minPoints = minPoints;
+        this.declineThreshold = declineThreshold;
+    }
+
+    @Override
+    public void clear() {
+        byStudent.clear();
+    }
+
+    @Override
+    public void apply(PerformanceSnapshot before, PerformanceSnapshot after) {
+        if (tracked(before)) {
+            Map<Integer, Series> subjects = byStudent.get(before.studentId());
+            Series series = subjects != null ? subjects.get(before.subjectId()) : null;
+            if (series != null && series.remove(pointOf(before))) {
+                subjects.remove(before.subjectId(), series);
+                if (subjects.isEmpty()) {
+                    byStudent.remove(before.studentId(), subjects);
+                }
+            }
+        }
+        if (tracked(after)) {
+            byStudent.computeIfAbsent(after.studentId(), id -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(after.subjectId(), id -> new Series())
+                    .add(pointOf(after));
+        }
+    }
+
+    /**
+     * Trends of one student, one per subject with at least one dated score
+     */
+    public List<Trend> trends(long studentId) {
+        Map<Integer, Series> subjects = byStudent.get(studentId);
+        if (subjects == null) {
+            return List.of();
+        }
+        List<Trend> trends = new ArrayList<>(subjects.size());
+        subjects.forEach((subjectId, series) -> trends.add(series.trend(studentId, subjectId)));
+        return trends;
+    }
+
+    /**
+     * Subject ids per student for students declining in at least the given number of subjects
+     */
+    public Map<Long, List<Integer>> decliningStudents(int minSubjects) {
+        Map<Long, List<Integer>> declining = new HashMap<>();
+        byStudent.forEach((studentId, subjects) -> {
+            List<Integer> decliningSubjects = new ArrayList<>();
+            subjects.forEach((subjectId, series) -> {
+                if (series.declining()) {
+                    decliningSubjects.add(subjectId);
+                }
+            });
+            if (decliningSubjects.size() >= minSubjects) {
+                declining.put(studentId, decliningSubjects);
+            }
+        });
+        return declining;
+    }
+
+    private static boolean tracked(PerformanceSnapshot snapshot) {
+        return snapshot != null && snapshot.score() != null && snapshot.date() != null;
+    }
+
+    private static Point pointOf(PerformanceSnapshot snapshot) {
+        return new Point((int) snapshot.date().toEpochDay(), snapshot.id(), (int) Math.round(snapshot.score() * 10));
+    }
+
+    private final class Series {
+
+        // Sums are exact in days and tenths of a point, so removals never accumulate rounding error
+        private long count;
+        private long sumX;
+        private long sumXX;
+        private long sumY;
+        private long sumXY;
+
+        // The newest records, complete unless stale
+        private final TreeSet<Point> recent = new TreeSet<>(CHRONOLOGICAL);
+        private boolean recentStale;
+
+        synchronized void add(Point point) {
+            count++;
+            sumX += point.day();
+            sumXX += (long) point.day() * point.day();
+            sumY += point.score();
+            sumXY += (long) point.day() * point.score();
+
+            if (!recentStale && (recent.size() < window || CHRONOLOGICAL.compare(point, recent.first()) > 0)) {
+                recent.add(point);
+                if (recent.size() > window) {
+                    recent.pollFirst();
+                }
+            }
+        }
+
+        /**
+         * Remove a point; returns true when the series is left empty
+         */
+        synchronized boolean remove(Point point) {
+            count--;
+            sumX -= point.day();
+            sumXX -= (long) point.day() * point.day();
+            sumY -= point.score();
+            sumXY -= (long) point.day() * point.score();
+
+            // An older record now belongs in the window but is not known here
+            if (!recentStale && recent.remove(point) && count >= window) {
+                recentStale = true;
+            }
+            return count == 0;
+        }
+
+        synchronized Trend trend(long studentId, int subjectId) {
+            if (recentStale) {
+                refill(studentId, subjectId);
+            }
+            double movingAverage = recent.stream().mapToInt(Point::score).average().orElse(0) / 10.0;
+            double mean = count > 0 ? sumY / (count * 10.0) : 0.0;
+            return new Trend(subjectId, count, mean, slope(), movingAverage, declining());
+        }
+
+        synchronized boolean declining() {
+            Double slope = slope();
+            return count >= minPoints && slope != null && slope * 30 <= -declineThreshold;
+        }
+
+        // Differences are taken in exact integer arithmetic because epoch days are large next to their spread
+        private Double slope() {
+            long denominator = count * sumXX - sumX * sumX;
+            if (count < 2 || denominator == 0) {
+                return null;
+            }
+            return (double) (count * sumXY - sumX * sumY) / denominator / 10.0;
+        }
+
+        private void refill(long studentId, int subjectId) {
+            recent.clear();
+            for (PerformanceSnapshot snapshot : columnStore.findByStudents(List.of(studentId))) {
+                if (snapshot.subjectId() == subjectId && tracked(snapshot)) {
+                    recent.add(pointOf(snapshot));
+                    if (recent.size() > window) {
+                        recent.pollFirst();
+                    }
+                }
+            }
+            recentStale = false;
+        }
+    }
+}
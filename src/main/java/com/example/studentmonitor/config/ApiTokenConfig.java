@@ -0,0 +1,99 @@
+package com.example.studentmonitor.config;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwtClaimValidator;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+
+/**
+ * Signing and verification of the API's bearer tokens. They are JWTs signed with HMAC-SHA256 under
+ * app.api-token.secret, so every node holding the secret verifies them on its own, without a session or a user
+ * lookup. The token type claim keeps refresh tokens from being used as access tokens and the other way round.
+ * No secret ships with the application: the production profile refuses to start without one, and any other
+ * profile signs with a random key made at startup.
+ */
+@Configuration
+public class ApiTokenConfig {
+    
+    private static final Logger log = LoggerFactory.getLogger(ApiTokenConfig.class);
+    
+    public static final String TOKEN_TYPE_CLAIM = "typ";
+    public static final String ROLES_CLAIM = "roles";
+    public static final String ACCESS_TOKEN = "access";
+    public static final String REFRESH_TOKEN = "refresh";
+    
+    @Bean
+    public SecretKey apiTokenKey(@Value("${app.api-token.secret:}") String secret, Environment environment) {
+        if (secret.isBlank()) {
+            if (environment.acceptsProfiles(Profiles.of("production"))) {
+                throw new IllegalStateException("app.api-token.secret must be set in production");
+            }
+            byte[] key = new byte[32];
+            new SecureRandom().nextBytes(key);
+            log.warn("app.api-token.secret is not set, signing API tokens with a random key: tokens will not survive "
+                    + "a restart and are only accepted by this node");
+            return new SecretKeySpec(key, "HmacSHA256");
+        }
+        byte[] key = Base64.getDecoder().decode(secret);
+        if (key.length < 32) {
+            throw new IllegalStateException("app.api-token.secret must be at least 32 bytes, base64 encoded");
+        }
+        return new SecretKeySpec(key, "HmacSHA256");
+    }
+    
+    @Bean
+    public JwtEncoder jwtEncoder(SecretKey apiTokenKey) {
+        return new NimbusJwtEncoder(new ImmutableSecret<>(apiTokenKey));
+    }
+    
+    /**
+     * Verifies access tokens for the resource server
+     */
+    @Bean
+    public JwtDecoder jwtDecoder(SecretKey apiTokenKey, @Value("${app.api-token.issuer}") String issuer) {
+        return decoder(apiTokenKey, issuer, ACCESS_TOKEN);
+    }
+    
+    // Authorities come from the roles claim, the name from the subject
+    @Bean
+    public JwtAuthenticationConverter jwtAuthenticationConverter() {
+        JwtGrantedAuthoritiesConverter authorities = new JwtGrantedAuthoritiesConverter();
+        authorities.setAuthoritiesClaimName(ROLES_CLAIM);
+        authorities.setAuthorityPrefix("ROLE_");
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(authorities);
+        return converter;
+    }
+    
+    /**
+     * A decoder accepting only tokens of the given type from this issuer, with the default expiry checks
+     */
+    public static JwtDecoder decoder(SecretKey key, String issuer, String tokenType) {
+        NimbusJwtDecoder decoder = NimbusJwtDecoder.withSecretKey(key).macAlgorithm(MacAlgorithm.HS256).build();
+        decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(
+                JwtValidators.createDefaultWithIssuer(issuer),
+                new JwtClaimValidator<String>(TOKEN_TYPE_CLAIM, tokenType::equals)));
+        return decoder;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.studentmonitor.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Enables @Async methods on the Boot-managed task executor, sized via spring.task.execution.*
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
@@ -2,42 +2,73 @@ package com.example.studentmonitor.config;
 
 import java.time.LocalDate;
 
-import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
+import com.example.studentmonitor.analytics.PerformanceIndexMaintainer;
 import com.example.studentmonitor.model.PerformanceRecord;
 import com.example.studentmonitor.model.Student;
 import com.example.studentmonitor.repository.PerformanceRepository;
 import com.example.studentmonitor.repository.StudentRepository;
+import com.example.studentmonitor.search.RemarksSearchIndex;
+import com.example.studentmonitor.service.SubjectService;
 import com.example.studentmonitor.service.UserService;
+import com.example.studentmonitor.sharding.ShardRouter;
 
+/**
+ * Creates the default admin before the application takes requests, so the first login works, and the sample
+ * students alongside it on the async executor, off the startup path. The sample rows are saved through the
+ * repositories, which publish no change events, so the in-memory and search indexes are rebuilt once they exist.
+ */
 @Component
-public class DataInitializer implements CommandLineRunner {
+@Profile("!loadtest")
+public class DataInitializer {
 
     private final StudentRepository studentRepository;
     private final PerformanceRepository performanceRepository;
     private final UserService userService;
+    private final SubjectService subjectService;
+    private final PerformanceIndexMaintainer indexMaintainer;
+    private final RemarksSearchIndex remarksSearchIndex;
+    private final ShardRouter shardRouter;
 
     public DataInitializer(StudentRepository studentRepository, 
                           PerformanceRepository performanceRepository,
-                          UserService userService) {
+                          UserService userService,
+                          SubjectService subjectService,
+                          PerformanceIndexMaintainer indexMaintainer,
+                          RemarksSearchIndex remarksSearchIndex,
+                          ShardRouter shardRouter) {
         this.studentRepository = studentRepository;
         this.performanceRepository = performanceRepository;
         this.userService = userService;
+        this.subjectService = subjectService;
+        this.indexMaintainer = indexMaintainer;
+        this.remarksSearchIndex = remarksSearchIndex;
+        this.shardRouter = shardRouter;
     }
 
-    @Override
-    public void run(String... args) throws Exception {
+    @EventListener(ApplicationStartedEvent.class)
+    public void initializeUsers() {
         // Create default admin user first
         createDefaultUsers();
-        
+    }
+
+    @Async
+    @EventListener(ApplicationStartedEvent.class)
+    public void initializeSampleData() {
         // Check if student data already exists
-        if (studentRepository.count() > 0) {
+        if (countStudents() > 0) {
             return; // Student data already initialized
         }
 
         // Create sample students and performance data
         createSampleData();
+        indexMaintainer.rebuild();
+        remarksSearchIndex.rebuild();
     }
     
     private void createDefaultUsers() {
@@ -65,26 +96,26 @@ public class DataInitializer implements CommandLineRunner {
         student2.setDateOfBirth(LocalDate.of(1999, 8, 22));
 
         // Save students
-        student1 = studentRepository.save(student1);
-        student2 = studentRepository.save(student2);
+        student1 = save(student1);
+        student2 = save(student2);
 
         // Create sample performance records for student1
         PerformanceRecord performance1 = new PerformanceRecord();
-        performance1.setSubject("Mathematics");
+        performance1.setSubject(subjectService.resolve("Mathematics"));
         performance1.setScore(85.5);
         performance1.setDate(LocalDate.of(2024, 9, 15));
         performance1.setRemarks("Good understanding of algebra");
         performance1.setStudent(student1);
 
         PerformanceRecord performance2 = new PerformanceRecord();
-        performance2.setSubject("Physics");
+        performance2.setSubject(subjectService.resolve("Physics"));
         performance2.setScore(92.0);
         performance2.setDate(LocalDate.of(2024, 9, 20));
         performance2.setRemarks("Excellent lab work");
         performance2.setStudent(student1);
 
         PerformanceRecord performance3 = new PerformanceRecord();
-        performance3.setSubject("Chemistry");
+        performance3.setSubject(subjectService.resolve("Chemistry"));
         performance3.setScore(78.5);
         performance3.setDate(LocalDate.of(2024, 9, 18));
         performance3.setRemarks("Needs improvement in organic chemistry");
@@ -92,36 +123,53 @@ public class DataInitializer implements CommandLineRunner {
 
         // Create sample performance records for student2
         PerformanceRecord performance4 = new PerformanceRecord();
-        performance4.setSubject("Mathematics");
+        performance4.setSubject(subjectService.resolve("Mathematics"));
         performance4.setScore(95.0);
         performance4.setDate(LocalDate.of(2024, 9, 16));
         performance4.setRemarks("Outstanding performance");
         performance4.setStudent(student2);
 
         PerformanceRecord performance5 = new PerformanceRecord();
-        performance5.setSubject("English Literature");
+        performance5.setSubject(subjectService.resolve("English Literature"));
         performance5.setScore(88.0);
         performance5.setDate(LocalDate.of(2024, 9, 22));
         performance5.setRemarks("Creative writing skills are impressive");
         performance5.setStudent(student2);
 
         PerformanceRecord performance6 = new PerformanceRecord();
-        performance6.setSubject("History");
+        performance6.setSubject(subjectService.resolve("History"));
         performance6.setScore(82.5);
         performance6.setDate(LocalDate.of(2024, 9, 19));
         performance6.setRemarks("Good analysis of historical events");
         performance6.setStudent(student2);
 
         // Save performance records
-        performanceRepository.save(performance1);
-        performanceRepository.save(performance2);
-        performanceRepository.save(performance3);
-        performanceRepository.save(performance4);
-        performanceRepository.save(performance5);
-        performanceRepository.save(performance6);
+        save(performance1);
+        save(performance2);
+        save(performance3);
+        save(performance4);
+        save(performance5);
+        save(performance6);
 
         System.out.println("Sample data initialized successfully!");
-        System.out.println("Created " + studentRepository.count() + " students");
-        System.out.println("Created " + performanceRepository.count() + " performance records");
+        System.out.println("Created " + countStudents() + " students");
+        System.out.println("Created " + shardRouter.onEveryShard(true, shard -> performanceRepository.count())
+                .stream().mapToLong(Long::longValue).sum() + " performance records");
+    }
+
+    // Students are spread over the shards like those created through the service, records follow their student
+    private Student save(Student student) {
+        return shardRouter.onShard(shardRouter.nextShardForNewStudent(), false, () -> studentRepository.save(student));
+    }
+
+    private void save(PerformanceRecord performance) {
+        shardRouter.onShard(shardRouter.shardOfStudent(performance.getStudent().getId()), false,
+                () -> performanceRepository.save(performance));
+    }
+
+    private long countStudents() {
+        return shardRouter.onEveryShard(true, shard -> studentRepository.count()).stream()
+                .mapToLong(Long::longValue)
+                .sum();
     }
 }
\ No newline at end of file
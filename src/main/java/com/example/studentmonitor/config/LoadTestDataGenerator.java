@@ -0,0 +1,287 @@
+package com.example.studentmonitor.config;
+
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.studentmonitor.model.PerformanceRecord;
+import com.example.studentmonitor.repository.BulkLoadSupport;
+import com.example.studentmonitor.repository.StudentRepository;
+import com.example.studentmonitor.service.SubjectService;
+import com.example.studentmonitor.service.UserService;
+import com.example.studentmonitor.sharding.ShardRouter;
+
+/**
+ * Synthetic data for capacity testing, used instead of {@link DataInitializer} under the loadtest profile. Every
+ * student draws an ability, a spread and a slow drift, every subject a difficulty, and each score is ability plus
+ * difficulty plus drift over time plus noise, clamped to 0-100; students take a few of the subjects and are
+ * assessed on random days in the configured span. Each student's values come from a random seeded with the run
+ * seed and the student id, so a seed always produces the same data however the work is split across threads.
+ * Students are inserted in chunks of app.loadtest.chunk-students, one transaction and a few JDBC batches per
+ * chunk, by app.loadtest.threads workers with the secondary indexes dropped until the end. The explicit ids do not
+ * follow the shard strides, so it refuses to run with sharding enabled.
+ */
+@Component
+@Profile("loadtest")
+public class LoadTestDataGenerator implements CommandLineRunner {
+    
+    private static final Logger log = LoggerFactory.getLogger(LoadTestDataGenerator.class);
+    
+    private static final String[] SUBJECTS = {
+            "Mathematics", "Physics", "Chemistry", "Biology", "English Literature", "History", "Geography",
+            "Computer Science", "Economics", "Art", "Music", "Physical Education", "French", "Spanish",
+            "Philosophy", "Psychology", "Statistics", "Business Studies", "Drama", "Religious Studies"
+    };
+    private static final String[] FIRST_NAMES = {
+            "James", "Mary", "John", "Patricia", "Robert", "Jennifer", "Michael", "Linda", "William", "Elizabeth",
+            "David", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Charles", "Karen",
+            "Daniel", "Nancy", "Matthew", "Lisa", "Anthony", "Betty", "Mark", "Sandra", "Steven", "Ashley",
+            "Kasun", "Nimali", "Amaya", "Ravindu", "Priya", "Arjun", "Mei", "Hiroshi", "Fatima", "Omar"
+    };
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+            "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin",
+            "Perera", "Fernando", "Silva", "Rathnayaka", "Jayasinghe", "Patel", "Chen", "Tanaka", "Khan", "Ali"
+    };
+    // Lowest score each remark applies to, best first
+    private static final double[] REMARK_FLOORS = {90, 75, 60, 45, 0};
+    private static final String[][] REMARKS = {
+            {"Outstanding performance", "Excellent work throughout", "Exceptional understanding of the material"},
+            {"Good understanding of the topic", "Solid effort and steady progress", "Strong analytical skills"},
+            {"Satisfactory work", "Meets expectations with room to grow", "Needs more practice with problem solving"},
+            {"Needs improvement in core concepts", "Struggled with the harder questions", "Should revise the basics"},
+            {"Requires significant support", "Missed key concepts, extra tutoring advised", "Incomplete work"}
+    };
+    
+    private static final String INSERT_STUDENT =
+            "INSERT INTO student (id, first_name, last_name, email, date_of_birth, version) VALUES (?, ?, ?, ?, ?, 0)";
+    private static final int[] STUDENT_TYPES = {Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.DATE};
+    private static final String INSERT_PERFORMANCE =
+            "INSERT INTO performance_record (id, subject_id, student_id, score, date, remarks, version, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, 0, ?)";
+    private static final int[] PERFORMANCE_TYPES = {Types.BIGINT, Types.INTEGER, Types.BIGINT, Types.DOUBLE, Types.DATE,
+            Types.VARCHAR, Types.TIMESTAMP_WITH_TIMEZONE};
+    
+    private final StudentRepository studentRepository;
+    private final SubjectService subjectService;
+    private final UserService userService;
+    private final BulkLoadSupport bulkLoadSupport;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    
+    @Value("${app.loadtest.students:100000}")
+    private int students;
+    
+    @Value("${app.loadtest.records-per-student:20}")
+    private int recordsPerStudent;
+    
+    @Value("${app.loadtest.subjects:12}")
+    private int subjectCount;
+    
+    @Value("${app.loadtest.start-date:2024-09-01}")
+    private LocalDate startDate;
+    
+    @Value("${app.loadtest.days:365}")
+    private int days;
+    
+    @Value("${app.loadtest.seed:42}")
+    private long seed;
+    
+    @Value("${app.loadtest.threads:4}")
+    private int threads;
+    
+    @Value("${app.loadtest.chunk-students:500}")
+    private int chunkStudents;
+    
+    public LoadTestDataGenerator(StudentRepository studentRepository, SubjectService subjectService,
+                                 UserService userService, BulkLoadSupport bulkLoadSupport, DataSource dataSource,
+                                 PlatformTransactionManager transactionManager, ShardRouter shardRouter) {
+        this.studentRepository = studentRepository;
+        this.subjectService = subjectService;
+        this.userService = userService;
+        this.bulkLoadSupport = bulkLoadSupport;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardRouter = shardRouter;
+    }
+    
+    @Override
+    public void run(String... args) throws Exception {
+        if (shardRouter.isSharded()) {
+            throw new IllegalStateException("The loadtest profile cannot be combined with sharding");
+        }
+        userService.createAdminIfNotExists();
+        if (studentRepository.count() > 0) {
+            log.info("Students already exist; skipping load test data generation");
+            return;
+        }
+        if (subjectCount < 1 || recordsPerStudent < 0 || days < 1) {
+            throw new IllegalArgumentException("app.loadtest.subjects and app.loadtest.days must be positive and "
+                    + "app.loadtest.records-per-student must not be negative");
+        }
+    
+        int[] subjectIds = new int[subjectCount];
+        double[] difficulty = new double[subjectCount];
+        SplittableRandom subjectRandom = new SplittableRandom(seed);
+        for (int i = 0; i < subjectCount; i++) {
+            String name = i < SUBJECTS.length ? SUBJECTS[i] : "Elective " + (i - SUBJECTS.length + 1);
+            subjectIds[i] = subjectService.resolve(name).getId();
+            difficulty[i] = gaussian(subjectRandom) * 6;
+        }
+    
+        log.info("Generating {} students with {} records each over {} subjects (seed {}, {} threads)",
+                students, recordsPerStudent, subjectCount, seed, threads);
+        long started = System.nanoTime();
+        AtomicLong rows = new AtomicLong();
+        bulkLoadSupport.dropPerformanceIndexes();
+        try {
+            generate(subjectIds, difficulty, rows, started);
+        } finally {
+            bulkLoadSupport.createPerformanceIndexes();
+        }
+        bulkLoadSupport.restartIdentities("student", "performance_record");
+    
+        double seconds = (System.nanoTime() - started) / 1e9;
+        log.info("Generated {} rows in {} s ({} rows/sec)", rows.get(), String.format("%.1f", seconds),
+                Math.round(rows.get() / seconds));
+    }
+    
+    private void generate(int[] subjectIds, double[] difficulty, AtomicLong rows, long started) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new NamedThreads());
+        List<Future<?>> chunks = new ArrayList<>();
+        for (long first = 1; first <= students; first += chunkStudents) {
+            long from = first;
+            long to = Math.min(students, first + chunkStudents - 1);
+            chunks.add(executor.submit(() ->
+                    transactionTemplate.executeWithoutResult(status -> insertChunk(from, to, subjectIds, difficulty, rows))));
+        }
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                double seconds = (System.nanoTime() - started) / 1e9;
+                log.info("Inserted {} rows ({} rows/sec)", rows.get(), Math.round(rows.get() / seconds));
+            }
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    private void insertChunk(long from, long to, int[] subjectIds, double[] difficulty, AtomicLong rows) {
+        List<Object[]> studentRows = new ArrayList<>((int) (to - from + 1));
+        List<Object[]> performanceRows = new ArrayList<>((int) (to - from + 1) * recordsPerStudent);
+        for (long studentId = from; studentId <= to; studentId++) {
+            SplittableRandom random = new SplittableRandom(seed * 0x9E3779B97F4A7C15L + studentId);
+            String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            studentRows.add(new Object[] {
+                    studentId,
+                    firstName,
+                    lastName,
+                    (firstName + "." + lastName + "." + studentId + "@example.com").toLowerCase(),
+                    LocalDate.of(1998, 1, 1).plusDays(random.nextInt(3650))
+            });
+    
+            double ability = clamp(70 + gaussian(random) * 12);
+            double spread = 4 + random.nextDouble() * 8;
+            // Points per year, mostly small; a few students improve or decline markedly
+            double drift = gaussian(random) * 4;
+            int[] taken = pickSubjects(random, Math.min(subjectCount, 4 + random.nextInt(5)));
+            // Ids follow from the student id alone, so chunks never collide
+            long recordId = (studentId - 1) * recordsPerStudent;
+            for (int i = 0; i < recordsPerStudent; i++) {
+                int subject = taken[random.nextInt(taken.length)];
+                int day = random.nextInt(days);
+                double score = clamp(ability - difficulty[subject] + drift * day / 365.0 + gaussian(random) * spread);
+                score = Math.round(score * 10) / 10.0;
+                performanceRows.add(new Object[] {
+                        ++recordId,
+                        subjectIds[subject],
+                        studentId,
+                        score,
+                        startDate.plusDays(day),
+                        remark(random, score),
+                        PerformanceRecord.now().atOffset(ZoneOffset.UTC)
+                });
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_STUDENT, studentRows, STUDENT_TYPES);
+        jdbcTemplate.batchUpdate(INSERT_PERFORMANCE, performanceRows, PERFORMANCE_TYPES);
+        rows.addAndGet(studentRows.size() + performanceRows.size());
+    }
+    
+    // Partial Fisher-Yates shuffle of the subject indexes
+    private int[] pickSubjects(SplittableRandom random, int count) {
+        int[] all = new int[subjectCount];
+        for (int i = 0; i < subjectCount; i++) {
+            all[i] = i;
+        }
+        for (int i = 0; i < count; i++) {
+            int j = i + random.nextInt(subjectCount - i);
+            int swap = all[i];
+            all[i] = all[j];
+            all[j] = swap;
+        }
+        int[] picked = new int[count];
+        System.arraycopy(all, 0, picked, 0, count);
+        return picked;
+    }
+    
+    private static String remark(SplittableRandom random, double score) {
+        int band = 0;
+        while (score < REMARK_FLOORS[band]) {
+            band++;
+        }
+        // About one record in five has no remarks
+        if (random.nextInt(5) == 0) {
+            return null;
+        }
+        return REMARKS[band][random.nextInt(REMARKS[band].length)];
+    }
+    
+    private static double clamp(double score) {
+        return Math.max(0, Math.min(100, score));
+    }
+    
+    // Box-Muller; SplittableRandom has no nextGaussian on Java 17
+    private static double gaussian(SplittableRandom random) {
+        double u = 1 - random.nextDouble();
+        double v = random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * v);
+    }
+    
+    private static final class NamedThreads implements ThreadFactory {
+    
+        private final AtomicInteger count = new AtomicInteger();
+    
+        @Override
+        public Thread newThread(Runnable runnable) {
+            return new Thread(runnable, "loadtest-generator-" + count.incrementAndGet());
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.studentmonitor.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs on the Boot-managed scheduler, sized via spring.task.scheduling.*
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
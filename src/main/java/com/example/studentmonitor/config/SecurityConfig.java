@@ -1,18 +1,28 @@
 package com.example.studentmonitor.config;
 
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.session.SessionRegistry;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
+import org.springframework.security.web.context.SecurityContextHolderFilter;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 
 import com.example.studentmonitor.service.UserService;
 
@@ -40,8 +50,60 @@ public class SecurityConfig {
     }
     
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public WarmUpAuthenticationFilter warmUpAuthenticationFilter() {
+        return new WarmUpAuthenticationFilter();
+    }
+    
+    // Only part of the security filter chain, not registered with the servlet container on its own
+    @Bean
+    public FilterRegistrationBean<WarmUpAuthenticationFilter> warmUpAuthenticationFilterRegistration(
+            WarmUpAuthenticationFilter filter) {
+        FilterRegistrationBean<WarmUpAuthenticationFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+    
+    /**
+     * Stateless chain for API clients: token requests, and /api calls carrying a bearer token. They are
+     * authenticated from the signed token alone, with no session, CSRF token or user lookup. API calls without a
+     * bearer token, such as those of the web pages, go through the session chain below.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain apiTokenFilterChain(HttpSecurity http, JwtAuthenticationConverter jwtAuthenticationConverter)
+            throws Exception {
+        RequestMatcher bearerToken = request -> {
+            String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+            return authorization != null && authorization.regionMatches(true, 0, "Bearer ", 0, 7);
+        };
+        http
+            .securityMatcher(new OrRequestMatcher(
+                new AntPathRequestMatcher("/api/auth/**"),
+                new AndRequestMatcher(new AntPathRequestMatcher("/api/**"), bearerToken)))
+            .authorizeHttpRequests(authz -> authz
+                .requestMatchers(new AntPathRequestMatcher("/api/auth/token")).permitAll()
+                .requestMatchers(new AntPathRequestMatcher("/api/auth/refresh")).permitAll()
+                .requestMatchers(new AntPathRequestMatcher("/api/at-risk/scan")).hasRole("ADMIN")
+                .requestMatchers(new AntPathRequestMatcher("/api/admin/**")).hasRole("ADMIN")
+                .anyRequest().authenticated()
+            )
+            .oauth2ResourceServer(oauth2 -> oauth2
+                .jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter))
+            )
+            .sessionManagement(session -> session
+                .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+            )
+            .csrf(csrf -> csrf.disable()); // No cookies are involved
+        
+        return http.build();
+    }
+    
+    @Bean
+    @Order(2)
+    public SecurityFilterChain filterChain(HttpSecurity http, WarmUpAuthenticationFilter warmUpAuthenticationFilter,
+                                           SessionRegistry sessionRegistry) throws Exception {
         http
+            .addFilterAfter(warmUpAuthenticationFilter, SecurityContextHolderFilter.class)
             .authorizeHttpRequests(authz -> authz
                 // Public pages - accessible to everyone
                 .requestMatchers(new AntPathRequestMatcher("/")).permitAll()
@@ -50,10 +112,14 @@ public class SecurityConfig {
                 .requestMatchers(new AntPathRequestMatcher("/css/**")).permitAll()
                 .requestMatchers(new AntPathRequestMatcher("/js/**")).permitAll()
                 .requestMatchers(new AntPathRequestMatcher("/images/**")).permitAll()
+                // Health and readiness probes
+                .requestMatchers(new AntPathRequestMatcher("/actuator/health/**")).permitAll()
                 // H2 Console - only in development (handled by WebController)
                 .requestMatchers(new AntPathRequestMatcher("/h2-console/**")).permitAll()
                 // Admin pages - only for admins
                 .requestMatchers(new AntPathRequestMatcher("/admin/**")).hasRole("ADMIN")
+                .requestMatchers(new AntPathRequestMatcher("/api/at-risk/scan")).hasRole("ADMIN")
+                .requestMatchers(new AntPathRequestMatcher("/api/admin/**")).hasRole("ADMIN")
                 // All other pages require authentication
                 .anyRequest().authenticated()
             )
@@ -75,6 +141,7 @@ public class SecurityConfig {
             .sessionManagement(session -> session
                 .maximumSessions(1)
                 .maxSessionsPreventsLogin(false)
+                .sessionRegistry(sessionRegistry) // per node or shared, see SessionStoreConfig
             )
             .rememberMe(remember -> remember
                 .key("uniqueAndSecret")
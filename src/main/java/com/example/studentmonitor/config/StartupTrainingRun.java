@@ -0,0 +1,29 @@
+package com.example.studentmonitor.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stops the application as soon as it is ready when app.startup.exit-after-ready is set, for the training run
+ * of the fast-startup build that records the classes loaded during startup into the CDS archive. The property is
+ * read at runtime rather than through a condition so the bean survives AOT processing either way.
+ */
+@Component
+public class StartupTrainingRun {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTrainingRun.class);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        if (!event.getApplicationContext().getEnvironment()
+                .getProperty("app.startup.exit-after-ready", Boolean.class, false)) {
+            return;
+        }
+        log.info("Training run finished after {} ms, exiting", event.getTimeTaken().toMillis());
+        System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+}
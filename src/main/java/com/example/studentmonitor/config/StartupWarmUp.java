@@ -0,0 +1,144 @@
+package com.example.studentmonitor.config;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.example.studentmonitor.dto.PerformanceDTO;
+import com.example.studentmonitor.dto.StudentDTO;
+import com.example.studentmonitor.service.AnalyticsService;
+import com.example.studentmonitor.service.PerformanceService;
+import com.example.studentmonitor.service.StudentService;
+
+/**
+ * Exercises the common read paths before the application reports itself ready, so the first real requests do not
+ * pay for cold JIT, Hibernate query plans, lazily created beans and the first template compilations. Each round
+ * reads a few real students through the services, loads their analytics, and renders the home page and their
+ * detail pages over loopback HTTP, authenticated by {@link WarmUpAuthenticationFilter}. Readiness is only reported
+ * once this listener returns, which is after app.warm-up.rounds rounds or app.warm-up.budget, whichever comes first.
+ * It runs last among the ready listeners, after the in-memory indexes are loaded.
+ */
+@Component
+public class StartupWarmUp {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupWarmUp.class);
+
+    private final StudentService studentService;
+    private final PerformanceService performanceService;
+    private final AnalyticsService analyticsService;
+    private final WarmUpAuthenticationFilter authenticationFilter;
+
+    @Value("${app.warm-up.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.warm-up.rounds:20}")
+    private int rounds;
+
+    @Value("${app.warm-up.students:5}")
+    private int students;
+
+    @Value("${app.warm-up.budget:PT30S}")
+    private Duration budget;
+
+    private volatile boolean stopped;
+
+    public StartupWarmUp(StudentService studentService, PerformanceService performanceService,
+                         AnalyticsService analyticsService, WarmUpAuthenticationFilter authenticationFilter) {
+        this.studentService = studentService;
+        this.performanceService = performanceService;
+        this.analyticsService = analyticsService;
+        this.authenticationFilter = authenticationFilter;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void warmUp(ApplicationReadyEvent event) throws InterruptedException {
+        if (!enabled || !(event.getApplicationContext() instanceof WebServerApplicationContext context)) {
+            return;
+        }
+        String baseUrl = "http://localhost:" + context.getWebServer().getPort();
+        long started = System.currentTimeMillis();
+        FutureTask<Integer> task = new FutureTask<>(() -> runRounds(baseUrl));
+        Thread thread = new Thread(task, "startup-warm-up");
+        thread.setDaemon(true);
+        thread.start();
+        try {
+            int completed = task.get(budget.toMillis(), TimeUnit.MILLISECONDS);
+            log.info("Warm-up finished {} rounds in {} ms", completed, System.currentTimeMillis() - started);
+        } catch (TimeoutException e) {
+            stopped = true;
+            log.warn("Warm-up did not finish within {}; reporting ready anyway", budget);
+        } catch (ExecutionException e) {
+            log.warn("Warm-up failed after {} ms; reporting ready anyway", System.currentTimeMillis() - started,
+                    e.getCause());
+        }
+    }
+
+    private int runRounds(String baseUrl) throws Exception {
+        List<Long> studentIds = studentService.getStudentsAfter(0L, students).stream()
+                .map(StudentDTO::getId)
+                .toList();
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        int round = 0;
+        while (round < rounds && !stopped) {
+            readThroughServices(studentIds);
+            render(client, baseUrl + "/");
+            for (Long studentId : studentIds) {
+                if (stopped) {
+                    break;
+                }
+                render(client, baseUrl + "/students/" + studentId);
+            }
+            round++;
+        }
+        return round;
+    }
+
+    private void readThroughServices(List<Long> studentIds) {
+        studentService.countStudents();
+        for (Long studentId : studentIds) {
+            studentService.getStudent(studentId);
+            analyticsService.getPercentiles(performanceService.getByStudent(studentId));
+            analyticsService.getTrends(studentId);
+        }
+        List<PerformanceDTO> performances = performanceService.getByStudents(studentIds);
+        analyticsService.getScoreStatsBySubject(null, null, null);
+        if (!performances.isEmpty()) {
+            // A subject that is known to have scores
+            String subject = performances.get(0).getSubject();
+            analyticsService.getLeaderboard(subject, 10, "latest");
+            analyticsService.getMedian(subject);
+        }
+    }
+
+    private void render(HttpClient client, String url) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header(WarmUpAuthenticationFilter.TOKEN_HEADER, authenticationFilter.getToken())
+                .timeout(Duration.ofSeconds(10))
+                .GET()
+                .build();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Warm-up request to " + url + " returned " + response.statusCode());
+        }
+    }
+}
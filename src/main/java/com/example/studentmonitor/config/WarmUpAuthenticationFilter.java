@@ -0,0 +1,78 @@
+package com.example.studentmonitor.config;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.studentmonitor.model.User;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+/**
+ * Authenticates the startup warm-up's own requests as a transient, non-admin user, so that it can render the
+ * signed-in pages without a stored account or password. A request qualifies only when it comes from the loopback
+ * interface and carries the token generated at boot, which never leaves the process; its security context is not
+ * saved and any session it created is invalidated afterwards.
+ */
+public class WarmUpAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String TOKEN_HEADER = "X-Warm-Up-Token";
+
+    private final byte[] token;
+
+    public WarmUpAuthenticationFilter() {
+        byte[] random = new byte[32];
+        new SecureRandom().nextBytes(random);
+        this.token = HexFormat.of().formatHex(random).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    public String getToken() {
+        return new String(token, StandardCharsets.US_ASCII);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!isWarmUpRequest(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        User user = new User("warm-up", "warm-up@localhost", "", "Warm", "Up");
+        context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities()));
+        SecurityContextHolder.setContext(context);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SecurityContextHolder.clearContext();
+            HttpSession session = request.getSession(false);
+            if (session != null) {
+                session.invalidate();
+            }
+        }
+    }
+
+    private boolean isWarmUpRequest(HttpServletRequest request) {
+        String header = request.getHeader(TOKEN_HEADER);
+        if (header == null || !MessageDigest.isEqual(token, header.getBytes(StandardCharsets.US_ASCII))) {
+            return false;
+        }
+        try {
+            return InetAddress.getByName(request.getRemoteAddr()).isLoopbackAddress();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
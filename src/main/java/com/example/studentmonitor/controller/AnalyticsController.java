@@ -0,0 +1,66 @@
+package com.example.studentmonitor.controller;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.studentmonitor.dto.PercentileDTO;
+import com.example.studentmonitor.dto.ScoreDistributionDTO;
+import com.example.studentmonitor.dto.ScoreStatsDTO;
+import com.example.studentmonitor.service.AnalyticsService;
+
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+    
+    private final AnalyticsService analyticsService;
+    
+    public AnalyticsController(AnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+    
+    @GetMapping("/scores")
+    public ResponseEntity<ScoreStatsDTO> getScoreStats(
+            @RequestParam(required = false) String subject,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) List<Long> studentIds) {
+        ScoreStatsDTO stats = analyticsService.getScoreStats(subject, from, to, studentIds);
+        return ResponseEntity.ok(stats);
+    }
+    
+    @GetMapping("/subjects")
+    public ResponseEntity<List<ScoreStatsDTO>> getScoreStatsBySubject(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) List<Long> studentIds) {
+        List<ScoreStatsDTO> stats = analyticsService.getScoreStatsBySubject(from, to, studentIds);
+        return ResponseEntity.ok(stats);
+    }
+    
+    @GetMapping("/subjects/{subject}/percentile")
+    public ResponseEntity<PercentileDTO> getPercentile(@PathVariable String subject, @RequestParam double score) {
+        PercentileDTO percentile = analyticsService.getPercentile(subject, score);
+        return ResponseEntity.ok(percentile);
+    }
+    
+    @GetMapping("/subjects/{subject}/median")
+    public ResponseEntity<PercentileDTO> getMedian(@PathVariable String subject) {
+        PercentileDTO median = analyticsService.getMedian(subject);
+        return ResponseEntity.ok(median);
+    }
+    
+    @GetMapping("/subjects/{subject}/distribution")
+    public ResponseEntity<ScoreDistributionDTO> getDistribution(@PathVariable String subject,
+                                                                @RequestParam(defaultValue = "10") double bucketWidth) {
+        ScoreDistributionDTO distribution = analyticsService.getDistribution(subject, bucketWidth);
+        return ResponseEntity.ok(distribution);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.studentmonitor.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.studentmonitor.dto.RefreshTokenRequestDTO;
+import com.example.studentmonitor.dto.TokenRequestDTO;
+import com.example.studentmonitor.dto.TokenResponseDTO;
+import com.example.studentmonitor.service.ApiTokenService;
+
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/api/auth")
+public class ApiAuthController {
+    
+    private final ApiTokenService apiTokenService;
+    
+    public ApiAuthController(ApiTokenService apiTokenService) {
+        this.apiTokenService = apiTokenService;
+    }
+    
+    @PostMapping("/token")
+    public ResponseEntity<TokenResponseDTO> issueTokens(@Valid @RequestBody TokenRequestDTO request) {
+        return ResponseEntity.ok(apiTokenService.issueTokens(request.getUsername(), request.getPassword()));
+    }
+    
+    @PostMapping("/refresh")
+    public ResponseEntity<TokenResponseDTO> refreshTokens(@Valid @RequestBody RefreshTokenRequestDTO request) {
+        return ResponseEntity.ok(apiTokenService.refreshTokens(request.getRefreshToken()));
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.studentmonitor.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.studentmonitor.dto.EventLogReplayDTO;
+import com.example.studentmonitor.dto.EventLogStatusDTO;
+import com.example.studentmonitor.service.EventLogService;
+
+@RestController
+@RequestMapping("/api/admin/event-log")
+public class EventLogController {
+    
+    private final EventLogService eventLogService;
+    
+    public EventLogController(EventLogService eventLogService) {
+        this.eventLogService = eventLogService;
+    }
+    
+    @GetMapping
+    public ResponseEntity<EventLogStatusDTO> getStatus() {
+        return ResponseEntity.ok(eventLogService.getStatus());
+    }
+    
+    @PostMapping("/replay")
+    public ResponseEntity<EventLogReplayDTO> replay() {
+        EventLogReplayDTO result = eventLogService.replay();
+        return ResponseEntity.ok(result);
+    }
+}
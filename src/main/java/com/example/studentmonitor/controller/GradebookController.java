@@ -0,0 +1,63 @@
+package com.example.studentmonitor.controller;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.studentmonitor.service.GradebookService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+@RestController
+@RequestMapping("/api/gradebook")
+public class GradebookController {
+    
+    private final GradebookService gradebookService;
+    private final ObjectMapper objectMapper;
+    
+    public GradebookController(GradebookService gradebookService, ObjectMapper objectMapper) {
+        this.gradebookService = gradebookService;
+        this.objectMapper = objectMapper;
+    }
+    
+    /**
+     * Rows are serialized as they are read, so the response is never held in memory as a whole. Nothing is
+     * written before the service has accepted the mode, which lets a bad one still reach the exception handler
+     */
+    @GetMapping
+    public void getGradebook(@RequestParam(defaultValue = "latest") String mode, HttpServletResponse response) throws IOException {
+        JsonGenerator json = objectMapper.getFactory().createGenerator(response.getOutputStream());
+        gradebookService.streamGradebook(mode,
+                subjects -> write(() -> {
+                    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                    json.writeStartObject();
+                    json.writeStringField("mode", mode);
+                    json.writeObjectField("subjects", subjects);
+                    json.writeArrayFieldStart("rows");
+                }),
+                row -> write(() -> json.writeObject(row)));
+        json.writeEndArray();
+        json.writeEndObject();
+        json.close();
+    }
+    
+    private static void write(JsonWrite write) {
+        try {
+            write.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    @FunctionalInterface
+    private interface JsonWrite {
+        void run() throws IOException;
+    }
+}
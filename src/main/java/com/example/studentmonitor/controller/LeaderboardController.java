@@ -0,0 +1,32 @@
+package com.example.studentmonitor.controller;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.studentmonitor.dto.LeaderboardEntryDTO;
+import com.example.studentmonitor.service.AnalyticsService;
+
+@RestController
+@RequestMapping("/api/leaderboards")
+public class LeaderboardController {
+    
+    private final AnalyticsService analyticsService;
+    
+    public LeaderboardController(AnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+    
+    @GetMapping("/{subject}")
+    public ResponseEntity<List<LeaderboardEntryDTO>> getLeaderboard(@PathVariable String subject,
+                                                                    @RequestParam(defaultValue = "10") int k,
+                                                                    @RequestParam(defaultValue = "best") String mode) {
+        List<LeaderboardEntryDTO> leaderboard = analyticsService.getLeaderboard(subject, k, mode);
+        return ResponseEntity.ok(leaderboard);
+    }
+}
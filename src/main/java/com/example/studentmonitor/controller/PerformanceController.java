@@ -1,18 +1,30 @@
 package com.example.studentmonitor.controller;
 
+import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.example.studentmonitor.dto.PerformanceDTO;
+import com.example.studentmonitor.dto.PerformanceEntryDTO;
+import com.example.studentmonitor.dto.PerformanceSearchResultDTO;
+import com.example.studentmonitor.dto.TextSearchResultDTO;
+import com.example.studentmonitor.dto.TimelineBucketDTO;
+import com.example.studentmonitor.service.PerformanceEntryService;
 import com.example.studentmonitor.service.PerformanceService;
 
 import jakarta.validation.Valid;
@@ -21,40 +33,118 @@ import jakarta.validation.Valid;
 public class PerformanceController {
     
     private final PerformanceService performanceService;
+    private final PerformanceEntryService performanceEntryService;
     
-    public PerformanceController(PerformanceService performanceService) {
+    public PerformanceController(PerformanceService performanceService, PerformanceEntryService performanceEntryService) {
         this.performanceService = performanceService;
+        this.performanceEntryService = performanceEntryService;
     }
     
     @PostMapping("/api/students/{studentId}/performances")
-    public ResponseEntity<PerformanceDTO> createPerformance(@PathVariable Long studentId, 
-                                                           @Valid @RequestBody PerformanceDTO performanceDTO) {
+    public ResponseEntity<?> createPerformance(@PathVariable Long studentId, 
+                                              @Valid @RequestBody PerformanceDTO performanceDTO) {
+        if (performanceEntryService.isWriteBehindEnabled()) {
+            // Accepted, not yet written; the entry location reports when the record exists
+            PerformanceEntryDTO entry = performanceEntryService.submitPerformance(studentId, performanceDTO);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/performances/entries/" + entry.getSequence()))
+                    .body(entry);
+        }
         PerformanceDTO createdPerformance = performanceService.createPerformance(studentId, performanceDTO);
         return new ResponseEntity<>(createdPerformance, HttpStatus.CREATED);
     }
     
+    @GetMapping("/api/performances/entries/{sequence}")
+    public ResponseEntity<PerformanceEntryDTO> getPerformanceEntry(@PathVariable long sequence) {
+        return ResponseEntity.ok(performanceEntryService.getEntry(sequence));
+    }
+    
     @GetMapping("/api/students/{studentId}/performances")
-    public ResponseEntity<List<PerformanceDTO>> getPerformancesByStudent(@PathVariable Long studentId) {
+    public ResponseEntity<List<PerformanceDTO>> getPerformancesByStudent(@PathVariable Long studentId, WebRequest request) {
+        // Revalidation compares an aggregate fingerprint instead of loading and serializing the list
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && request.checkNotModified(performancesTag(studentId, performanceService.getStudentPerformancesTag(studentId)))) {
+            return null;
+        }
         List<PerformanceDTO> performances = performanceService.getByStudent(studentId);
-        return ResponseEntity.ok(performances);
+        String tag = performancesTag(studentId, performanceService.computePerformancesTag(performances));
+        return ResponseEntity.ok().eTag(tag).body(performances);
+    }
+    
+    @GetMapping("/api/students/{studentId}/timeline")
+    public ResponseEntity<List<TimelineBucketDTO>> getTimeline(@PathVariable Long studentId,
+                                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                               @RequestParam(defaultValue = "month") String bucket) {
+        List<TimelineBucketDTO> timeline = performanceService.getTimeline(studentId, from, to, bucket);
+        return ResponseEntity.ok(timeline);
+    }
+    
+    @GetMapping("/api/timeline")
+    public ResponseEntity<List<TimelineBucketDTO>> getClassTimeline(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                                    @RequestParam(defaultValue = "month") String bucket) {
+        List<TimelineBucketDTO> timeline = performanceService.getClassTimeline(from, to, bucket);
+        return ResponseEntity.ok(timeline);
+    }
+    
+    @GetMapping("/api/performances/search")
+    public ResponseEntity<PerformanceSearchResultDTO> searchPerformances(@RequestParam(required = false) String subject,
+                                                                         @RequestParam(required = false) Long studentId,
+                                                                         @RequestParam(required = false) Double minScore,
+                                                                         @RequestParam(required = false) Double maxScore,
+                                                                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                                         @RequestParam(required = false) String cursor,
+                                                                         @RequestParam(defaultValue = "50") int limit) {
+        PerformanceSearchResultDTO result = performanceService.searchPerformances(
+                subject, studentId, minScore, maxScore, from, to, cursor, limit);
+        return ResponseEntity.ok(result);
+    }
+    
+    @GetMapping("/api/performances/search/text")
+    public ResponseEntity<TextSearchResultDTO> searchRemarks(@RequestParam String q,
+                                                             @RequestParam(defaultValue = "0") int page,
+                                                             @RequestParam(defaultValue = "20") int size) {
+        TextSearchResultDTO result = performanceService.searchRemarks(q, page, size);
+        return ResponseEntity.ok(result);
     }
     
     @GetMapping("/api/performances/{id}")
-    public ResponseEntity<PerformanceDTO> getPerformance(@PathVariable Long id) {
+    public ResponseEntity<PerformanceDTO> getPerformance(@PathVariable Long id, WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && request.checkNotModified(performanceTag(id, performanceService.getPerformanceVersion(id)))) {
+            return null;
+        }
         PerformanceDTO performance = performanceService.getPerformance(id);
-        return ResponseEntity.ok(performance);
+        return ResponseEntity.ok().eTag(performanceTag(id, performance.getVersion())).body(performance);
     }
     
     @PutMapping("/api/performances/{id}")
     public ResponseEntity<PerformanceDTO> updatePerformance(@PathVariable Long id, 
                                                            @Valid @RequestBody PerformanceDTO performanceDTO) {
         PerformanceDTO updatedPerformance = performanceService.updatePerformance(id, performanceDTO);
-        return ResponseEntity.ok(updatedPerformance);
+        return ResponseEntity.ok().eTag(performanceTag(id, updatedPerformance.getVersion())).body(updatedPerformance);
+    }
+    
+    @PatchMapping("/api/performances/{id}")
+    public ResponseEntity<Void> patchPerformance(@PathVariable Long id, @RequestBody PerformanceDTO performanceDTO) {
+        long version = performanceService.patchPerformance(id, performanceDTO);
+        return ResponseEntity.noContent().eTag(performanceTag(id, version)).build();
     }
     
     @DeleteMapping("/api/performances/{id}")
-    public ResponseEntity<Void> deletePerformance(@PathVariable Long id) {
-        performanceService.deletePerformance(id);
+    public ResponseEntity<Void> deletePerformance(@PathVariable Long id,
+                                                  @RequestParam(required = false) Long version) {
+        performanceService.deletePerformance(id, version);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+    
+    private String performanceTag(Long id, Long version) {
+        return "\"performance-" + id + "-" + version + "\"";
+    }
+    
+    private String performancesTag(Long studentId, String fingerprint) {
+        return "\"performances-" + studentId + "-" + fingerprint + "\"";
+    }
+}
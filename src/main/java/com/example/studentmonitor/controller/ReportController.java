@@ -0,0 +1,54 @@
+package com.example.studentmonitor.controller;
+
+import java.net.URI;
+import java.security.Principal;
+
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.studentmonitor.dto.ReportJobDTO;
+import com.example.studentmonitor.service.ReportService;
+
+@RestController
+@RequestMapping("/api/reports")
+public class ReportController {
+    
+    private final ReportService reportService;
+    
+    public ReportController(ReportService reportService) {
+        this.reportService = reportService;
+    }
+    
+    @PostMapping
+    public ResponseEntity<ReportJobDTO> submitReport(Principal principal) {
+        ReportJobDTO report = reportService.submitReport(principal != null ? principal.getName() : null);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/reports/" + report.getId()))
+                .body(report);
+    }
+    
+    @GetMapping("/{id}")
+    public ResponseEntity<ReportJobDTO> getReport(@PathVariable Long id) {
+        ReportJobDTO report = reportService.getReport(id);
+        return ResponseEntity.ok(report);
+    }
+    
+    // The file is streamed from disk by the resource converter, never loaded into memory
+    @GetMapping("/{id}/download")
+    public ResponseEntity<Resource> downloadReport(@PathVariable Long id) {
+        Resource file = reportService.getReportFile(id);
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("class-report-" + id + ".csv").build().toString())
+                .body(file);
+    }
+}
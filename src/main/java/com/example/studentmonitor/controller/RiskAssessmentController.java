@@ -0,0 +1,44 @@
+package com.example.studentmonitor.controller;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.studentmonitor.dto.RiskAssessmentDTO;
+import com.example.studentmonitor.dto.RiskScanResultDTO;
+import com.example.studentmonitor.service.RiskAssessmentService;
+
+@RestController
+@RequestMapping("/api/at-risk")
+public class RiskAssessmentController {
+    
+    private final RiskAssessmentService riskAssessmentService;
+    
+    public RiskAssessmentController(RiskAssessmentService riskAssessmentService) {
+        this.riskAssessmentService = riskAssessmentService;
+    }
+    
+    @GetMapping
+    public ResponseEntity<List<RiskAssessmentDTO>> getAtRiskStudents(@RequestParam(required = false) String reason) {
+        List<RiskAssessmentDTO> students = riskAssessmentService.getAtRiskStudents(reason);
+        return ResponseEntity.ok(students);
+    }
+    
+    @GetMapping("/students/{studentId}")
+    public ResponseEntity<RiskAssessmentDTO> getAssessment(@PathVariable Long studentId) {
+        RiskAssessmentDTO assessment = riskAssessmentService.getAssessment(studentId);
+        return ResponseEntity.ok(assessment);
+    }
+    
+    @PostMapping("/scan")
+    public ResponseEntity<RiskScanResultDTO> runScan() {
+        RiskScanResultDTO result = riskAssessmentService.runScan();
+        return ResponseEntity.ok(result);
+    }
+}
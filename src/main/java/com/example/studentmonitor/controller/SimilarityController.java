@@ -0,0 +1,31 @@
+package com.example.studentmonitor.controller;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.studentmonitor.dto.SimilarStudentDTO;
+import com.example.studentmonitor.service.AnalyticsService;
+
+@RestController
+public class SimilarityController {
+    
+    private final AnalyticsService analyticsService;
+    
+    public SimilarityController(AnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+    
+    @GetMapping("/api/students/{studentId}/similar")
+    public ResponseEntity<List<SimilarStudentDTO>> getSimilarStudents(@PathVariable Long studentId,
+                                                                      @RequestParam(defaultValue = "10") int k,
+                                                                      @RequestParam(defaultValue = "euclidean") String metric,
+                                                                      @RequestParam(defaultValue = "1") int minSharedSubjects) {
+        List<SimilarStudentDTO> students = analyticsService.getSimilarStudents(studentId, k, metric, minSharedSubjects);
+        return ResponseEntity.ok(students);
+    }
+}
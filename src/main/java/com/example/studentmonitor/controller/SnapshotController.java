@@ -0,0 +1,57 @@
+package com.example.studentmonitor.controller;
+
+import java.net.URI;
+import java.util.List;
+
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.studentmonitor.dto.SnapshotDTO;
+import com.example.studentmonitor.service.SnapshotService;
+
+@RestController
+@RequestMapping("/api/admin/snapshots")
+public class SnapshotController {
+    
+    private final SnapshotService snapshotService;
+    
+    public SnapshotController(SnapshotService snapshotService) {
+        this.snapshotService = snapshotService;
+    }
+    
+    @GetMapping
+    public ResponseEntity<List<SnapshotDTO>> getSnapshots() {
+        return ResponseEntity.ok(snapshotService.getSnapshots());
+    }
+    
+    @PostMapping
+    public ResponseEntity<SnapshotDTO> createSnapshot() {
+        SnapshotDTO snapshot = snapshotService.createSnapshot();
+        return ResponseEntity.created(URI.create("/api/admin/snapshots/" + snapshot.getName()))
+                .body(snapshot);
+    }
+    
+    @GetMapping("/{name}")
+    public ResponseEntity<Resource> downloadSnapshot(@PathVariable String name) {
+        Resource file = snapshotService.getSnapshotFile(name);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(name).build().toString())
+                .body(file);
+    }
+    
+    @PostMapping("/{name}/restore")
+    public ResponseEntity<SnapshotDTO> restoreSnapshot(@PathVariable String name) {
+        SnapshotDTO snapshot = snapshotService.restoreSnapshot(name);
+        return ResponseEntity.ok(snapshot);
+    }
+}
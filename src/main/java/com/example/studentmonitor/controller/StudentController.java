@@ -2,17 +2,25 @@ package com.example.studentmonitor.controller;
 
 import java.util.List;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.example.studentmonitor.dto.PurgeResultDTO;
 import com.example.studentmonitor.dto.StudentDTO;
 import com.example.studentmonitor.service.StudentService;
 
@@ -22,6 +30,8 @@ import jakarta.validation.Valid;
 @RequestMapping("/api/students")
 public class StudentController {
     
+    private static final Logger log = LoggerFactory.getLogger(StudentController.class);
+    
     private final StudentService studentService;
     
     public StudentController(StudentService studentService) {
@@ -41,20 +51,54 @@ public class StudentController {
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<StudentDTO> getStudent(@PathVariable Long id) {
+    public ResponseEntity<StudentDTO> getStudent(@PathVariable Long id, WebRequest request) {
+        // Revalidation only needs the version column, not the row
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && request.checkNotModified(studentTag(id, studentService.getStudentVersion(id)))) {
+            return null;
+        }
         StudentDTO student = studentService.getStudent(id);
-        return ResponseEntity.ok(student);
+        return ResponseEntity.ok().eTag(studentTag(id, student.getVersion())).body(student);
     }
     
     @PutMapping("/{id}")
     public ResponseEntity<StudentDTO> updateStudent(@PathVariable Long id, @Valid @RequestBody StudentDTO studentDTO) {
         StudentDTO updatedStudent = studentService.updateStudent(id, studentDTO);
-        return ResponseEntity.ok(updatedStudent);
+        return ResponseEntity.ok().eTag(studentTag(id, updatedStudent.getVersion())).body(updatedStudent);
+    }
+    
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patchStudent(@PathVariable Long id, @RequestBody StudentDTO studentDTO) {
+        long version = studentService.patchStudent(id, studentDTO);
+        return ResponseEntity.noContent().eTag(studentTag(id, version)).build();
     }
     
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteStudent(@PathVariable Long id) {
-        studentService.deleteStudent(id);
+    public ResponseEntity<Void> deleteStudent(@PathVariable Long id,
+                                              @RequestParam(required = false) Long version) {
+        studentService.deleteStudent(id, version);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+    
+    @DeleteMapping("/{id}/purge")
+    public ResponseEntity<PurgeResultDTO> purgeStudent(@PathVariable Long id) {
+        PurgeResultDTO result = studentService.purgeStudent(id);
+        return ResponseEntity.ok(result);
+    }
+    
+    // Nothing has been deleted yet when this answers, so there are no counts to report; the outcome is logged
+    @PostMapping("/purge")
+    public ResponseEntity<Void> purgeStudents(@RequestBody List<Long> ids) {
+        int requested = ids.size();
+        studentService.purgeStudentsAsync(List.copyOf(ids)).whenComplete((result, failure) -> {
+            if (failure != null) {
+                log.error("Bulk purge of {} students failed", requested, failure);
+            }
+        });
+        return ResponseEntity.accepted().build();
+    }
+    
+    private String studentTag(Long id, Long version) {
+        return "\"student-" + id + "-" + version + "\"";
+    }
+}
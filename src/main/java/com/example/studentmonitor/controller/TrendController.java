@@ -0,0 +1,37 @@
+package com.example.studentmonitor.controller;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.studentmonitor.dto.DecliningStudentDTO;
+import com.example.studentmonitor.dto.TrendDTO;
+import com.example.studentmonitor.service.AnalyticsService;
+
+@RestController
+@RequestMapping("/api/trends")
+public class TrendController {
+    
+    private final AnalyticsService analyticsService;
+    
+    public TrendController(AnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+    
+    @GetMapping("/students/{studentId}")
+    public ResponseEntity<List<TrendDTO>> getTrends(@PathVariable Long studentId) {
+        List<TrendDTO> trends = analyticsService.getTrends(studentId);
+        return ResponseEntity.ok(trends);
+    }
+    
+    @GetMapping("/declining")
+    public ResponseEntity<List<DecliningStudentDTO>> getDecliningStudents(@RequestParam(defaultValue = "2") int minSubjects) {
+        List<DecliningStudentDTO> students = analyticsService.getDecliningStudents(minSubjects);
+        return ResponseEntity.ok(students);
+    }
+}
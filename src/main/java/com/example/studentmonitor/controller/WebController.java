@@ -15,6 +15,7 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import com.example.studentmonitor.dto.PerformanceDTO;
 import com.example.studentmonitor.dto.StudentDTO;
+import com.example.studentmonitor.service.AnalyticsService;
 import com.example.studentmonitor.service.PerformanceService;
 import com.example.studentmonitor.service.StudentService;
 
@@ -29,6 +30,9 @@ public class WebController {
     @Autowired
     private PerformanceService performanceService;
     
+    @Autowired
+    private AnalyticsService analyticsService;
+    
     @Value("${spring.profiles.active:development}")
     private String activeProfile;
     
@@ -57,6 +61,13 @@ public class WebController {
         return "students/list";
     }
 
+    // The matrix itself is streamed from /api/gradebook and rendered in the browser
+    @GetMapping("/gradebook")
+    public String gradebook(@RequestParam(defaultValue = "latest") String mode, Model model) {
+        model.addAttribute("mode", "average".equals(mode) ? "average" : "latest");
+        return "gradebook";
+    }
+
     @GetMapping("/students/new")
     public String showCreateForm(Model model) {
         model.addAttribute("student", new StudentDTO());
@@ -93,6 +104,15 @@ public class WebController {
                 .average()
                 .orElse(0.0);
             model.addAttribute("averageScore", Math.round(averageScore * 100.0) / 100.0);
+            model.addAttribute("highestScore", performances.stream()
+                .mapToDouble(PerformanceDTO::getScore)
+                .max()
+                .orElse(0.0));
+            model.addAttribute("percentiles", analyticsService.getPercentiles(performances));
+            model.addAttribute("subjectCount", performances.stream()
+                .mapToInt(PerformanceDTO::getSubjectId)
+                .distinct()
+                .count());
             
             return "students/detail";
         } catch (Exception e) {
@@ -131,7 +151,7 @@ public class WebController {
     public String deleteStudent(@PathVariable Long id, 
                               RedirectAttributes redirectAttributes) {
         try {
-            studentService.deleteStudent(id);
+            studentService.purgeStudent(id);
             redirectAttributes.addFlashAttribute("successMessage", 
                 "Student deleted successfully!");
             return "redirect:/students";
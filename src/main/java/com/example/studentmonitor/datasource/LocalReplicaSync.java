@@ -0,0 +1,128 @@
+package com.example.studentmonitor.datasource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stand-in for replication when trying the replica routing locally with two H2 databases: every
+ * app.datasource.replica.local-sync-interval the replica is overwritten with a full copy of the primary, in one
+ * transaction so that replica readers see either the old or the new copy. The first run copies the schema. The
+ * replica therefore lags by up to one interval, and an interval above app.datasource.replica.max-lag shows the
+ * fallback to the primary. Copying everything each time is only meant for development-sized data.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "local-sync-interval")
+public class LocalReplicaSync {
+    
+    private static final Logger log = LoggerFactory.getLogger(LocalReplicaSync.class);
+    
+    private static final int BATCH_SIZE = 1000;
+    
+    private final DataSource primary;
+    private final DataSource replica;
+    
+    private boolean schemaCopied;
+    
+    public LocalReplicaSync(@Qualifier("primaryDataSource") DataSource primary,
+                            @Qualifier("replicaDataSource") DataSource replica) {
+        this.primary = primary;
+        this.replica = replica;
+    }
+    
+    @Scheduled(fixedDelayString = "${app.datasource.replica.local-sync-interval}")
+    public synchronized void sync() {
+        long started = System.currentTimeMillis();
+        try (Connection source = primary.getConnection(); Connection target = replica.getConnection()) {
+            target.setReadOnly(false);
+            if (!schemaCopied) {
+                copySchema(source, target);
+                schemaCopied = true;
+            }
+            List<String> tables = tables(source);
+            target.setAutoCommit(false);
+            try {
+                long rows = 0;
+                for (String table : tables) {
+                    try (Statement delete = target.createStatement()) {
+                        delete.executeUpdate("DELETE FROM " + table);
+                    }
+                }
+                for (String table : tables) {
+                    rows += copyTable(source, target, table);
+                }
+                target.commit();
+                log.debug("Copied {} rows to the replica in {} ms", rows, System.currentTimeMillis() - started);
+            } catch (SQLException | RuntimeException e) {
+                target.rollback();
+                throw e;
+            } finally {
+                target.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            log.warn("Could not copy the primary to the replica", e);
+        }
+    }
+    
+    private void copySchema(Connection source, Connection target) throws SQLException {
+        try (Statement script = source.createStatement();
+             ResultSet statements = script.executeQuery("SCRIPT NODATA NOPASSWORDS NOSETTINGS");
+             Statement apply = target.createStatement()) {
+            while (statements.next()) {
+                String sql = statements.getString(1);
+                if (!sql.startsWith("CREATE USER")) {
+                    apply.execute(sql);
+                }
+            }
+            // Tables are emptied and refilled in any order
+            apply.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        }
+    }
+    
+    private List<String> tables(Connection source) throws SQLException {
+        List<String> tables = new ArrayList<>();
+        try (Statement query = source.createStatement();
+             ResultSet rs = query.executeQuery("SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES "
+                     + "WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_TYPE = 'BASE TABLE'")) {
+            while (rs.next()) {
+                tables.add('"' + rs.getString(1) + '"');
+            }
+        }
+        return tables;
+    }
+    
+    private long copyTable(Connection source, Connection target, String table) throws SQLException {
+        long rows = 0;
+        try (Statement select = source.createStatement();
+             ResultSet rs = select.executeQuery("SELECT * FROM " + table)) {
+            int columns = rs.getMetaData().getColumnCount();
+            String insert = "INSERT INTO " + table + " VALUES (" + "?, ".repeat(columns - 1) + "?)";
+            try (PreparedStatement statement = target.prepareStatement(insert)) {
+                while (rs.next()) {
+                    for (int i = 1; i <= columns; i++) {
+                        statement.setObject(i, rs.getObject(i));
+                    }
+                    statement.addBatch();
+                    if (++rows % BATCH_SIZE == 0) {
+                        statement.executeBatch();
+                    }
+                }
+                statement.executeBatch();
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.studentmonitor.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends connections for read-only transactions to the replica and everything else to the primary. The replica is
+ * skipped while it lags too far behind and for requests pinned to the primary after a write by the same client.
+ * It must sit behind a LazyConnectionDataSourceProxy: the transaction manager asks for its connection before the
+ * read-only flag of the new transaction is visible, and the proxy defers that until the first statement.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    
+    public enum Target {
+        PRIMARY, REPLICA
+    }
+    
+    private final ReplicaLagMonitor lagMonitor;
+    
+    public ReadWriteRoutingDataSource(ReplicaLagMonitor lagMonitor) {
+        this.lagMonitor = lagMonitor;
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !ReadYourWrites.isPinnedToPrimary()
+                && lagMonitor.isReplicaUsable()) {
+            return Target.REPLICA;
+        }
+        return Target.PRIMARY;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.studentmonitor.datasource;
+
+/**
+ * Whether the request on the current thread must read from the primary because its client wrote recently; set
+ * by {@link ReadYourWritesFilter} for the duration of the request, and unset on any other thread
+ */
+public final class ReadYourWrites {
+    
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+    
+    private ReadYourWrites() {
+    }
+    
+    public static boolean isPinnedToPrimary() {
+        return Boolean.TRUE.equals(PINNED.get());
+    }
+    
+    static void pin() {
+        PINNED.set(Boolean.TRUE);
+    }
+    
+    static void clear() {
+        PINNED.remove();
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.studentmonitor.datasource;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Read-your-writes stickiness. A request that may write (any method but GET, HEAD, OPTIONS and TRACE) runs
+ * entirely against the primary and hands its client a cookie holding the time until which its reads must stay on
+ * the primary too, so they cannot hit a replica that has not caught up with the write yet. The cookie only ever
+ * moves reads to the primary, so a client gains nothing by forging it.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    
+    public static final String COOKIE_NAME = "SM_PRIMARY_UNTIL";
+    
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+    
+    private final Duration window;
+    
+    public ReadYourWritesFilter(Duration window) {
+        this.window = window;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        boolean write = !SAFE_METHODS.contains(request.getMethod());
+        if (write) {
+            // Set before the chain runs, while the response can still take headers
+            Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(now + window.toMillis()));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+            response.addCookie(cookie);
+        }
+        if (write || pinnedUntil(request) > now) {
+            ReadYourWrites.pin();
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.clear();
+        }
+    }
+    
+    private static long pinnedUntil(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
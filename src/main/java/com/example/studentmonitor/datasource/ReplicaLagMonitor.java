@@ -0,0 +1,85 @@
+package com.example.studentmonitor.datasource;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Measures replication lag with a heartbeat: every interval the current time is written to the primary's
+ * replication_heartbeat row and read back from the replica, and the age of what the replica returns is its lag.
+ * Both timestamps come from this process's clock, so clock skew between the databases does not matter. The replica
+ * is usable for reads while the lag is at most app.datasource.replica.max-lag; it is not until the first heartbeat
+ * arrives, nor while it cannot be queried.
+ */
+public class ReplicaLagMonitor {
+    
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+    
+    private static final String HEARTBEAT = "primary";
+    
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final Duration maxLag;
+    
+    private volatile boolean replicaUsable;
+    // Null until a heartbeat was read from the replica
+    private volatile Duration lag;
+    
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, Duration maxLag) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.maxLag = maxLag;
+    }
+    
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+    
+    public Duration getLag() {
+        return lag;
+    }
+    
+    @Scheduled(fixedDelayString = "${app.datasource.replica.heartbeat-interval:PT1S}")
+    public void check() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        try {
+            Timestamp beat = Timestamp.from(now);
+            if (primary.update("UPDATE replication_heartbeat SET beat_at = ? WHERE name = ?", beat, HEARTBEAT) == 0) {
+                primary.update("INSERT INTO replication_heartbeat (name, beat_at) VALUES (?, ?)", HEARTBEAT, beat);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not write the replication heartbeat to the primary", e);
+        }
+    
+        Duration measured = null;
+        try {
+            Timestamp replicated = replica.query("SELECT beat_at FROM replication_heartbeat WHERE name = ?",
+                    rs -> rs.next() ? rs.getTimestamp(1) : null, HEARTBEAT);
+            if (replicated != null) {
+                measured = Duration.between(replicated.toInstant(), now);
+            }
+        } catch (RuntimeException e) {
+            log.debug("Could not read the replication heartbeat from the replica", e);
+        }
+        lag = measured;
+    
+        boolean usable = measured != null && measured.compareTo(maxLag) <= 0;
+        if (usable != replicaUsable) {
+            if (usable) {
+                log.info("Replica lag is {} ms; sending read-only transactions to the replica", measured.toMillis());
+            } else {
+                log.warn("Replica lag is {}; sending all reads to the primary until it is back within {}",
+                        measured != null ? measured.toMillis() + " ms" : "unknown", maxLag);
+            }
+        }
+        replicaUsable = usable;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.studentmonitor.dto;
+
+import java.util.List;
+
+public class DecliningStudentDTO {
+    
+    private Long studentId;
+    private String studentName;
+    private List<String> decliningSubjects;
+    
+    // No-arg constructor
+    public DecliningStudentDTO() {
+    }
+    
+    // All-arg constructor
+    public DecliningStudentDTO(Long studentId, String studentName, List<String> decliningSubjects) {
+        this.studentId = studentId;
+        this.studentName = studentName;
+        this.decliningSubjects = decliningSubjects;
+    }
+    
+    // Getters and Setters
+    public Long getStudentId() {
+        return studentId;
+    }
+    
+    public void setStudentId(Long studentId) {
+        this.studentId = studentId;
+    }
+    
+    public String getStudentName() {
+        return studentName;
+    }
+    
+    public void setStudentName(String studentName) {
+        this.studentName = studentName;
+    }
+    
+    public List<String> getDecliningSubjects() {
+        return decliningSubjects;
+    }
+    
+    public void setDecliningSubjects(List<String> decliningSubjects) {
+        this.decliningSubjects = decliningSubjects;
+    }
+}
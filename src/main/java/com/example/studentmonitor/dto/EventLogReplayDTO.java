@@ -0,0 +1,56 @@
+package com.example.studentmonitor.dto;
+
+public class EventLogReplayDTO {
+    
+    private long events;
+    // Performance records held by the indexes after the replay
+    private long records;
+    // Set when the log was unreadable and the indexes, and a new log, were built from the table instead
+    private boolean rebuiltFromDatabase;
+    private long durationMillis;
+    
+    // No-arg constructor
+    public EventLogReplayDTO() {
+    }
+    
+    // All-arg constructor
+    public EventLogReplayDTO(long events, long records, boolean rebuiltFromDatabase, long durationMillis) {
+        this.events = events;
+        this.records = records;
+        this.rebuiltFromDatabase = rebuiltFromDatabase;
+        this.durationMillis = durationMillis;
+    }
+    
+    // Getters and Setters
+    public long getEvents() {
+        return events;
+    }
+    
+    public void setEvents(long events) {
+        this.events = events;
+    }
+    
+    public long getRecords() {
+        return records;
+    }
+    
+    public void setRecords(long records) {
+        this.records = records;
+    }
+    
+    public boolean isRebuiltFromDatabase() {
+        return rebuiltFromDatabase;
+    }
+    
+    public void setRebuiltFromDatabase(boolean rebuiltFromDatabase) {
+        this.rebuiltFromDatabase = rebuiltFromDatabase;
+    }
+    
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+    
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+}
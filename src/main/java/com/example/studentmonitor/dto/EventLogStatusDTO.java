@@ -0,0 +1,44 @@
+package com.example.studentmonitor.dto;
+
+public class EventLogStatusDTO {
+    
+    private long events;
+    private long bytes;
+    private int segments;
+    
+    // No-arg constructor
+    public EventLogStatusDTO() {
+    }
+    
+    // All-arg constructor
+    public EventLogStatusDTO(long events, long bytes, int segments) {
+        this.events = events;
+        this.bytes = bytes;
+        this.segments = segments;
+    }
+    
+    // Getters and Setters
+    public long getEvents() {
+        return events;
+    }
+    
+    public void setEvents(long events) {
+        this.events = events;
+    }
+    
+    public long getBytes() {
+        return bytes;
+    }
+    
+    public void setBytes(long bytes) {
+        this.bytes = bytes;
+    }
+    
+    public int getSegments() {
+        return segments;
+    }
+    
+    public void setSegments(int segments) {
+        this.segments = segments;
+    }
+}
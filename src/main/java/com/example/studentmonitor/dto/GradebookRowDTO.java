@@ -0,0 +1,47 @@
+package com.example.studentmonitor.dto;
+
+import java.util.List;
+
+public class GradebookRowDTO {
+    
+    private Long studentId;
+    private String studentName;
+    // One cell per gradebook subject, in column order; null where the student has no score
+    private List<Double> scores;
+    
+    // No-arg constructor
+    public GradebookRowDTO() {
+    }
+    
+    // All-arg constructor
+    public GradebookRowDTO(Long studentId, String studentName, List<Double> scores) {
+        this.studentId = studentId;
+        this.studentName = studentName;
+        this.scores = scores;
+    }
+    
+    // Getters and Setters
+    public Long getStudentId() {
+        return studentId;
+    }
+    
+    public void setStudentId(Long studentId) {
+        this.studentId = studentId;
+    }
+    
+    public String getStudentName() {
+        return studentName;
+    }
+    
+    public void setStudentName(String studentName) {
+        this.studentName = studentName;
+    }
+    
+    public List<Double> getScores() {
+        return scores;
+    }
+    
+    public void setScores(List<Double> scores) {
+        this.scores = scores;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.studentmonitor.dto;
+
+import java.time.LocalDate;
+
+public class LeaderboardEntryDTO {
+    
+    private int rank;
+    private Long studentId;
+    private String studentName;
+    private Double score;
+    private LocalDate date;
+    private Long performanceId;
+    
+    // No-arg constructor
+    public LeaderboardEntryDTO() {
+    }
+    
+    // All-arg constructor
+    public LeaderboardEntryDTO(int rank, Long studentId, String studentName, Double score, LocalDate date, Long performanceId) {
+        this.rank = rank;
+        this.studentId = studentId;
+        this.studentName = studentName;
+        this.score = score;
+        this.date = date;
+        this.performanceId = performanceId;
+    }
+    
+    // Getters and Setters
+    public int getRank() {
+        return rank;
+    }
+    
+    public void setRank(int rank) {
+        this.rank = rank;
+    }
+    
+    public Long getStudentId() {
+        return studentId;
+    }
+    
+    public void setStudentId(Long studentId) {
+        this.studentId = studentId;
+    }
+    
+    public String getStudentName() {
+        return studentName;
+    }
+    
+    public void setStudentName(String studentName) {
+        this.studentName = studentName;
+    }
+    
+    public Double getScore() {
+        return score;
+    }
+    
+    public void setScore(Double score) {
+        this.score = score;
+    }
+    
+    public LocalDate getDate() {
+        return date;
+    }
+    
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+    
+    public Long getPerformanceId() {
+        return performanceId;
+    }
+    
+    public void setPerformanceId(Long performanceId) {
+        this.performanceId = performanceId;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.studentmonitor.dto;
+
+public class PercentileDTO {
+    
+    private String subject;
+    private double score;
+    private double percentile;
+    private long sampleSize;
+    
+    // No-arg constructor
+    public PercentileDTO() {
+    }
+    
+    // All-arg constructor
+    public PercentileDTO(String subject, double score, double percentile, long sampleSize) {
+        this.subject = subject;
+        this.score = score;
+        this.percentile = percentile;
+        this.sampleSize = sampleSize;
+    }
+    
+    // Getters and Setters
+    public String getSubject() {
+        return subject;
+    }
+    
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+    
+    public double getScore() {
+        return score;
+    }
+    
+    public void setScore(double score) {
+        this.score = score;
+    }
+    
+    public double getPercentile() {
+        return percentile;
+    }
+    
+    public void setPercentile(double percentile) {
+        this.percentile = percentile;
+    }
+    
+    public long getSampleSize() {
+        return sampleSize;
+    }
+    
+    public void setSampleSize(long sampleSize) {
+        this.sampleSize = sampleSize;
+    }
+}
@@ -6,23 +6,27 @@ public class PerformanceDTO {
     
     private Long id;
     private String subject;
+    private Integer subjectId;
     private Double score;
     private LocalDate date;
     private String remarks;
     private Long studentId;
+    private Long version;
     
     // No-arg constructor
     public PerformanceDTO() {
     }
     
     // All-arg constructor
-    public PerformanceDTO(Long id, String subject, Double score, LocalDate date, String remarks, Long studentId) {
+    public PerformanceDTO(Long id, String subject, Integer subjectId, Double score, LocalDate date, String remarks, Long studentId, Long version) {
         this.id = id;
         this.subject = subject;
+        this.subjectId = subjectId;
         this.score = score;
         this.date = date;
         this.remarks = remarks;
         this.studentId = studentId;
+        this.version = version;
     }
     
     // Getters and Setters
@@ -42,6 +46,14 @@ public class PerformanceDTO {
         this.subject = subject;
     }
     
+    public Integer getSubjectId() {
+        return subjectId;
+    }
+    
+    public void setSubjectId(Integer subjectId) {
+        this.subjectId = subjectId;
+    }
+    
     public Double getScore() {
         return score;
     }
@@ -73,4 +85,12 @@ public class PerformanceDTO {
     public void setStudentId(Long studentId) {
         this.studentId = studentId;
     }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+package com.example.studentmonitor.dto;
+
+public class PerformanceEntryDTO {
+    
+    private Long sequence;
+    // QUEUED, COMMITTED or FAILED
+    private String status;
+    private Long performanceId;
+    private String error;
+    
+    // No-arg constructor
+    public PerformanceEntryDTO() {
+    }
+    
+    // All-arg constructor
+    public PerformanceEntryDTO(Long sequence, String status, Long performanceId, String error) {
+        this.sequence = sequence;
+        this.status = status;
+        this.performanceId = performanceId;
+        this.error = error;
+    }
+    
+    // Getters and Setters
+    public Long getSequence() {
+        return sequence;
+    }
+    
+    public void setSequence(Long sequence) {
+        this.sequence = sequence;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public Long getPerformanceId() {
+        return performanceId;
+    }
+    
+    public void setPerformanceId(Long performanceId) {
+        this.performanceId = performanceId;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public void setError(String error) {
+        this.error = error;
+    }
+}
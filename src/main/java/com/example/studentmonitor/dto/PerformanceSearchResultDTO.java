@@ -0,0 +1,37 @@
+package com.example.studentmonitor.dto;
+
+import java.util.List;
+
+public class PerformanceSearchResultDTO {
+    
+    private List<PerformanceDTO> performances;
+    // Pass back as 'cursor' for the next page; null on the last page
+    private String nextCursor;
+    
+    // No-arg constructor
+    public PerformanceSearchResultDTO() {
+    }
+    
+    // All-arg constructor
+    public PerformanceSearchResultDTO(List<PerformanceDTO> performances, String nextCursor) {
+        this.performances = performances;
+        this.nextCursor = nextCursor;
+    }
+    
+    // Getters and Setters
+    public List<PerformanceDTO> getPerformances() {
+        return performances;
+    }
+    
+    public void setPerformances(List<PerformanceDTO> performances) {
+        this.performances = performances;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.studentmonitor.dto;
+
+public class PurgeResultDTO {
+    
+    private int requested;
+    private int studentsDeleted;
+    private int performancesDeleted;
+    
+    // No-arg constructor
+    public PurgeResultDTO() {
+    }
+    
+    // All-arg constructor
+    public PurgeResultDTO(int requested, int studentsDeleted, int performancesDeleted) {
+        this.requested = requested;
+        this.studentsDeleted = studentsDeleted;
+        this.performancesDeleted = performancesDeleted;
+    }
+    
+    // Getters and Setters
+    public int getRequested() {
+        return requested;
+    }
+    
+    public void setRequested(int requested) {
+        this.requested = requested;
+    }
+    
+    public int getStudentsDeleted() {
+        return studentsDeleted;
+    }
+    
+    public void setStudentsDeleted(int studentsDeleted) {
+        this.studentsDeleted = studentsDeleted;
+    }
+    
+    public int getPerformancesDeleted() {
+        return performancesDeleted;
+    }
+    
+    public void setPerformancesDeleted(int performancesDeleted) {
+        this.performancesDeleted = performancesDeleted;
+    }
+}
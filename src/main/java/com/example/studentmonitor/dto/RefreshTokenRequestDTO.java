@@ -0,0 +1,27 @@
+package com.example.studentmonitor.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public class RefreshTokenRequestDTO {
+    
+    @NotBlank(message = "Refresh token is required")
+    private String refreshToken;
+    
+    // No-arg constructor
+    public RefreshTokenRequestDTO() {
+    }
+    
+    // All-arg constructor
+    public RefreshTokenRequestDTO(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+    
+    // Getters and Setters
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+    
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+}
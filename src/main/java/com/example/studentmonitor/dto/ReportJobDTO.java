@@ -0,0 +1,128 @@
+package com.example.studentmonitor.dto;
+
+import java.time.Instant;
+
+public class ReportJobDTO {
+    
+    private Long id;
+    private String status;
+    private String requestedBy;
+    private Long totalStudents;
+    private long processedStudents;
+    private double progress;
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String errorMessage;
+    private String downloadUrl;
+    
+    // No-arg constructor
+    public ReportJobDTO() {
+    }
+    
+    // All-arg constructor
+    public ReportJobDTO(Long id, String status, String requestedBy, Long totalStudents, long processedStudents,
+                        double progress, Instant createdAt, Instant startedAt, Instant finishedAt,
+                        String errorMessage, String downloadUrl) {
+        this.id = id;
+        this.status = status;
+        this.requestedBy = requestedBy;
+        this.totalStudents = totalStudents;
+        this.processedStudents = processedStudents;
+        this.progress = progress;
+        this.createdAt = createdAt;
+        this.startedAt = startedAt;
+        this.finishedAt = finishedAt;
+        this.errorMessage = errorMessage;
+        this.downloadUrl = downloadUrl;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public String getRequestedBy() {
+        return requestedBy;
+    }
+    
+    public void setRequestedBy(String requestedBy) {
+        this.requestedBy = requestedBy;
+    }
+    
+    public Long getTotalStudents() {
+        return totalStudents;
+    }
+    
+    public void setTotalStudents(Long totalStudents) {
+        this.totalStudents = totalStudents;
+    }
+    
+    public long getProcessedStudents() {
+        return processedStudents;
+    }
+    
+    public void setProcessedStudents(long processedStudents) {
+        this.processedStudents = processedStudents;
+    }
+    
+    public double getProgress() {
+        return progress;
+    }
+    
+    public void setProgress(double progress) {
+        this.progress = progress;
+    }
+    
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+    
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+    
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+    
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+    
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+    
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+    
+    public String getDownloadUrl() {
+        return downloadUrl;
+    }
+    
+    public void setDownloadUrl(String downloadUrl) {
+        this.downloadUrl = downloadUrl;
+    }
+}
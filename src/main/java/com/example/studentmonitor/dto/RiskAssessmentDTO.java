@@ -0,0 +1,99 @@
+package com.example.studentmonitor.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+public class RiskAssessmentDTO {
+    
+    private Long studentId;
+    private String studentName;
+    private long recordCount;
+    private Double averageScore;
+    private Double largestDrop;
+    private LocalDate lastAssessmentDate;
+    private List<String> reasons;
+    private Instant evaluatedAt;
+    
+    // No-arg constructor
+    public RiskAssessmentDTO() {
+    }
+    
+    // All-arg constructor
+    public RiskAssessmentDTO(Long studentId, String studentName, long recordCount, Double averageScore, Double largestDrop,
+                             LocalDate lastAssessmentDate, List<String> reasons, Instant evaluatedAt) {
+        this.studentId = studentId;
+        this.studentName = studentName;
+        this.recordCount = recordCount;
+        this.averageScore = averageScore;
+        this.largestDrop = largestDrop;
+        this.lastAssessmentDate = lastAssessmentDate;
+        this.reasons = reasons;
+        this.evaluatedAt = evaluatedAt;
+    }
+    
+    // Getters and Setters
+    public Long getStudentId() {
+        return studentId;
+    }
+    
+    public void setStudentId(Long studentId) {
+        this.studentId = studentId;
+    }
+    
+    public String getStudentName() {
+        return studentName;
+    }
+    
+    public void setStudentName(String studentName) {
+        this.studentName = studentName;
+    }
+    
+    public long getRecordCount() {
+        return recordCount;
+    }
+    
+    public void setRecordCount(long recordCount) {
+        this.recordCount = recordCount;
+    }
+    
+    public Double getAverageScore() {
+        return averageScore;
+    }
+    
+    public void setAverageScore(Double averageScore) {
+        this.averageScore = averageScore;
+    }
+    
+    public Double getLargestDrop() {
+        return largestDrop;
+    }
+    
+    public void setLargestDrop(Double largestDrop) {
+        this.largestDrop = largestDrop;
+    }
+    
+    public LocalDate getLastAssessmentDate() {
+        return lastAssessmentDate;
+    }
+    
+    public void setLastAssessmentDate(LocalDate lastAssessmentDate) {
+        this.lastAssessmentDate = lastAssessmentDate;
+    }
+    
+    public List<String> getReasons() {
+        return reasons;
+    }
+    
+    public void setReasons(List<String> reasons) {
+        this.reasons = reasons;
+    }
+    
+    public Instant getEvaluatedAt() {
+        return evaluatedAt;
+    }
+    
+    public void setEvaluatedAt(Instant evaluatedAt) {
+        this.evaluatedAt = evaluatedAt;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.studentmonitor.dto;
+
+import java.time.Instant;
+
+public class RiskScanResultDTO {
+    
+    private int batches;
+    private int studentsEvaluated;
+    private int newlyMissingAssessments;
+    private Instant watermark;
+    
+    // No-arg constructor
+    public RiskScanResultDTO() {
+    }
+    
+    // All-arg constructor
+    public RiskScanResultDTO(int batches, int studentsEvaluated, int newlyMissingAssessments, Instant watermark) {
+        this.batches = batches;
+        this.studentsEvaluated = studentsEvaluated;
+        this.newlyMissingAssessments = newlyMissingAssessments;
+        this.watermark = watermark;
+    }
+    
+    // Getters and Setters
+    public int getBatches() {
+        return batches;
+    }
+    
+    public void setBatches(int batches) {
+        this.batches = batches;
+    }
+    
+    public int getStudentsEvaluated() {
+        return studentsEvaluated;
+    }
+    
+    public void setStudentsEvaluated(int studentsEvaluated) {
+        this.studentsEvaluated = studentsEvaluated;
+    }
+    
+    public int getNewlyMissingAssessments() {
+        return newlyMissingAssessments;
+    }
+    
+    public void setNewlyMissingAssessments(int newlyMissingAssessments) {
+        this.newlyMissingAssessments = newlyMissingAssessments;
+    }
+    
+    public Instant getWatermark() {
+        return watermark;
+    }
+    
+    public void setWatermark(Instant watermark) {
+        this.watermark = watermark;
+    }
+}
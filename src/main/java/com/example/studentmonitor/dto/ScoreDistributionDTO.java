@@ -0,0 +1,80 @@
+package com.example.studentmonitor.dto;
+
+import java.util.List;
+
+public class ScoreDistributionDTO {
+    
+    private String subject;
+    private long sampleSize;
+    private double bucketWidth;
+    private List<Bucket> buckets;
+    
+    // No-arg constructor
+    public ScoreDistributionDTO() {
+    }
+    
+    // All-arg constructor
+    public ScoreDistributionDTO(String subject, long sampleSize, double bucketWidth, List<Bucket> buckets) {
+        this.subject = subject;
+        this.sampleSize = sampleSize;
+        this.bucketWidth = bucketWidth;
+        this.buckets = buckets;
+    }
+    
+    // Getters and Setters
+    public String getSubject() {
+        return subject;
+    }
+    
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+    
+    public long getSampleSize() {
+        return sampleSize;
+    }
+    
+    public void setSampleSize(long sampleSize) {
+        this.sampleSize = sampleSize;
+    }
+    
+    public double getBucketWidth() {
+        return bucketWidth;
+    }
+    
+    public void setBucketWidth(double bucketWidth) {
+        this.bucketWidth = bucketWidth;
+    }
+    
+    public List<Bucket> getBuckets() {
+        return buckets;
+    }
+    
+    public void setBuckets(List<Bucket> buckets) {
+        this.buckets = buckets;
+    }
+    
+    public static class Bucket {
+        private double from;
+        private double to;
+        private long count;
+        
+        public Bucket(double from, double to, long count) {
+            this.from = from;
+            this.to = to;
+            this.count = count;
+        }
+        
+        public double getFrom() {
+            return from;
+        }
+        
+        public double getTo() {
+            return to;
+        }
+        
+        public long getCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.studentmonitor.dto;
+
+public class ScoreStatsDTO {
+    
+    private String subject;
+    private long count;
+    private double mean;
+    private double stddev;
+    private double min;
+    private double max;
+    
+    // No-arg constructor
+    public ScoreStatsDTO() {
+    }
+    
+    // All-arg constructor
+    public ScoreStatsDTO(String subject, long count, double mean, double stddev, double min, double max) {
+        this.subject = subject;
+        this.count = count;
+        this.mean = mean;
+        this.stddev = stddev;
+        this.min = min;
+        this.max = max;
+    }
+    
+    // Getters and Setters
+    public String getSubject() {
+        return subject;
+    }
+    
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+    
+    public long getCount() {
+        return count;
+    }
+    
+    public void setCount(long count) {
+        this.count = count;
+    }
+    
+    public double getMean() {
+        return mean;
+    }
+    
+    public void setMean(double mean) {
+        this.mean = mean;
+    }
+    
+    public double getStddev() {
+        return stddev;
+    }
+    
+    public void setStddev(double stddev) {
+        this.stddev = stddev;
+    }
+    
+    public double getMin() {
+        return min;
+    }
+    
+    public void setMin(double min) {
+        this.min = min;
+    }
+    
+    public double getMax() {
+        return max;
+    }
+    
+    public void setMax(double max) {
+        this.max = max;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.studentmonitor.dto;
+
+public class SimilarStudentDTO {
+    
+    private Long studentId;
+    private String studentName;
+    private int sharedSubjects;
+    // Set for the euclidean metric: root mean square score difference over the shared subjects
+    private Double distance;
+    // Set for the cosine metric: -1 to 1, relative to the class average of each subject
+    private Double similarity;
+    
+    // No-arg constructor
+    public SimilarStudentDTO() {
+    }
+    
+    // All-arg constructor
+    public SimilarStudentDTO(Long studentId, String studentName, int sharedSubjects, Double distance, Double similarity) {
+        this.studentId = studentId;
+        this.studentName = studentName;
+        this.sharedSubjects = sharedSubjects;
+        this.distance = distance;
+        this.similarity = similarity;
+    }
+    
+    // Getters and Setters
+    public Long getStudentId() {
+        return studentId;
+    }
+    
+    public void setStudentId(Long studentId) {
+        this.studentId = studentId;
+    }
+    
+    public String getStudentName() {
+        return studentName;
+    }
+    
+    public void setStudentName(String studentName) {
+        this.studentName = studentName;
+    }
+    
+    public int getSharedSubjects() {
+        return sharedSubjects;
+    }
+    
+    public void setSharedSubjects(int sharedSubjects) {
+        this.sharedSubjects = sharedSubjects;
+    }
+    
+    public Double getDistance() {
+        return distance;
+    }
+    
+    public void setDistance(Double distance) {
+        this.distance = distance;
+    }
+    
+    public Double getSimilarity() {
+        return similarity;
+    }
+    
+    public void setSimilarity(Double similarity) {
+        this.similarity = similarity;
+    }
+}
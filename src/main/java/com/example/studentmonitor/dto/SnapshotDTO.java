@@ -0,0 +1,97 @@
+package com.example.studentmonitor.dto;
+
+import java.time.Instant;
+
+public class SnapshotDTO {
+    
+    private String name;
+    private long sizeBytes;
+    private Instant createdAt;
+    private long subjects;
+    private long students;
+    private long users;
+    private long performances;
+    // Time taken by the export or restore that produced this result; null when listing
+    private Long durationMillis;
+    
+    // No-arg constructor
+    public SnapshotDTO() {
+    }
+    
+    // All-arg constructor
+    public SnapshotDTO(String name, long sizeBytes, Instant createdAt, long subjects, long students, long users, long performances, Long durationMillis) {
+        this.name = name;
+        this.sizeBytes = sizeBytes;
+        this.createdAt = createdAt;
+        this.subjects = subjects;
+        this.students = students;
+        this.users = users;
+        this.performances = performances;
+        this.durationMillis = durationMillis;
+    }
+    
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+    
+    public void setSizeBytes(long sizeBytes) {
+        this.sizeBytes = sizeBytes;
+    }
+    
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public long getSubjects() {
+        return subjects;
+    }
+    
+    public void setSubjects(long subjects) {
+        this.subjects = subjects;
+    }
+    
+    public long getStudents() {
+        return students;
+    }
+    
+    public void setStudents(long students) {
+        this.students = students;
+    }
+    
+    public long getUsers() {
+        return users;
+    }
+    
+    public void setUsers(long users) {
+        this.users = users;
+    }
+    
+    public long getPerformances() {
+        return performances;
+    }
+    
+    public void setPerformances(long performances) {
+        this.performances = performances;
+    }
+    
+    public Long getDurationMillis() {
+        return durationMillis;
+    }
+    
+    public void setDurationMillis(Long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+}
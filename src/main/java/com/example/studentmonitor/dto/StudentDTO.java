@@ -9,18 +9,20 @@ public class StudentDTO {
     private String lastName;
     private String email;
     private LocalDate dateOfBirth;
+    private Long version;
     
     // No-arg constructor
     public StudentDTO() {
     }
     
     // All-arg constructor
-    public StudentDTO(Long id, String firstName, String lastName, String email, LocalDate dateOfBirth) {
+    public StudentDTO(Long id, String firstName, String lastName, String email, LocalDate dateOfBirth, Long version) {
         this.id = id;
         this.firstName = firstName;
         this.lastName = lastName;
         this.email = email;
         this.dateOfBirth = dateOfBirth;
+        this.version = version;
     }
     
     // Getters and Setters
@@ -63,4 +65,12 @@ public class StudentDTO {
     public void setDateOfBirth(LocalDate dateOfBirth) {
         this.dateOfBirth = dateOfBirth;
     }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
\ No newline at end of file
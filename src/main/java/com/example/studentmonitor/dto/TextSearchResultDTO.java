@@ -0,0 +1,57 @@
+package com.example.studentmonitor.dto;
+
+import java.util.List;
+
+public class TextSearchResultDTO {
+    
+    private long total;
+    private int page;
+    private int size;
+    // Best match first
+    private List<PerformanceDTO> performances;
+    
+    // No-arg constructor
+    public TextSearchResultDTO() {
+    }
+    
+    // All-arg constructor
+    public TextSearchResultDTO(long total, int page, int size, List<PerformanceDTO> performances) {
+        this.total = total;
+        this.page = page;
+        this.size = size;
+        this.performances = performances;
+    }
+    
+    // Getters and Setters
+    public long getTotal() {
+        return total;
+    }
+    
+    public void setTotal(long total) {
+        this.total = total;
+    }
+    
+    public int getPage() {
+        return page;
+    }
+    
+    public void setPage(int page) {
+        this.page = page;
+    }
+    
+    public int getSize() {
+        return size;
+    }
+    
+    public void setSize(int size) {
+        this.size = size;
+    }
+    
+    public List<PerformanceDTO> getPerformances() {
+        return performances;
+    }
+    
+    public void setPerformances(List<PerformanceDTO> performances) {
+        this.performances = performances;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.studentmonitor.dto;
+
+import java.time.LocalDate;
+
+public class TimelineBucketDTO {
+    
+    private LocalDate periodStart;
+    private LocalDate periodEnd;
+    private long records;
+    // Score figures are null when no record in the period has a score
+    private Double average;
+    private Double min;
+    private Double max;
+    
+    // No-arg constructor
+    public TimelineBucketDTO() {
+    }
+    
+    // All-arg constructor
+    public TimelineBucketDTO(LocalDate periodStart, LocalDate periodEnd, long records, Double average, Double min, Double max) {
+        this.periodStart = periodStart;
+        this.periodEnd = periodEnd;
+        this.records = records;
+        this.average = average;
+        this.min = min;
+        this.max = max;
+    }
+    
+    // Getters and Setters
+    public LocalDate getPeriodStart() {
+        return periodStart;
+    }
+    
+    public void setPeriodStart(LocalDate periodStart) {
+        this.periodStart = periodStart;
+    }
+    
+    public LocalDate getPeriodEnd() {
+        return periodEnd;
+    }
+    
+    public void setPeriodEnd(LocalDate periodEnd) {
+        this.periodEnd = periodEnd;
+    }
+    
+    public long getRecords() {
+        return records;
+    }
+    
+    public void setRecords(long records) {
+        this.records = records;
+    }
+    
+    public Double getAverage() {
+        return average;
+    }
+    
+    public void setAverage(Double average) {
+        this.average = average;
+    }
+    
+    public Double getMin() {
+        return min;
+    }
+    
+    public void setMin(Double min) {
+        this.min = min;
+    }
+    
+    public Double getMax() {
+        return max;
+    }
+    
+    public void setMax(Double max) {
+        this.max = max;
+    }
+}
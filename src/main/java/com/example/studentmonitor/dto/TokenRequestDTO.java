@@ -0,0 +1,39 @@
+package com.example.studentmonitor.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public class TokenRequestDTO {
+    
+    @NotBlank(message = "Username is required")
+    private String username;
+    
+    @NotBlank(message = "Password is required")
+    private String password;
+    
+    // No-arg constructor
+    public TokenRequestDTO() {
+    }
+    
+    // All-arg constructor
+    public TokenRequestDTO(String username, String password) {
+        this.username = username;
+        this.password = password;
+    }
+    
+    // Getters and Setters
+    public String getUsername() {
+        return username;
+    }
+    
+    public void setUsername(String username) {
+        this.username = username;
+    }
+    
+    public String getPassword() {
+        return password;
+    }
+    
+    public void setPassword(String password) {
+        this.password = password;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.studentmonitor.dto;
+
+public class TokenResponseDTO {
+    
+    private String accessToken;
+    private String tokenType;
+    private long expiresIn;
+    private String refreshToken;
+    private long refreshExpiresIn;
+    
+    // No-arg constructor
+    public TokenResponseDTO() {
+    }
+    
+    // All-arg constructor
+    public TokenResponseDTO(String accessToken, String tokenType, long expiresIn, String refreshToken,
+                            long refreshExpiresIn) {
+        this.accessToken = accessToken;
+        this.tokenType = tokenType;
+        this.expiresIn = expiresIn;
+        this.refreshToken = refreshToken;
+        this.refreshExpiresIn = refreshExpiresIn;
+    }
+    
+    // Getters and Setters
+    public String getAccessToken() {
+        return accessToken;
+    }
+    
+    public void setAccessToken(String accessToken) {
+        this.accessToken = accessToken;
+    }
+    
+    public String getTokenType() {
+        return tokenType;
+    }
+    
+    public void setTokenType(String tokenType) {
+        this.tokenType = tokenType;
+    }
+    
+    /**
+     * Seconds until the access token expires
+     */
+    public long getExpiresIn() {
+        return expiresIn;
+    }
+    
+    public void setExpiresIn(long expiresIn) {
+        this.expiresIn = expiresIn;
+    }
+    
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+    
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+    
+    /**
+     * Seconds until the refresh token expires
+     */
+    public long getRefreshExpiresIn() {
+        return refreshExpiresIn;
+    }
+    
+    public void setRefreshExpiresIn(long refreshExpiresIn) {
+        this.refreshExpiresIn = refreshExpiresIn;
+    }
+}
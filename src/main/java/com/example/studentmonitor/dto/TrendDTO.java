@@ -0,0 +1,75 @@
+package com.example.studentmonitor.dto;
+
+public class TrendDTO {
+    
+    private String subject;
+    private long sampleSize;
+    private double average;
+    private double movingAverage;
+    // Least-squares change in points per 30 days; null until scores exist on two different dates
+    private Double slopePerMonth;
+    private boolean declining;
+    
+    // No-arg constructor
+    public TrendDTO() {
+    }
+    
+    // All-arg constructor
+    public TrendDTO(String subject, long sampleSize, double average, double movingAverage, Double slopePerMonth, boolean declining) {
+        this.subject = subject;
+        this.sampleSize = sampleSize;
+        this.average = average;
+        this.movingAverage = movingAverage;
+        this.slopePerMonth = slopePerMonth;
+        this.declining = declining;
+    }
+    
+    // Getters and Setters
+    public String getSubject() {
+        return subject;
+    }
+    
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+    
+    public long getSampleSize() {
+        return sampleSize;
+    }
+    
+    public void setSampleSize(long sampleSize) {
+        this.sampleSize = sampleSize;
+    }
+    
+    public double getAverage() {
+        return average;
+    }
+    
+    public void setAverage(double average) {
+        this.average = average;
+    }
+    
+    public double getMovingAverage() {
+        return movingAverage;
+    }
+    
+    public void setMovingAverage(double movingAverage) {
+        this.movingAverage = movingAverage;
+    }
+    
+    public Double getSlopePerMonth() {
+        return slopePerMonth;
+    }
+    
+    public void setSlopePerMonth(Double slopePerMonth) {
+        this.slopePerMonth = slopePerMonth;
+    }
+    
+    public boolean isDeclining() {
+        return declining;
+    }
+    
+    public void setDeclining(boolean declining) {
+        this.declining = declining;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.studentmonitor.exception;
+
+public class ReportNotReadyException extends RuntimeException {
+    
+    public ReportNotReadyException(String message) {
+        super(message);
+    }
+}
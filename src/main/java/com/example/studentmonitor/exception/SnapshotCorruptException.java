@@ -0,0 +1,11 @@
+package com.example.studentmonitor.exception;
+
+/**
+ * A snapshot file that is truncated, damaged or not a snapshot at all
+ */
+public class SnapshotCorruptException extends RuntimeException {
+    
+    public SnapshotCorruptException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.studentmonitor.exception;
+
+public class StudentHasRecordsException extends RuntimeException {
+    
+    public StudentHasRecordsException(String message) {
+        super(message);
+    }
+    
+    public StudentHasRecordsException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
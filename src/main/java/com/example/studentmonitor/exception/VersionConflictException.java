@@ -0,0 +1,12 @@
+package com.example.studentmonitor.exception;
+
+public class VersionConflictException extends RuntimeException {
+    
+    public VersionConflictException(String message) {
+        super(message);
+    }
+    
+    public VersionConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.studentmonitor.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Version;
+
+/**
+ * Position of an incremental job in the (updatedAt, id) order of the rows it consumes
+ */
+@Entity
+public class JobWatermark {
+
+    @Id
+    private String name;
+
+    private Instant position;
+
+    private Long lastId;
+
+    // Two instances advancing the same watermark conflict instead of both committing
+    @Version
+    private Long version;
+
+    // No-arg constructor
+    public JobWatermark() {
+    }
+
+    // All-arg constructor
+    public JobWatermark(String name, Instant position, Long lastId) {
+        this.name = name;
+        this.position = position;
+        this.lastId = lastId;
+    }
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Instant getPosition() {
+        return position;
+    }
+
+    public void setPosition(Instant position) {
+        this.position = position;
+    }
+
+    public Long getLastId() {
+        return lastId;
+    }
+
+    public void setLastId(Long lastId) {
+        this.lastId = lastId;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    @Override
+    public String toString() {
+        return "JobWatermark{" +
+                "name='" + name + '\'' +
+                ", position=" + position +
+                ", lastId=" + lastId +
+                ", version=" + version +
+                '}';
+    }
+}
@@ -1,27 +1,43 @@
 package com.example.studentmonitor.model;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
-import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_performance_subject_date", columnList = "subject_id, date"),
+        @Index(name = "idx_performance_student_date", columnList = "student_id, date"),
+        @Index(name = "idx_performance_date", columnList = "date"),
+        @Index(name = "idx_performance_updated", columnList = "updatedAt, id"),
+        @Index(name = "idx_performance_entry_sequence", columnList = "entrySequence", unique = true)
+})
 public class PerformanceRecord {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @NotBlank(message = "Subject is required")
-    private String subject;
+    @NotNull(message = "Subject is required")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "subject_id", nullable = false)
+    private Subject subject;
 
     @Min(value = 0, message = "Score must be at least 0")
     @Max(value = 100, message = "Score must be at most 100")
@@ -35,12 +51,21 @@ public class PerformanceRecord {
     @JoinColumn(name = "student_id")
     private Student student;
 
+    @Version
+    private Long version;
+
+    // Change watermark for incremental jobs; bulk updates set it explicitly
+    private Instant updatedAt;
+
+    // Sequence acknowledged to the client when the record was accepted by the write-behind queue
+    private Long entrySequence;
+
     // No-arg constructor
     public PerformanceRecord() {
     }
 
     // All-arg constructor
-    public PerformanceRecord(String subject, Double score, LocalDate date, String remarks, Student student) {
+    public PerformanceRecord(Subject subject, Double score, LocalDate date, String remarks, Student student) {
         this.subject = subject;
         this.score = score;
         this.date = date;
@@ -57,11 +82,11 @@ public class PerformanceRecord {
         this.id = id;
     }
 
-    public String getSubject() {
+    public Subject getSubject() {
         return subject;
     }
 
-    public void setSubject(String subject) {
+    public void setSubject(Subject subject) {
         this.subject = subject;
     }
 
@@ -97,15 +122,53 @@ public class PerformanceRecord {
         this.student = student;
     }
 
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = now();
+    }
+
+    /**
+     * Current time at the precision the database keeps, so that stored and in-memory watermarks compare equal
+     */
+    public static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getEntrySequence() {
+        return entrySequence;
+    }
+
+    public void setEntrySequence(Long entrySequence) {
+        this.entrySequence = entrySequence;
+    }
+
     @Override
     public String toString() {
         return "PerformanceRecord{" +
                 "id=" + id +
-                ", subject='" + subject + '\'' +
+                ", subjectId=" + (subject != null ? subject.getId() : null) +
                 ", score=" + score +
                 ", date=" + date +
                 ", remarks='" + remarks + '\'' +
                 ", studentId=" + (student != null ? student.getId() : null) +
+                ", version=" + version +
                 '}';
     }
 }
\ No newline at end of file
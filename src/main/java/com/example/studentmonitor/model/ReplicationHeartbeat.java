@@ -0,0 +1,45 @@
+package com.example.studentmonitor.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+/**
+ * Timestamp written to the primary database at a fixed interval; how old it is on a replica bounds the replica's lag
+ */
+@Entity
+public class ReplicationHeartbeat {
+
+    @Id
+    private String name;
+
+    private Instant beatAt;
+
+    // No-arg constructor
+    public ReplicationHeartbeat() {
+    }
+
+    // All-arg constructor
+    public ReplicationHeartbeat(String name, Instant beatAt) {
+        this.name = name;
+        this.beatAt = beatAt;
+    }
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Instant getBeatAt() {
+        return beatAt;
+    }
+
+    public void setBeatAt(Instant beatAt) {
+        this.beatAt = beatAt;
+    }
+}
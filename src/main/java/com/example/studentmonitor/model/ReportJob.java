@@ -0,0 +1,149 @@
+package com.example.studentmonitor.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * A submitted report; rows in QUEUED state form the persisted work queue
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_report_job_status", columnList = "status, id"))
+public class ReportJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ReportStatus status;
+
+    private String requestedBy;
+
+    private Long totalStudents;
+
+    private long processedStudents;
+
+    private String fileName;
+
+    @Column(length = 1000)
+    private String errorMessage;
+
+    private Instant createdAt;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    // No-arg constructor
+    public ReportJob() {
+    }
+
+    // All-arg constructor
+    public ReportJob(String requestedBy, Instant createdAt) {
+        this.status = ReportStatus.QUEUED;
+        this.requestedBy = requestedBy;
+        this.createdAt = createdAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public ReportStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ReportStatus status) {
+        this.status = status;
+    }
+
+    public String getRequestedBy() {
+        return requestedBy;
+    }
+
+    public void setRequestedBy(String requestedBy) {
+        this.requestedBy = requestedBy;
+    }
+
+    public Long getTotalStudents() {
+        return totalStudents;
+    }
+
+    public void setTotalStudents(Long totalStudents) {
+        this.totalStudents = totalStudents;
+    }
+
+    public long getProcessedStudents() {
+        return processedStudents;
+    }
+
+    public void setProcessedStudents(long processedStudents) {
+        this.processedStudents = processedStudents;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "ReportJob{" +
+                "id=" + id +
+                ", status=" + status +
+                ", requestedBy='" + requestedBy + '\'' +
+                ", processedStudents=" + processedStudents +
+                ", totalStudents=" + totalStudents +
+                '}';
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.studentmonitor.model;
+
+public enum ReportStatus {
+    QUEUED, RUNNING, COMPLETED, FAILED
+}
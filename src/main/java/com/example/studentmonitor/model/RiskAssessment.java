@@ -0,0 +1,158 @@
+package com.example.studentmonitor.model;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Latest at-risk evaluation of one student, maintained by the incremental risk assessment job
+ */
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_risk_at_risk", columnList = "atRisk"),
+        @Index(name = "idx_risk_last_assessment", columnList = "lastAssessmentDate"),
+        @Index(name = "idx_risk_stale", columnList = "stale")
+})
+public class RiskAssessment {
+
+    @Id
+    private Long studentId;
+
+    private long recordCount;
+
+    private Double averageScore;
+
+    // Largest fall from a subject's previous score to its latest one
+    private Double largestDrop;
+
+    private LocalDate lastAssessmentDate;
+
+    private boolean lowAverage;
+
+    private boolean sharpDrop;
+
+    private boolean missingAssessments;
+
+    private boolean atRisk;
+
+    // Set when a record was deleted, which the change watermark cannot see
+    private boolean stale;
+
+    private Instant evaluatedAt;
+
+    // No-arg constructor
+    public RiskAssessment() {
+    }
+
+    // All-arg constructor
+    public RiskAssessment(Long studentId) {
+        this.studentId = studentId;
+    }
+
+    // Getters and Setters
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(Long studentId) {
+        this.studentId = studentId;
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    public void setRecordCount(long recordCount) {
+        this.recordCount = recordCount;
+    }
+
+    public Double getAverageScore() {
+        return averageScore;
+    }
+
+    public void setAverageScore(Double averageScore) {
+        this.averageScore = averageScore;
+    }
+
+    public Double getLargestDrop() {
+        return largestDrop;
+    }
+
+    public void setLargestDrop(Double largestDrop) {
+        this.largestDrop = largestDrop;
+    }
+
+    public LocalDate getLastAssessmentDate() {
+        return lastAssessmentDate;
+    }
+
+    public void setLastAssessmentDate(LocalDate lastAssessmentDate) {
+        this.lastAssessmentDate = lastAssessmentDate;
+    }
+
+    public boolean isLowAverage() {
+        return lowAverage;
+    }
+
+    public void setLowAverage(boolean lowAverage) {
+        this.lowAverage = lowAverage;
+    }
+
+    public boolean isSharpDrop() {
+        return sharpDrop;
+    }
+
+    public void setSharpDrop(boolean sharpDrop) {
+        this.sharpDrop = sharpDrop;
+    }
+
+    public boolean isMissingAssessments() {
+        return missingAssessments;
+    }
+
+    public void setMissingAssessments(boolean missingAssessments) {
+        this.missingAssessments = missingAssessments;
+    }
+
+    public boolean isAtRisk() {
+        return atRisk;
+    }
+
+    public void setAtRisk(boolean atRisk) {
+        this.atRisk = atRisk;
+    }
+
+    public boolean isStale() {
+        return stale;
+    }
+
+    public void setStale(boolean stale) {
+        this.stale = stale;
+    }
+
+    public Instant getEvaluatedAt() {
+        return evaluatedAt;
+    }
+
+    public void setEvaluatedAt(Instant evaluatedAt) {
+        this.evaluatedAt = evaluatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "RiskAssessment{" +
+                "studentId=" + studentId +
+                ", recordCount=" + recordCount +
+                ", averageScore=" + averageScore +
+                ", largestDrop=" + largestDrop +
+                ", lastAssessmentDate=" + lastAssessmentDate +
+                ", atRisk=" + atRisk +
+                ", stale=" + stale +
+                ", evaluatedAt=" + evaluatedAt +
+                '}';
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.studentmonitor.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Version;
+
+/**
+ * Named counter handing out values in blocks; every value up to reservedUpTo has been given to some instance
+ */
+@Entity
+public class SequenceAllocation {
+
+    @Id
+    private String name;
+
+    private long reservedUpTo;
+
+    // Two instances reserving the same block conflict instead of both committing
+    @Version
+    private Long version;
+
+    // No-arg constructor
+    public SequenceAllocation() {
+    }
+
+    // All-arg constructor
+    public SequenceAllocation(String name, long reservedUpTo) {
+        this.name = name;
+        this.reservedUpTo = reservedUpTo;
+    }
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getReservedUpTo() {
+        return reservedUpTo;
+    }
+
+    public void setReservedUpTo(long reservedUpTo) {
+        this.reservedUpTo = reservedUpTo;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -6,6 +6,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 
@@ -28,6 +29,9 @@ public class Student {
 
     private LocalDate dateOfBirth;
 
+    @Version
+    private Long version;
+
     // No-arg constructor
     public Student() {
     }
@@ -81,6 +85,14 @@ public class Student {
         this.dateOfBirth = dateOfBirth;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "Student{" +
@@ -89,6 +101,7 @@ public class Student {
                 ", lastName='" + lastName + '\'' +
                 ", email='" + email + '\'' +
                 ", dateOfBirth=" + dateOfBirth +
+                ", version=" + version +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.example.studentmonitor.repository;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Plain JDBC helpers for loading rows in bulk with explicit ids: the secondary indexes of performance_record can
+ * be dropped for the load and built once afterwards, and identity columns are moved past the loaded ids.
+ */
+@Component
+public class BulkLoadSupport {
+    
+    private static final Logger log = LoggerFactory.getLogger(BulkLoadSupport.class);
+    
+    private static final String[] DROP_INDEXES = {
+            "DROP INDEX IF EXISTS idx_performance_subject_date",
+            "DROP INDEX IF EXISTS idx_performance_student_date",
+            "DROP INDEX IF EXISTS idx_performance_date",
+            "DROP INDEX IF EXISTS idx_performance_updated"
+    };
+    // Must match the @Index definitions on PerformanceRecord
+    private static final String[] CREATE_INDEXES = {
+            "CREATE INDEX IF NOT EXISTS idx_performance_subject_date ON performance_record (subject_id, date)",
+            "CREATE INDEX IF NOT EXISTS idx_performance_student_date ON performance_record (student_id, date)",
+            "CREATE INDEX IF NOT EXISTS idx_performance_date ON performance_record (date)",
+            "CREATE INDEX IF NOT EXISTS idx_performance_updated ON performance_record (updated_at, id)"
+    };
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public BulkLoadSupport(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+    
+    public void dropPerformanceIndexes() {
+        for (String statement : DROP_INDEXES) {
+            jdbcTemplate.execute(statement);
+        }
+    }
+    
+    public void createPerformanceIndexes() {
+        long started = System.currentTimeMillis();
+        for (String statement : CREATE_INDEXES) {
+            jdbcTemplate.execute(statement);
+        }
+        log.info("Built performance record indexes in {} ms", System.currentTimeMillis() - started);
+    }
+    
+    /**
+     * Make the next generated id of each table follow its largest id; rows inserted with explicit ids are not
+     * counted by identity columns
+     */
+    public void restartIdentities(String... tables) {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        for (String table : tables) {
+            Long next = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table, Long.class);
+            if ("H2".equals(database)) {
+                jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+            } else if ("PostgreSQL".equals(database)) {
+                jdbcTemplate.queryForObject("SELECT setval(pg_get_serial_sequence(?, 'id'), ?, false)",
+                        Long.class, table, next);
+            } else {
+                log.warn("Cannot move the identity of {} past loaded ids on {}; restart it at {} by hand",
+                        table, database, next);
+            }
+        }
+    }
+}
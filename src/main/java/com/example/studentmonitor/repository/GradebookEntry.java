@@ -0,0 +1,11 @@
+package com.example.studentmonitor.repository;
+
+import java.time.LocalDate;
+
+/**
+ * One student and one of their records, flattened for the gradebook pivot; record fields are null for a student
+ * without records
+ */
+public record GradebookEntry(Long studentId, String firstName, String lastName, Integer subjectId, Double score,
+                             LocalDate date) {
+}
@@ -0,0 +1,10 @@
+package com.example.studentmonitor.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Search conditions for performance records; null fields do not filter and ranges are inclusive
+ */
+public record PerformanceFilter(Long studentId, Integer subjectId, Double minScore, Double maxScore,
+                                LocalDate from, LocalDate to) {
+}
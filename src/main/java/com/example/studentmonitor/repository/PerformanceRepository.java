@@ -1,14 +1,156 @@
 package com.example.studentmonitor.repository;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.example.studentmonitor.analytics.PerformanceSnapshot;
 import com.example.studentmonitor.model.PerformanceRecord;
+import com.example.studentmonitor.search.PerformanceDocument;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
 @Repository
-public interface PerformanceRepository extends JpaRepository<PerformanceRecord, Long> {
+public interface PerformanceRepository extends JpaRepository<PerformanceRecord, Long>, PerformanceRepositoryCustom {
     
     List<PerformanceRecord> findByStudentId(Long studentId);
-}
\ No newline at end of file
+    
+    List<PerformanceRecord> findByStudentIdIn(Collection<Long> studentIds);
+    
+    // The image a following conditional update or delete replaces; concurrent writers of the row wait for the commit
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.example.studentmonitor.analytics.PerformanceSnapshot(p.id, p.student.id, p.subject.id, p.score, p.date) " +
+           "FROM PerformanceRecord p WHERE p.id = :id")
+    Optional<PerformanceSnapshot> lockSnapshotById(@Param("id") Long id);
+    
+    @Query("SELECT new com.example.studentmonitor.analytics.PerformanceSnapshot(p.id, p.student.id, p.subject.id, p.score, p.date) " +
+           "FROM PerformanceRecord p")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<PerformanceSnapshot> streamAllSnapshots();
+    
+    @Query("SELECT new com.example.studentmonitor.analytics.PerformanceSnapshot(p.id, p.student.id, p.subject.id, p.score, p.date) " +
+           "FROM PerformanceRecord p WHERE p.student.id IN :studentIds")
+    List<PerformanceSnapshot> findSnapshotsByStudentIdIn(@Param("studentIds") Collection<Long> studentIds);
+    
+    @Query("SELECT new com.example.studentmonitor.search.PerformanceDocument(p.id, p.student.id, p.subject.id, p.remarks) " +
+           "FROM PerformanceRecord p WHERE p.id = :id")
+    Optional<PerformanceDocument> findDocumentById(@Param("id") Long id);
+    
+    @Query("SELECT new com.example.studentmonitor.search.PerformanceDocument(p.id, p.student.id, p.subject.id, p.remarks) " +
+           "FROM PerformanceRecord p")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<PerformanceDocument> streamAllDocuments();
+    
+    /**
+     * Every student with their records, ordered by student and then oldest record first
+     */
+    @Query("SELECT new com.example.studentmonitor.repository.GradebookEntry(s.id, s.firstName, s.lastName, p.subject.id, p.score, p.date) " +
+           "FROM Student s LEFT JOIN PerformanceRecord p ON p.student = s " +
+           "ORDER BY s.id, p.date NULLS FIRST, p.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<GradebookEntry> streamGradebookEntries();
+    
+    /**
+     * Rows changed after a (updatedAt, id) watermark and before a cutoff, in watermark order
+     */
+    @Query("SELECT p.updatedAt AS updatedAt, p.id AS id, p.student.id AS studentId FROM PerformanceRecord p " +
+           "WHERE p.updatedAt < :until AND (p.updatedAt > :since OR (p.updatedAt = :since AND p.id > :lastId)) " +
+           "ORDER BY p.updatedAt, p.id")
+    List<ChangeMarker> findChangesAfter(@Param("since") Instant since, @Param("lastId") Long lastId,
+                                        @Param("until") Instant until, Pageable pageable);
+    
+    /**
+     * Per-week figures of one student; weeks are numbered from the Monday before the epoch
+     */
+    @Query("SELECT FLOOR((EXTRACT(EPOCH FROM p.date) / 86400 + 3) / 7) AS bucket, COUNT(p.id) AS count, " +
+           "AVG(p.score) AS average, MIN(p.score) AS minimum, MAX(p.score) AS maximum " +
+           "FROM PerformanceRecord p WHERE p.student.id = :studentId AND p.date BETWEEN :from AND :to " +
+           "GROUP BY 1 ORDER BY 1")
+    List<TimelineBucket> findWeeklyTimelineByStudentId(@Param("studentId") Long studentId,
+                                                       @Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    /**
+     * Per-month figures of one student; months are numbered as year * 12 + month - 1
+     */
+    @Query("SELECT EXTRACT(YEAR FROM p.date) * 12 + EXTRACT(MONTH FROM p.date) - 1 AS bucket, COUNT(p.id) AS count, " +
+           "AVG(p.score) AS average, MIN(p.score) AS minimum, MAX(p.score) AS maximum " +
+           "FROM PerformanceRecord p WHERE p.student.id = :studentId AND p.date BETWEEN :from AND :to " +
+           "GROUP BY 1 ORDER BY 1")
+    List<TimelineBucket> findMonthlyTimelineByStudentId(@Param("studentId") Long studentId,
+                                                        @Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    @Query("SELECT FLOOR((EXTRACT(EPOCH FROM p.date) / 86400 + 3) / 7) AS bucket, COUNT(p.id) AS count, " +
+           "AVG(p.score) AS average, MIN(p.score) AS minimum, MAX(p.score) AS maximum " +
+           "FROM PerformanceRecord p WHERE p.date BETWEEN :from AND :to " +
+           "GROUP BY 1 ORDER BY 1")
+    List<TimelineBucket> findWeeklyTimeline(@Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    @Query("SELECT EXTRACT(YEAR FROM p.date) * 12 + EXTRACT(MONTH FROM p.date) - 1 AS bucket, COUNT(p.id) AS count, " +
+           "AVG(p.score) AS average, MIN(p.score) AS minimum, MAX(p.score) AS maximum " +
+           "FROM PerformanceRecord p WHERE p.date BETWEEN :from AND :to " +
+           "GROUP BY 1 ORDER BY 1")
+    List<TimelineBucket> findMonthlyTimeline(@Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    @Query("SELECT p.id FROM PerformanceRecord p WHERE p.entrySequence = :sequence")
+    Optional<Long> findIdByEntrySequence(@Param("sequence") Long sequence);
+    
+    @Query("SELECT p.version FROM PerformanceRecord p WHERE p.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+    
+    /**
+     * Fingerprint of a student's record set without loading it; empty when the student does not exist
+     */
+    @Query("SELECT COUNT(p.id) AS count, COALESCE(SUM(p.id), 0) AS idSum, COALESCE(SUM(p.version), 0) AS versionSum " +
+           "FROM Student s LEFT JOIN PerformanceRecord p ON p.student = s " +
+           "WHERE s.id = :studentId GROUP BY s.id")
+    Optional<RecordSetVersion> findRecordSetVersionByStudentId(@Param("studentId") Long studentId);
+    
+    /**
+     * Delete in a single statement; a null expected version skips the optimistic check
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("DELETE FROM PerformanceRecord p WHERE p.id = :id AND (:version IS NULL OR p.version = :version)")
+    int deleteByIdAndVersion(@Param("id") Long id, @Param("version") Long version);
+    
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("DELETE FROM PerformanceRecord p WHERE p.student.id = :studentId")
+    int deleteAllByStudentId(@Param("studentId") Long studentId);
+    
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("DELETE FROM PerformanceRecord p WHERE p.student.id IN :studentIds")
+    int deleteAllByStudentIdIn(@Param("studentIds") Collection<Long> studentIds);
+    
+    interface ChangeMarker {
+        Instant getUpdatedAt();
+        Long getId();
+        Long getStudentId();
+    }
+    
+    interface TimelineBucket {
+        Number getBucket();
+        long getCount();
+        Double getAverage();
+        Double getMinimum();
+        Double getMaximum();
+    }
+    
+    interface RecordSetVersion {
+        long getCount();
+        long getIdSum();
+        long getVersionSum();
+    }
+}
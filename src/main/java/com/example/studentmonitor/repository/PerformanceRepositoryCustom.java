@@ -0,0 +1,20 @@
+package com.example.studentmonitor.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.example.studentmonitor.model.PerformanceRecord;
+
+public interface PerformanceRepositoryCustom {
+    
+    /**
+     * Apply the non-null fields in a single UPDATE guarded by the expected version
+     */
+    int patchById(Long id, Long version, Integer subjectId, Double score, LocalDate date, String remarks);
+    
+    /**
+     * One page of matching records, newest date first and undated records last, resuming after the
+     * (date, id) of the previous page's last record when afterId is set
+     */
+    List<PerformanceRecord> search(PerformanceFilter filter, LocalDate afterDate, Long afterId, int limit);
+}
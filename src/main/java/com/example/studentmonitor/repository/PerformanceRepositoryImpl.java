@@ -0,0 +1,102 @@
+package com.example.studentmonitor.repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.Session;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+
+import com.example.studentmonitor.model.PerformanceRecord;
+import com.example.studentmonitor.model.Subject;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+public class PerformanceRepositoryImpl implements PerformanceRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public int patchById(Long id, Long version, Integer subjectId, Double score, LocalDate date, String remarks) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<PerformanceRecord> update = cb.createCriteriaUpdate(PerformanceRecord.class);
+        Root<PerformanceRecord> root = update.from(PerformanceRecord.class);
+        
+        // Only the supplied columns end up in the SET clause
+        if (subjectId != null) {
+            update.set(root.<Subject>get("subject"), entityManager.getReference(Subject.class, subjectId));
+        }
+        if (score != null) {
+            update.set(root.<Double>get("score"), score);
+        }
+        if (date != null) {
+            update.set(root.<LocalDate>get("date"), date);
+        }
+        if (remarks != null) {
+            update.set(root.<String>get("remarks"), remarks);
+        }
+        update.set(root.<Long>get("version"), cb.sum(root.<Long>get("version"), 1L));
+        update.set(root.<Instant>get("updatedAt"), PerformanceRecord.now());
+        update.where(cb.equal(root.get("id"), id), cb.equal(root.get("version"), version));
+        
+        entityManager.flush();
+        int updated = entityManager.createQuery(update).executeUpdate();
+        entityManager.clear();
+        return updated;
+    }
+    
+    @Override
+    public List<PerformanceRecord> search(PerformanceFilter filter, LocalDate afterDate, Long afterId, int limit) {
+        HibernateCriteriaBuilder cb = entityManager.unwrap(Session.class).getCriteriaBuilder();
+        CriteriaQuery<PerformanceRecord> query = cb.createQuery(PerformanceRecord.class);
+        Root<PerformanceRecord> root = query.from(PerformanceRecord.class);
+        Path<LocalDate> date = root.get("date");
+        Path<Long> id = root.get("id");
+        
+        // Foreign keys are compared directly, so neither the student nor the subject table is joined
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.studentId() != null) {
+            predicates.add(cb.equal(root.get("student").get("id"), filter.studentId()));
+        }
+        if (filter.subjectId() != null) {
+            predicates.add(cb.equal(root.get("subject").get("id"), filter.subjectId()));
+        }
+        if (filter.minScore() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.get("score"), filter.minScore()));
+        }
+        if (filter.maxScore() != null) {
+            predicates.add(cb.lessThanOrEqualTo(root.get("score"), filter.maxScore()));
+        }
+        if (filter.from() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(date, filter.from()));
+        }
+        if (filter.to() != null) {
+            predicates.add(cb.lessThanOrEqualTo(date, filter.to()));
+        }
+        if (afterId != null) {
+            if (afterDate != null) {
+                predicates.add(cb.or(
+                        cb.lessThan(date, afterDate),
+                        cb.and(cb.equal(date, afterDate), cb.lessThan(id, afterId)),
+                        cb.isNull(date)));
+            } else {
+                predicates.add(cb.and(cb.isNull(date), cb.lessThan(id, afterId)));
+            }
+        }
+        
+        query.where(predicates.toArray(new Predicate[0]));
+        query.orderBy(cb.desc(date, false), cb.desc(id));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
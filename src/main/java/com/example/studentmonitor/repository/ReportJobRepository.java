@@ -0,0 +1,53 @@
+package com.example.studentmonitor.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.studentmonitor.model.ReportJob;
+import com.example.studentmonitor.model.ReportStatus;
+
+@Repository
+public interface ReportJobRepository extends JpaRepository<ReportJob, Long> {
+    
+    @Query("SELECT j.id FROM ReportJob j WHERE j.status = com.example.studentmonitor.model.ReportStatus.QUEUED ORDER BY j.id")
+    List<Long> findQueuedIds(Pageable pageable);
+    
+    /**
+     * Move a queued job to RUNNING; returns 0 when another worker claimed it first
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ReportJob j SET j.status = com.example.studentmonitor.model.ReportStatus.RUNNING, " +
+           "j.startedAt = :now, j.totalStudents = :total " +
+           "WHERE j.id = :id AND j.status = com.example.studentmonitor.model.ReportStatus.QUEUED")
+    int claim(@Param("id") Long id, @Param("total") long totalStudents, @Param("now") Instant now);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE ReportJob j SET j.processedStudents = :processed WHERE j.id = :id")
+    int updateProgress(@Param("id") Long id, @Param("processed") long processedStudents);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE ReportJob j SET j.status = :status, j.fileName = :fileName, j.errorMessage = :error, " +
+           "j.finishedAt = :now WHERE j.id = :id")
+    int finish(@Param("id") Long id, @Param("status") ReportStatus status, @Param("fileName") String fileName,
+               @Param("error") String errorMessage, @Param("now") Instant now);
+    
+    /**
+     * Return jobs interrupted by a shutdown to the queue
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ReportJob j SET j.status = com.example.studentmonitor.model.ReportStatus.QUEUED, " +
+           "j.processedStudents = 0 WHERE j.status = com.example.studentmonitor.model.ReportStatus.RUNNING")
+    int requeueRunning();
+}
@@ -0,0 +1,46 @@
+package com.example.studentmonitor.repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.studentmonitor.model.RiskAssessment;
+
+@Repository
+public interface RiskAssessmentRepository extends JpaRepository<RiskAssessment, Long> {
+    
+    List<RiskAssessment> findByAtRiskTrueOrderByAverageScoreAsc();
+    
+    List<RiskAssessment> findByLowAverageTrueOrderByAverageScoreAsc();
+    
+    List<RiskAssessment> findBySharpDropTrueOrderByAverageScoreAsc();
+    
+    List<RiskAssessment> findByMissingAssessmentsTrueOrderByAverageScoreAsc();
+    
+    @Query("SELECT r.studentId FROM RiskAssessment r WHERE r.stale = true ORDER BY r.studentId")
+    List<Long> findStaleStudentIds(Pageable pageable);
+    
+    @Modifying
+    @Query("UPDATE RiskAssessment r SET r.stale = true WHERE r.studentId = :studentId")
+    int markStale(@Param("studentId") Long studentId);
+    
+    /**
+     * Flag students whose newest dated record has aged past the cutoff; touches the results table only
+     */
+    @Modifying
+    @Query("UPDATE RiskAssessment r SET r.missingAssessments = true, r.atRisk = true, r.evaluatedAt = :now " +
+           "WHERE r.missingAssessments = false AND r.lastAssessmentDate < :cutoff")
+    int flagMissingAssessments(@Param("cutoff") LocalDate cutoff, @Param("now") Instant now);
+    
+    @Modifying
+    @Query("DELETE FROM RiskAssessment r WHERE r.studentId IN :studentIds")
+    int deleteAllByStudentIdIn(@Param("studentIds") Collection<Long> studentIds);
+}
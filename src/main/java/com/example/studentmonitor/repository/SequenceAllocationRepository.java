@@ -0,0 +1,10 @@
+package com.example.studentmonitor.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.studentmonitor.model.SequenceAllocation;
+
+@Repository
+public interface SequenceAllocationRepository extends JpaRepository<SequenceAllocation, String> {
+}
@@ -1,14 +1,39 @@
 package com.example.studentmonitor.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.studentmonitor.model.Student;
 
 @Repository
-public interface StudentRepository extends JpaRepository<Student, Long> {
+public interface StudentRepository extends JpaRepository<Student, Long>, StudentRepositoryCustom {
     
     Optional<Student> findByEmail(String email);
-}
\ No newline at end of file
+    
+    /**
+     * Keyset page: the students with ids above the given one, in id order
+     */
+    List<Student> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    
+    @Query("SELECT s.version FROM Student s WHERE s.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+    
+    /**
+     * Delete in a single statement; a null expected version skips the optimistic check
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("DELETE FROM Student s WHERE s.id = :id AND (:version IS NULL OR s.version = :version)")
+    int deleteByIdAndVersion(@Param("id") Long id, @Param("version") Long version);
+    
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("DELETE FROM Student s WHERE s.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,11 @@
+package com.example.studentmonitor.repository;
+
+import java.time.LocalDate;
+
+public interface StudentRepositoryCustom {
+    
+    /**
+     * Apply the non-null fields in a single UPDATE guarded by the expected version
+     */
+    int patchById(Long id, Long version, String firstName, String lastName, String email, LocalDate dateOfBirth);
+}
@@ -0,0 +1,45 @@
+package com.example.studentmonitor.repository;
+
+import java.time.LocalDate;
+
+import com.example.studentmonitor.model.Student;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
+
+public class StudentRepositoryImpl implements StudentRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public int patchById(Long id, Long version, String firstName, String lastName, String email, LocalDate dateOfBirth) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Student> update = cb.createCriteriaUpdate(Student.class);
+        Root<Student> root = update.from(Student.class);
+        
+        // Only the supplied columns end up in the SET clause
+        if (firstName != null) {
+            update.set(root.<String>get("firstName"), firstName);
+        }
+        if (lastName != null) {
+            update.set(root.<String>get("lastName"), lastName);
+        }
+        if (email != null) {
+            update.set(root.<String>get("email"), email);
+        }
+        if (dateOfBirth != null) {
+            update.set(root.<LocalDate>get("dateOfBirth"), dateOfBirth);
+        }
+        update.set(root.<Long>get("version"), cb.sum(root.<Long>get("version"), 1L));
+        update.where(cb.equal(root.get("id"), id), cb.equal(root.get("version"), version));
+        
+        entityManager.flush();
+        int updated = entityManager.createQuery(update).executeUpdate();
+        entityManager.clear();
+        return updated;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.studentmonitor.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.studentmonitor.model.Subject;
+
+@Repository
+public interface SubjectRepository extends JpaRepository<Subject, Integer> {
+    
+    Optional<Subject> findByName(String name);
+}
@@ -0,0 +1,7 @@
+package com.example.studentmonitor.search;
+
+/**
+ * The columns of a performance record that go into the full-text index
+ */
+public record PerformanceDocument(long id, long studentId, int subjectId, String remarks) {
+}
@@ -0,0 +1,226 @@
+package com.example.studentmonitor.search;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.ControlledRealTimeReopenThread;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.studentmonitor.analytics.PerformanceChangedEvent;
+import com.example.studentmonitor.analytics.StudentsPurgedEvent;
+import com.example.studentmonitor.repository.PerformanceRepository;
+import com.example.studentmonitor.service.SubjectService;
+import com.example.studentmonitor.sharding.ShardRouter;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * File-backed Lucene index over performance remarks and subject names. Committed changes are queued to a single
+ * indexing thread, which re-reads the record's current row rather than trusting the event, so a patch that only
+ * carries some fields, or two updates racing each other, still leave the latest state indexed. Searches see
+ * changes once the searcher is reopened, which happens at most app.search.max-staleness after each write. The
+ * files are rebuilt from the database at startup like the in-memory indexes; they bound memory, not recovery.
+ */
+@Component
+public class RemarksSearchIndex {
+    
+    /**
+     * One page of matching record ids, best match first, and the total number of matches
+     */
+    public record Hits(long total, List<Long> recordIds) {
+    }
+    
+    private static final Logger log = LoggerFactory.getLogger(RemarksSearchIndex.class);
+    
+    private static final String ID = "id";
+    private static final String STUDENT_ID = "studentId";
+    private static final String REMARKS = "remarks";
+    private static final String SUBJECT = "subject";
+    
+    private final PerformanceRepository performanceRepository;
+    private final SubjectService subjectService;
+    private final ShardRouter shardRouter;
+    private final Analyzer analyzer = new EnglishAnalyzer();
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final ControlledRealTimeReopenThread<IndexSearcher> reopenThread;
+    private final ThreadPoolExecutor indexer;
+    
+    public RemarksSearchIndex(PerformanceRepository performanceRepository, SubjectService subjectService,
+                              ShardRouter shardRouter,
+                              @Value("${app.search.directory:${java.io.tmpdir}/student-monitor-search-${server.port:8080}}") String directory,
+                              @Value("${app.search.max-staleness:PT1S}") Duration maxStaleness) throws IOException {
+        this.performanceRepository = performanceRepository;
+        this.subjectService = subjectService;
+        this.shardRouter = shardRouter;
+    
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        this.writer = new IndexWriter(FSDirectory.open(Files.createDirectories(Path.of(directory))), config);
+        this.searcherManager = new SearcherManager(writer, null);
+        double maxStaleSeconds = maxStaleness.toMillis() / 1000.0;
+        this.reopenThread = new ControlledRealTimeReopenThread<>(writer, searcherManager,
+                maxStaleSeconds, Math.min(0.1, maxStaleSeconds));
+        this.reopenThread.setName("remarks-search-reopen");
+        this.reopenThread.setDaemon(true);
+        this.reopenThread.start();
+    
+        // One thread, so changes are applied in the order they were committed
+        this.indexer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                runnable -> new Thread(runnable, "remarks-indexer"));
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        submit(() -> {
+            long started = System.currentTimeMillis();
+            writer.deleteAll();
+            shardRouter.forEachShard(true, shard -> {
+                try (Stream<PerformanceDocument> documents = performanceRepository.streamAllDocuments()) {
+                    documents.forEach(document -> {
+                        try {
+                            writer.addDocument(toLucene(document));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                }
+            });
+            writer.commit();
+            searcherManager.maybeRefresh();
+            log.info("Indexed {} performance remarks in {} ms", writer.getDocStats().numDocs,
+                    System.currentTimeMillis() - started);
+        });
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPerformanceChanged(PerformanceChangedEvent event) {
+        long id = event.after() != null ? event.after().id() : event.before().id();
+        submit(() -> {
+            PerformanceDocument document = shardRouter.onShard(shardRouter.shardOfRecord(id), true,
+                    () -> performanceRepository.findDocumentById(id)).orElse(null);
+            if (document == null) {
+                writer.deleteDocuments(new Term(ID, String.valueOf(id)));
+            } else {
+                writer.updateDocument(new Term(ID, String.valueOf(id)), toLucene(document));
+            }
+        });
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentsPurged(StudentsPurgedEvent event) {
+        List<Long> studentIds = List.copyOf(event.studentIds());
+        submit(() -> writer.deleteDocuments(studentIds.stream()
+                .map(studentId -> new Term(STUDENT_ID, String.valueOf(studentId)))
+                .toArray(Term[]::new)));
+    }
+    
+    /**
+     * Records whose remarks or subject match every word of the query, skipping the first offset matches
+     */
+    public Hits search(String text, int offset, int limit) {
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, Map.of(REMARKS, 1.0f, SUBJECT, 0.5f));
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        Query query = parser.parse(text);
+        if (query == null) {
+            // Nothing left after analysis, e.g. only stop words
+            return new Hits(0, List.of());
+        }
+    
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs top = searcher.search(query, offset + limit);
+                List<Long> ids = new ArrayList<>(limit);
+                for (int i = offset; i < top.scoreDocs.length; i++) {
+                    ScoreDoc hit = top.scoreDocs[i];
+                    ids.add(Long.valueOf(searcher.storedFields().document(hit.doc).get(ID)));
+                }
+                return new Hits(searcher.count(query), ids);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${app.search.commit-interval:PT1M}")
+    public void commit() {
+        submit(() -> {
+            if (writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        });
+    }
+    
+    @PreDestroy
+    void shutdown() throws IOException, InterruptedException {
+        indexer.shutdown();
+        indexer.awaitTermination(30, TimeUnit.SECONDS);
+        reopenThread.close();
+        searcherManager.close();
+        writer.close();
+        analyzer.close();
+    }
+    
+    private void submit(IndexTask task) {
+        indexer.execute(() -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                log.error("Remarks index update failed", e);
+            }
+        });
+    }
+    
+    private Document toLucene(PerformanceDocument record) {
+        Document document = new Document();
+        document.add(new StringField(ID, String.valueOf(record.id()), Field.Store.YES));
+        document.add(new StringField(STUDENT_ID, String.valueOf(record.studentId()), Field.Store.NO));
+        document.add(new TextField(SUBJECT, subjectService.getName(record.subjectId()), Field.Store.NO));
+        if (record.remarks() != null) {
+            document.add(new TextField(REMARKS, record.remarks(), Field.Store.NO));
+        }
+        return document;
+    }
+    
+    @FunctionalInterface
+    private interface IndexTask {
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.studentmonitor.service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import com.example.studentmonitor.dto.DecliningStudentDTO;
+import com.example.studentmonitor.dto.LeaderboardEntryDTO;
+import com.example.studentmonitor.dto.PercentileDTO;
+import com.example.studentmonitor.dto.PerformanceDTO;
+import com.example.studentmonitor.dto.ScoreDistributionDTO;
+import com.example.studentmonitor.dto.ScoreStatsDTO;
+import com.example.studentmonitor.dto.SimilarStudentDTO;
+import com.example.studentmonitor.dto.TrendDTO;
+
+public interface AnalyticsService {
+    
+    ScoreStatsDTO getScoreStats(String subject, LocalDate from, LocalDate to, List<Long> studentIds);
+    
+    List<ScoreStatsDTO> getScoreStatsBySubject(LocalDate from, LocalDate to, List<Long> studentIds);
+    
+    PercentileDTO getPercentile(String subject, double score);
+    
+    PercentileDTO getMedian(String subject);
+    
+    ScoreDistributionDTO getDistribution(String subject, double bucketWidth);
+    
+    Map<Long, Double> getPercentiles(List<PerformanceDTO> performances);
+    
+    List<LeaderboardEntryDTO> getLeaderboard(String subject, int k, String mode);
+    
+    List<TrendDTO> getTrends(Long studentId);
+    
+    List<DecliningStudentDTO> getDecliningStudents(int minSubjects);
+    
+    List<SimilarStudentDTO> getSimilarStudents(Long studentId, int k, String metric, int minSharedSubjects);
+}
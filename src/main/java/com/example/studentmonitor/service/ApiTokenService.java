@@ -0,0 +1,16 @@
+package com.example.studentmonitor.service;
+
+import com.example.studentmonitor.dto.TokenResponseDTO;
+
+public interface ApiTokenService {
+    
+    /**
+     * Check the credentials and issue an access token with a refresh token
+     */
+    TokenResponseDTO issueTokens(String username, String password);
+    
+    /**
+     * Exchange a refresh token for new tokens, picking up changes to the user's role or account
+     */
+    TokenResponseDTO refreshTokens(String refreshToken);
+}
@@ -0,0 +1,14 @@
+package com.example.studentmonitor.service;
+
+import com.example.studentmonitor.dto.EventLogReplayDTO;
+import com.example.studentmonitor.dto.EventLogStatusDTO;
+
+public interface EventLogService {
+    
+    EventLogStatusDTO getStatus();
+    
+    /**
+     * Rebuild the in-memory performance indexes from the event log instead of the database
+     */
+    EventLogReplayDTO replay();
+}
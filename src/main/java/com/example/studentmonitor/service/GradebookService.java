@@ -0,0 +1,15 @@
+package com.example.studentmonitor.service;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.example.studentmonitor.dto.GradebookRowDTO;
+
+public interface GradebookService {
+    
+    /**
+     * Stream the students × subjects matrix: the subject columns first, then one row per student in id order.
+     * Cells hold the latest score or the average score, depending on the mode
+     */
+    void streamGradebook(String mode, Consumer<List<String>> columns, Consumer<GradebookRowDTO> rows);
+}
@@ -0,0 +1,19 @@
+package com.example.studentmonitor.service;
+
+import com.example.studentmonitor.dto.PerformanceDTO;
+import com.example.studentmonitor.dto.PerformanceEntryDTO;
+
+public interface PerformanceEntryService {
+    
+    /**
+     * Whether new performance records go through the write-behind queue instead of their own transaction
+     */
+    boolean isWriteBehindEnabled();
+    
+    /**
+     * Validate and queue a new performance record, acknowledging it with its entry sequence
+     */
+    PerformanceEntryDTO submitPerformance(Long studentId, PerformanceDTO dto);
+    
+    PerformanceEntryDTO getEntry(long sequence);
+}
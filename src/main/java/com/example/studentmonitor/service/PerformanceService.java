@@ -1,7 +1,12 @@
 package com.example.studentmonitor.service;
 
 import com.example.studentmonitor.dto.PerformanceDTO;
+import com.example.studentmonitor.dto.PerformanceSearchResultDTO;
+import com.example.studentmonitor.dto.TextSearchResultDTO;
+import com.example.studentmonitor.dto.TimelineBucketDTO;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 public interface PerformanceService {
@@ -10,9 +15,45 @@ public interface PerformanceService {
     
     List<PerformanceDTO> getByStudent(Long studentId);
     
+    /**
+     * Records of several students in one read, without checking that each student exists
+     */
+    List<PerformanceDTO> getByStudents(Collection<Long> studentIds);
+    
+    /**
+     * One page of records matching every given filter, newest first; the cursor comes from the previous page
+     */
+    PerformanceSearchResultDTO searchPerformances(String subject, Long studentId, Double minScore, Double maxScore,
+                                                  LocalDate from, LocalDate to, String cursor, int limit);
+    
+    /**
+     * Records whose remarks or subject contain every word of the query, best match first
+     */
+    TextSearchResultDTO searchRemarks(String query, int page, int size);
+    
+    /**
+     * Records of one student grouped into week or month periods; either end of the date range may be left open
+     */
+    List<TimelineBucketDTO> getTimeline(Long studentId, LocalDate from, LocalDate to, String bucket);
+    
+    /**
+     * Records of the whole class grouped into week or month periods
+     */
+    List<TimelineBucketDTO> getClassTimeline(LocalDate from, LocalDate to, String bucket);
+    
     PerformanceDTO getPerformance(Long id);
     
+    long getPerformanceVersion(Long id);
+    
+    String getStudentPerformancesTag(Long studentId);
+    
+    String computePerformancesTag(List<PerformanceDTO> performances);
+    
     PerformanceDTO updatePerformance(Long id, PerformanceDTO dto);
     
+    long patchPerformance(Long id, PerformanceDTO dto);
+    
     void deletePerformance(Long id);
+    
+    void deletePerformance(Long id, Long expectedVersion);
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.example.studentmonitor.service;
+
+import org.springframework.core.io.Resource;
+
+import com.example.studentmonitor.dto.ReportJobDTO;
+
+public interface ReportService {
+    
+    /**
+     * Queue a class report card; it is generated in the background
+     */
+    ReportJobDTO submitReport(String requestedBy);
+    
+    ReportJobDTO getReport(Long id);
+    
+    /**
+     * The finished CSV of a completed report
+     */
+    Resource getReportFile(Long id);
+}
@@ -0,0 +1,18 @@
+package com.example.studentmonitor.service;
+
+import java.util.List;
+
+import com.example.studentmonitor.dto.RiskAssessmentDTO;
+import com.example.studentmonitor.dto.RiskScanResultDTO;
+
+public interface RiskAssessmentService {
+    
+    /**
+     * Re-evaluate the students whose records changed since the last scan, in bounded batches
+     */
+    RiskScanResultDTO runScan();
+    
+    List<RiskAssessmentDTO> getAtRiskStudents(String reason);
+    
+    RiskAssessmentDTO getAssessment(Long studentId);
+}
@@ -0,0 +1,24 @@
+package com.example.studentmonitor.service;
+
+import java.util.List;
+
+import org.springframework.core.io.Resource;
+
+import com.example.studentmonitor.dto.SnapshotDTO;
+
+public interface SnapshotService {
+    
+    List<SnapshotDTO> getSnapshots();
+    
+    /**
+     * Write subjects, students, users and performance records to a new snapshot file
+     */
+    SnapshotDTO createSnapshot();
+    
+    Resource getSnapshotFile(String name);
+    
+    /**
+     * Replace subjects, students, users and performance records with the contents of a snapshot
+     */
+    SnapshotDTO restoreSnapshot(String name);
+}
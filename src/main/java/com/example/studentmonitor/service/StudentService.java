@@ -1,7 +1,9 @@
 package com.example.studentmonitor.service;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
+import com.example.studentmonitor.dto.PurgeResultDTO;
 import com.example.studentmonitor.dto.StudentDTO;
 
 public interface StudentService {
@@ -10,9 +12,26 @@ public interface StudentService {
     
     StudentDTO getStudent(Long id);
     
+    long getStudentVersion(Long id);
+    
     List<StudentDTO> getAllStudents();
     
+    long countStudents();
+    
+    /**
+     * Up to limit students with ids greater than afterId, in id order; pass 0 for the first page
+     */
+    List<StudentDTO> getStudentsAfter(Long afterId, int limit);
+    
     StudentDTO updateStudent(Long id, StudentDTO dto);
     
+    long patchStudent(Long id, StudentDTO dto);
+    
     void deleteStudent(Long id);
+    
+    void deleteStudent(Long id, Long expectedVersion);
+    
+    PurgeResultDTO purgeStudent(Long id);
+    
+    CompletableFuture<PurgeResultDTO> purgeStudentsAsync(List<Long> ids);
 }
\ No newline at end of file
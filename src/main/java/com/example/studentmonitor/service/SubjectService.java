@@ -0,0 +1,25 @@
+package com.example.studentmonitor.service;
+
+import java.util.List;
+import java.util.Optional;
+
+import com.example.studentmonitor.model.Subject;
+
+public interface SubjectService {
+    
+    /**
+     * Dictionary entry for a subject name, inserting it on first use
+     */
+    Subject resolve(String name);
+    
+    Optional<Integer> findId(String name);
+    
+    String getName(int id);
+    
+    List<Subject> getAllSubjects();
+    
+    /**
+     * Forget every cached subject and load the dictionary again, after the table was replaced behind JPA's back
+     */
+    void reload();
+}
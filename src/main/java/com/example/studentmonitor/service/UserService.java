@@ -26,6 +26,7 @@ public class UserService implements UserDetailsService {
     }
     
     @Override
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String usernameOrEmail) throws UsernameNotFoundException {
         User user = userRepository.findByUsernameOrEmail(usernameOrEmail)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username or email: " + usernameOrEmail));
@@ -62,6 +63,7 @@ public class UserService implements UserDetailsService {
     /**
      * Find user by username
      */
+    @Transactional(readOnly = true)
     public Optional<User> findByUsername(String username) {
         return userRepository.findByUsername(username);
     }
@@ -69,6 +71,7 @@ public class UserService implements UserDetailsService {
     /**
      * Find user by email
      */
+    @Transactional(readOnly = true)
     public Optional<User> findByEmail(String email) {
         return userRepository.findByEmail(email);
     }
@@ -76,6 +79,7 @@ public class UserService implements UserDetailsService {
     /**
      * Find user by ID
      */
+    @Transactional(readOnly = true)
     public Optional<User> findById(Long id) {
         return userRepository.findById(id);
     }
@@ -83,6 +87,7 @@ public class UserService implements UserDetailsService {
     /**
      * Get all users
      */
+    @Transactional(readOnly = true)
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
@@ -90,6 +95,7 @@ public class UserService implements UserDetailsService {
     /**
      * Get users by role
      */
+    @Transactional(readOnly = true)
     public List<User> getUsersByRole(User.Role role) {
         return userRepository.findByRole(role);
     }
@@ -111,6 +117,7 @@ public class UserService implements UserDetailsService {
     /**
      * Check if user exists by username
      */
+    @Transactional(readOnly = true)
     public boolean existsByUsername(String username) {
         return userRepository.existsByUsername(username);
     }
@@ -118,6 +125,7 @@ public class UserService implements UserDetailsService {
     /**
      * Check if user exists by email
      */
+    @Transactional(readOnly = true)
     public boolean existsByEmail(String email) {
         return userRepository.existsByEmail(email);
     }
@@ -150,6 +158,7 @@ public class UserService implements UserDetailsService {
     /**
      * Get total user count
      */
+    @Transactional(readOnly = true)
     public long getTotalUserCount() {
         return userRepository.count();
     }
@@ -157,6 +166,7 @@ public class UserService implements UserDetailsService {
     /**
      * Get active user count
      */
+    @Transactional(readOnly = true)
     public long getActiveUserCount() {
         return userRepository.countByEnabledTrue();
     }
@@ -164,6 +174,7 @@ public class UserService implements UserDetailsService {
     /**
      * Get admin count
      */
+    @Transactional(readOnly = true)
     public long getAdminCount() {
         return userRepository.countByRole(User.Role.ADMIN);
     }
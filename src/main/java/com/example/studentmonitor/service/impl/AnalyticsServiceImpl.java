@@ -0,0 +1,285 @@
+package com.example.studentmonitor.service.impl;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+
+import com.example.studentmonitor.analytics.LeaderboardIndex;
+import com.example.studentmonitor.analytics.ScoreAggregate;
+import com.example.studentmonitor.analytics.ScoreColumnStore;
+import com.example.studentmonitor.analytics.ScoreHistogram;
+import com.example.studentmonitor.analytics.ScoreVectorIndex;
+import com.example.studentmonitor.analytics.SubjectHistogramIndex;
+import com.example.studentmonitor.analytics.TrendIndex;
+import com.example.studentmonitor.dto.DecliningStudentDTO;
+import com.example.studentmonitor.dto.LeaderboardEntryDTO;
+import com.example.studentmonitor.dto.PercentileDTO;
+import com.example.studentmonitor.dto.PerformanceDTO;
+import com.example.studentmonitor.dto.ScoreDistributionDTO;
+import com.example.studentmonitor.dto.ScoreStatsDTO;
+import com.example.studentmonitor.dto.SimilarStudentDTO;
+import com.example.studentmonitor.dto.TrendDTO;
+import com.example.studentmonitor.exception.ResourceNotFoundException;
+import com.example.studentmonitor.model.Student;
+import com.example.studentmonitor.repository.StudentRepository;
+import com.example.studentmonitor.service.AnalyticsService;
+import com.example.studentmonitor.service.SubjectService;
+import com.example.studentmonitor.sharding.ShardRouter;
+
+@Service
+public class AnalyticsServiceImpl implements AnalyticsService {
+    
+    private static final int MAX_SIMILAR_STUDENTS = 100;
+    
+    private final ScoreColumnStore columnStore;
+    private final SubjectHistogramIndex histogramIndex;
+    private final LeaderboardIndex leaderboardIndex;
+    private final TrendIndex trendIndex;
+    private final ScoreVectorIndex vectorIndex;
+    private final StudentRepository studentRepository;
+    private final SubjectService subjectService;
+    private final ShardRouter shardRouter;
+    
+    public AnalyticsServiceImpl(ScoreColumnStore columnStore, SubjectHistogramIndex histogramIndex,
+                                LeaderboardIndex leaderboardIndex, TrendIndex trendIndex,
+                                ScoreVectorIndex vectorIndex, StudentRepository studentRepository, SubjectService subjectService,
+                                ShardRouter shardRouter) {
+        this.columnStore = columnStore;
+        this.histogramIndex = histogramIndex;
+        this.leaderboardIndex = leaderboardIndex;
+        this.trendIndex = trendIndex;
+        this.vectorIndex = vectorIndex;
+        this.studentRepository = studentRepository;
+        this.subjectService = subjectService;
+        this.shardRouter = shardRouter;
+    }
+    
+    @Override
+    public ScoreStatsDTO getScoreStats(String subject, LocalDate from, LocalDate to, List<Long> studentIds) {
+        int code = ScoreColumnStore.ANY_SUBJECT;
+        if (subject != null) {
+            Optional<Integer> subjectId = subjectService.findId(subject);
+            if (subjectId.isEmpty()) {
+                return new ScoreStatsDTO(subject, 0, 0.0, 0.0, 0.0, 0.0);
+            }
+            code = subjectId.get();
+        }
+        ScoreAggregate aggregate = columnStore.aggregate(code, from, to, studentIds).combined();
+        return mapToDto(subject, aggregate, 0);
+    }
+    
+    @Override
+    public List<ScoreStatsDTO> getScoreStatsBySubject(LocalDate from, LocalDate to, List<Long> studentIds) {
+        ScoreAggregate aggregate = columnStore.aggregate(ScoreColumnStore.ANY_SUBJECT, from, to, studentIds);
+        
+        List<ScoreStatsDTO> stats = new ArrayList<>();
+        for (int code = 0; code < aggregate.subjects(); code++) {
+            if (aggregate.count(code) > 0) {
+                stats.add(mapToDto(subjectService.getName(code), aggregate, code));
+            }
+        }
+        return stats;
+    }
+    
+    @Override
+    public PercentileDTO getPercentile(String subject, double score) {
+        if (score < 0 || score > 100) {
+            throw new IllegalArgumentException("Score must be between 0 and 100");
+        }
+        ScoreHistogram histogram = histogramFor(subject);
+        return new PercentileDTO(subject, score, histogram.percentileRank(score), histogram.total());
+    }
+    
+    @Override
+    public PercentileDTO getMedian(String subject) {
+        ScoreHistogram histogram = histogramFor(subject);
+        return new PercentileDTO(subject, histogram.quantile(0.5), 50.0, histogram.total());
+    }
+    
+    @Override
+    public ScoreDistributionDTO getDistribution(String subject, double bucketWidth) {
+        // Written so that NaN fails too
+        if (!(bucketWidth >= 0.1 && bucketWidth <= 100)) {
+            throw new IllegalArgumentException("Bucket width must be between 0.1 and 100");
+        }
+        ScoreHistogram histogram = histogramFor(subject);
+        int width = (int) Math.round(bucketWidth * 10);
+        if (width < 1) {
+            throw new IllegalArgumentException("Bucket width must be between 0.1 and 100");
+        }
+        
+        List<ScoreDistributionDTO.Bucket> buckets = new ArrayList<>();
+        long previous = 0;
+        for (int start = 0; start < ScoreHistogram.BUCKETS; start += width) {
+            // The last bucket is closed so that a perfect score is counted
+            int end = start + width >= ScoreHistogram.BUCKETS - 1 ? ScoreHistogram.BUCKETS - 1 : start + width - 1;
+            long cumulative = histogram.countAtOrBelow(end);
+            boolean last = end == ScoreHistogram.BUCKETS - 1;
+            buckets.add(new ScoreDistributionDTO.Bucket(start / 10.0, last ? 100.0 : (end + 1) / 10.0, cumulative - previous));
+            previous = cumulative;
+            if (last) {
+                break;
+            }
+        }
+        // The width the buckets were cut at, which the histogram's resolution rounds to tenths
+        return new ScoreDistributionDTO(subject, histogram.total(), width / 10.0, buckets);
+    }
+    
+    @Override
+    public Map<Long, Double> getPercentiles(List<PerformanceDTO> performances) {
+        Map<Long, Double> percentiles = new HashMap<>();
+        for (PerformanceDTO performance : performances) {
+            ScoreHistogram histogram = performance.getSubjectId() != null ? histogramIndex.get(performance.getSubjectId()) : null;
+            if (histogram != null && performance.getScore() != null) {
+                percentiles.put(performance.getId(), Math.round(histogram.percentileRank(performance.getScore()) * 10.0) / 10.0);
+            }
+        }
+        return percentiles;
+    }
+    
+    @Override
+    public List<LeaderboardEntryDTO> getLeaderboard(String subject, int k, String mode) {
+        if (k < 1 || k > leaderboardIndex.capacity()) {
+            throw new IllegalArgumentException("k must be between 1 and " + leaderboardIndex.capacity());
+        }
+        LeaderboardIndex.Mode rankingMode;
+        try {
+            rankingMode = LeaderboardIndex.Mode.valueOf(mode.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Mode must be 'best' or 'latest'");
+        }
+        
+        Optional<Integer> subjectId = subjectService.findId(subject);
+        if (subjectId.isEmpty()) {
+            return List.of();
+        }
+        List<LeaderboardIndex.Entry> entries = leaderboardIndex.top(subjectId.get(), rankingMode, k);
+        Map<Long, Student> students = findStudents(entries.stream().map(LeaderboardIndex.Entry::studentId).collect(Collectors.toList()));
+        
+        List<LeaderboardEntryDTO> leaderboard = new ArrayList<>(entries.size());
+        for (LeaderboardIndex.Entry entry : entries) {
+            Student student = students.get(entry.studentId());
+            leaderboard.add(new LeaderboardEntryDTO(
+                    leaderboard.size() + 1,
+                    entry.studentId(),
+                    fullName(student),
+                    entry.score() / 10.0,
+                    entry.day() != Integer.MIN_VALUE ? LocalDate.ofEpochDay(entry.day()) : null,
+                    entry.recordId()
+            ));
+        }
+        return leaderboard;
+    }
+    
+    @Override
+    public List<TrendDTO> getTrends(Long studentId) {
+        if (!studentExists(studentId)) {
+            throw new ResourceNotFoundException("Student not found with id: " + studentId);
+        }
+        return trendIndex.trends(studentId).stream()
+                .map(trend -> new TrendDTO(
+                        subjectService.getName(trend.subjectId()),
+                        trend.count(),
+                        round(trend.mean()),
+                        round(trend.movingAverage()),
+                        trend.slope() != null ? round(trend.slope() * 30) : null,
+                        trend.declining()))
+                .sorted(Comparator.comparing(TrendDTO::getSubject))
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    public List<DecliningStudentDTO> getDecliningStudents(int minSubjects) {
+        if (minSubjects < 1) {
+            throw new IllegalArgumentException("minSubjects must be at least 1");
+        }
+        Map<Long, List<Integer>> declining = trendIndex.decliningStudents(minSubjects);
+        Map<Long, Student> students = findStudents(declining.keySet());
+        
+        return declining.entrySet().stream()
+                .map(entry -> new DecliningStudentDTO(
+                        entry.getKey(),
+                        fullName(students.get(entry.getKey())),
+                        entry.getValue().stream().map(subjectService::getName).sorted().collect(Collectors.toList())))
+                .sorted(Comparator.comparing((DecliningStudentDTO student) -> student.getDecliningSubjects().size()).reversed()
+                        .thenComparing(DecliningStudentDTO::getStudentId))
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    public List<SimilarStudentDTO> getSimilarStudents(Long studentId, int k, String metric, int minSharedSubjects) {
+        if (k < 1 || k > MAX_SIMILAR_STUDENTS) {
+            throw new IllegalArgumentException("k must be between 1 and " + MAX_SIMILAR_STUDENTS);
+        }
+        if (minSharedSubjects < 1) {
+            throw new IllegalArgumentException("minSharedSubjects must be at least 1");
+        }
+        ScoreVectorIndex.Metric similarityMetric;
+        try {
+            similarityMetric = ScoreVectorIndex.Metric.valueOf(metric.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Metric must be 'euclidean' or 'cosine'");
+        }
+        if (!studentExists(studentId)) {
+            throw new ResourceNotFoundException("Student not found with id: " + studentId);
+        }
+        
+        List<ScoreVectorIndex.Neighbor> neighbors = vectorIndex.nearest(studentId, k, similarityMetric, minSharedSubjects);
+        Map<Long, Student> students = findStudents(neighbors.stream().map(ScoreVectorIndex.Neighbor::studentId).toList());
+        boolean euclidean = similarityMetric == ScoreVectorIndex.Metric.EUCLIDEAN;
+        return neighbors.stream()
+                .map(neighbor -> new SimilarStudentDTO(
+                        neighbor.studentId(),
+                        fullName(students.get(neighbor.studentId())),
+                        neighbor.sharedSubjects(),
+                        euclidean ? round(neighbor.value()) : null,
+                        euclidean ? null : Math.round(neighbor.value() * 1000.0) / 1000.0))
+                .collect(Collectors.toList());
+    }
+    
+    private boolean studentExists(Long studentId) {
+        return shardRouter.onShard(shardRouter.shardOfStudent(studentId), true, () -> studentRepository.existsById(studentId));
+    }
+    
+    private Map<Long, Student> findStudents(Collection<Long> ids) {
+        return shardRouter.onShardsOf(ids, shardRouter::shardOfStudent, true, studentRepository::findAllById).stream()
+                .collect(Collectors.toMap(Student::getId, Function.identity()));
+    }
+    
+    private static String fullName(Student student) {
+        return student != null ? student.getFirstName() + " " + student.getLastName() : null;
+    }
+    
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+    
+    private ScoreHistogram histogramFor(String subject) {
+        ScoreHistogram histogram = subjectService.findId(subject).map(histogramIndex::get).orElse(null);
+        if (histogram == null || histogram.total() == 0) {
+            throw new ResourceNotFoundException("No scores recorded for subject: " + subject);
+        }
+        return histogram;
+    }
+    
+    private ScoreStatsDTO mapToDto(String subject, ScoreAggregate aggregate, int code) {
+        return new ScoreStatsDTO(
+                subject,
+                aggregate.count(code),
+                aggregate.mean(code),
+                aggregate.stddev(code),
+                aggregate.min(code),
+                aggregate.max(code)
+        );
+    }
+}
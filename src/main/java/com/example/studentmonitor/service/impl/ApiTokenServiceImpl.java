@@ -0,0 +1,134 @@
+package com.example.studentmonitor.service.impl;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import javax.crypto.SecretKey;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.stereotype.Service;
+
+import com.example.studentmonitor.config.ApiTokenConfig;
+import com.example.studentmonitor.dto.TokenResponseDTO;
+import com.example.studentmonitor.model.User;
+import com.example.studentmonitor.service.ApiTokenService;
+import com.example.studentmonitor.service.UserService;
+
+/**
+ * Issues the API's bearer tokens. Only issuing and refreshing look at the user: the password is checked once for
+ * a token request, and a refresh reloads the user so that a disabled account or a changed role takes effect within
+ * one access token lifetime. API calls themselves are authenticated from the access token alone.
+ */
+@Service
+public class ApiTokenServiceImpl implements ApiTokenService {
+    
+    private static final String ROLE_PREFIX = "ROLE_";
+    
+    private final AuthenticationManager authenticationManager;
+    private final UserService userService;
+    private final JwtEncoder jwtEncoder;
+    private final JwtDecoder refreshTokenDecoder;
+    private final String issuer;
+    private final Duration accessTokenTtl;
+    private final Duration refreshTokenTtl;
+    
+    public ApiTokenServiceImpl(AuthenticationManager authenticationManager,
+                               UserService userService,
+                               JwtEncoder jwtEncoder,
+                               SecretKey apiTokenKey,
+                               @Value("${app.api-token.issuer}") String issuer,
+                               @Value("${app.api-token.access-ttl}") Duration accessTokenTtl,
+                               @Value("${app.api-token.refresh-ttl}") Duration refreshTokenTtl) {
+        this.authenticationManager = authenticationManager;
+        this.userService = userService;
+        this.jwtEncoder = jwtEncoder;
+        this.refreshTokenDecoder = ApiTokenConfig.decoder(apiTokenKey, issuer, ApiTokenConfig.REFRESH_TOKEN);
+        this.issuer = issuer;
+        this.accessTokenTtl = accessTokenTtl;
+        this.refreshTokenTtl = refreshTokenTtl;
+    }
+    
+    @Override
+    public TokenResponseDTO issueTokens(String username, String password) {
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    UsernamePasswordAuthenticationToken.unauthenticated(username, password));
+        } catch (AuthenticationException e) {
+            // Same answer for unknown users, wrong passwords and locked accounts
+            throw new BadCredentialsException("Invalid username or password");
+        }
+        return tokensFor((UserDetails) authentication.getPrincipal());
+    }
+    
+    @Override
+    public TokenResponseDTO refreshTokens(String refreshToken) {
+        Jwt jwt;
+        try {
+            jwt = refreshTokenDecoder.decode(refreshToken);
+        } catch (JwtException e) {
+            throw new BadCredentialsException("Invalid or expired refresh token");
+        }
+        UserDetails user;
+        try {
+            user = userService.loadUserByUsername(jwt.getSubject());
+        } catch (AuthenticationException e) {
+            throw new BadCredentialsException("Invalid or expired refresh token");
+        }
+        if (!user.isEnabled() || !user.isAccountNonLocked() || !user.isAccountNonExpired()) {
+            throw new BadCredentialsException("The account is no longer active");
+        }
+        return tokensFor(user);
+    }
+    
+    private TokenResponseDTO tokensFor(UserDetails user) {
+        Instant now = Instant.now();
+        List<String> roles = user.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .filter(authority -> authority.startsWith(ROLE_PREFIX))
+                .map(authority -> authority.substring(ROLE_PREFIX.length()))
+                .toList();
+        JwtClaimsSet.Builder access = JwtClaimsSet.builder()
+                .issuer(issuer)
+                .subject(user.getUsername())
+                .issuedAt(now)
+                .expiresAt(now.plus(accessTokenTtl))
+                .claim(ApiTokenConfig.TOKEN_TYPE_CLAIM, ApiTokenConfig.ACCESS_TOKEN)
+                .claim(ApiTokenConfig.ROLES_CLAIM, roles);
+        if (user instanceof User account && account.getId() != null) {
+            access.claim("uid", account.getId());
+        }
+        JwtClaimsSet refresh = JwtClaimsSet.builder()
+                .issuer(issuer)
+                .subject(user.getUsername())
+                .id(UUID.randomUUID().toString())
+                .issuedAt(now)
+                .expiresAt(now.plus(refreshTokenTtl))
+                .claim(ApiTokenConfig.TOKEN_TYPE_CLAIM, ApiTokenConfig.REFRESH_TOKEN)
+                .build();
+        return new TokenResponseDTO(encode(access.build()), "Bearer", accessTokenTtl.toSeconds(),
+                encode(refresh), refreshTokenTtl.toSeconds());
+    }
+    
+    private String encode(JwtClaimsSet claims) {
+        JwsHeader header = JwsHeader.with(MacAlgorithm.HS256).build();
+        return jwtEncoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+    }
+}
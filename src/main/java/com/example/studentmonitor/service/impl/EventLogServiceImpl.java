@@ -0,0 +1,39 @@
+package com.example.studentmonitor.service.impl;
+
+import org.springframework.stereotype.Service;
+
+import com.example.studentmonitor.analytics.PerformanceEventLog;
+import com.example.studentmonitor.analytics.PerformanceIndexMaintainer;
+import com.example.studentmonitor.analytics.ScoreColumnStore;
+import com.example.studentmonitor.dto.EventLogReplayDTO;
+import com.example.studentmonitor.dto.EventLogStatusDTO;
+import com.example.studentmonitor.service.EventLogService;
+
+@Service
+public class EventLogServiceImpl implements EventLogService {
+    
+    private final PerformanceEventLog eventLog;
+    private final PerformanceIndexMaintainer indexMaintainer;
+    private final ScoreColumnStore columnStore;
+    
+    public EventLogServiceImpl(PerformanceEventLog eventLog, PerformanceIndexMaintainer indexMaintainer,
+                               ScoreColumnStore columnStore) {
+        this.eventLog = eventLog;
+        this.indexMaintainer = indexMaintainer;
+        this.columnStore = columnStore;
+    }
+    
+    @Override
+    public EventLogStatusDTO getStatus() {
+        PerformanceEventLog.Stats stats = eventLog.stats();
+        return new EventLogStatusDTO(stats.events(), stats.bytes(), stats.segments());
+    }
+    
+    @Override
+    public EventLogReplayDTO replay() {
+        long started = System.currentTimeMillis();
+        long events = indexMaintainer.replay();
+        return new EventLogReplayDTO(Math.max(events, 0), columnStore.size(), events < 0,
+                System.currentTimeMillis() - started);
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.studentmonitor.service.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+
+import com.example.studentmonitor.dto.GradebookRowDTO;
+import com.example.studentmonitor.model.Subject;
+import com.example.studentmonitor.repository.GradebookEntry;
+import com.example.studentmonitor.repository.PerformanceRepository;
+import com.example.studentmonitor.service.GradebookService;
+import com.example.studentmonitor.service.SubjectService;
+import com.example.studentmonitor.sharding.ShardRouter;
+
+/**
+ * Gradebook pivot computed in a single pass over one query ordered by student. Only the row being filled is held
+ * in memory, next to the column set taken from the subject dictionary when the pass starts; subjects added while
+ * it runs are left out of that gradebook. When sharded, the shards are read one after another, so rows come in
+ * student order within each shard.
+ */
+@Service
+public class GradebookServiceImpl implements GradebookService {
+    
+    private final PerformanceRepository performanceRepository;
+    private final SubjectService subjectService;
+    private final ShardRouter shardRouter;
+    
+    public GradebookServiceImpl(PerformanceRepository performanceRepository, SubjectService subjectService,
+                                ShardRouter shardRouter) {
+        this.performanceRepository = performanceRepository;
+        this.subjectService = subjectService;
+        this.shardRouter = shardRouter;
+    }
+    
+    @Override
+    public void streamGradebook(String mode, Consumer<List<String>> columns, Consumer<GradebookRowDTO> rows) {
+        boolean latest = parseMode(mode);
+        List<Subject> subjects = subjectService.getAllSubjects();
+        int maxId = subjects.stream().mapToInt(Subject::getId).max().orElse(0);
+        int[] columnOf = new int[maxId + 1];
+        Arrays.fill(columnOf, -1);
+        List<String> names = new ArrayList<>(subjects.size());
+        for (Subject subject : subjects) {
+            columnOf[subject.getId()] = names.size();
+            names.add(subject.getName());
+        }
+        columns.accept(names);
+    
+        RowBuilder row = new RowBuilder(names.size(), latest);
+        // A student and their records always share a shard
+        shardRouter.forEachShard(true, shard -> {
+            try (Stream<GradebookEntry> entries = performanceRepository.streamGradebookEntries()) {
+                entries.forEach(entry -> {
+                    if (row.studentId != null && !row.studentId.equals(entry.studentId())) {
+                        rows.accept(row.build());
+                    }
+                    if (row.studentId == null) {
+                        row.start(entry);
+                    }
+                    Integer subjectId = entry.subjectId();
+                    if (subjectId != null && subjectId <= maxId && columnOf[subjectId] >= 0 && entry.score() != null) {
+                        row.add(columnOf[subjectId], entry.score());
+                    }
+                });
+            }
+        });
+        if (row.studentId != null) {
+            rows.accept(row.build());
+        }
+    }
+    
+    private static boolean parseMode(String mode) {
+        return switch (mode) {
+            case "latest" -> true;
+            case "average" -> false;
+            default -> throw new IllegalArgumentException("Mode must be 'latest' or 'average'");
+        };
+    }
+    
+    // Accumulators for the current student, reused from row to row
+    private static final class RowBuilder {
+    
+        private final boolean latest;
+        private final double[] values;
+        private final int[] counts;
+        private Long studentId;
+        private String studentName;
+    
+        RowBuilder(int columns, boolean latest) {
+            this.latest = latest;
+            this.values = new double[columns];
+            this.counts = new int[columns];
+        }
+    
+        void start(GradebookEntry entry) {
+            studentId = entry.studentId();
+            studentName = entry.firstName() + " " + entry.lastName();
+        }
+    
+        // Entries arrive oldest first, so in latest mode the last one written wins
+        void add(int column, double score) {
+            values[column] = latest ? score : values[column] + score;
+            counts[column]++;
+        }
+    
+        GradebookRowDTO build() {
+            List<Double> scores = new ArrayList<>(values.length);
+            for (int i = 0; i < values.length; i++) {
+                if (counts[i] == 0) {
+                    scores.add(null);
+                } else {
+                    scores.add(latest ? values[i] : Math.round(values[i] / counts[i] * 100.0) / 100.0);
+                }
+            }
+            GradebookRowDTO row = new GradebookRowDTO(studentId, studentName, scores);
+            Arrays.fill(values, 0);
+            Arrays.fill(counts, 0);
+            studentId = null;
+            studentName = null;
+            return row;
+        }
+    }
+}
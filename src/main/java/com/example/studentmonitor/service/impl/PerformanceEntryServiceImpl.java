@@ -0,0 +1,355 @@
+package com.example.studentmonitor.service.impl;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.studentmonitor.analytics.PerformanceChangedEvent;
+import com.example.studentmonitor.analytics.PerformanceSnapshot;
+import com.example.studentmonitor.dto.PerformanceDTO;
+import com.example.studentmonitor.dto.PerformanceEntryDTO;
+import com.example.studentmonitor.exception.ResourceNotFoundException;
+import com.example.studentmonitor.exception.WriteQueueFullException;
+import com.example.studentmonitor.model.PerformanceRecord;
+import com.example.studentmonitor.model.SequenceAllocation;
+import com.example.studentmonitor.model.Subject;
+import com.example.studentmonitor.repository.PerformanceRepository;
+import com.example.studentmonitor.repository.SequenceAllocationRepository;
+import com.example.studentmonitor.repository.StudentRepository;
+import com.example.studentmonitor.service.PerformanceEntryService;
+import com.example.studentmonitor.service.SubjectService;
+import com.example.studentmonitor.sharding.ShardRouter;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+
+/**
+ * Write-behind entry of performance records. A submission is validated against everything that can be checked
+ * without writing, given the next entry sequence and put on a bounded queue; a single flusher thread inserts
+ * queued entries in batches of up to app.write-behind.batch-size, one transaction per batch and shard, waiting at most
+ * app.write-behind.flush-interval for a batch to fill. A full queue rejects the submission rather than letting
+ * memory grow. Sequences are reserved from the database in blocks, so they stay unique across restarts and
+ * instances, and each is stored on its record so that an acknowledged entry can be looked up later. Entries
+ * still queued when the process dies are lost; a normal shutdown flushes them first.
+ */
+@Service
+public class PerformanceEntryServiceImpl implements PerformanceEntryService {
+    
+    private static final Logger log = LoggerFactory.getLogger(PerformanceEntryServiceImpl.class);
+    
+    private static final String SEQUENCE = "performance-entry";
+    private static final int MAX_RESERVE_ATTEMPTS = 5;
+    private static final int MAX_REMEMBERED_FAILURES = 10_000;
+    private static final long IDLE_POLL_MILLIS = 200;
+    
+    private final PerformanceRepository performanceRepository;
+    private final StudentRepository studentRepository;
+    private final SequenceAllocationRepository sequenceRepository;
+    private final SubjectService subjectService;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate reserveTransaction;
+    
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Duration enqueueTimeout;
+    private final int sequenceBlock;
+    
+    private final BlockingQueue<PendingEntry> queue;
+    // Sequences acknowledged but not yet committed or failed
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final Map<Long, String> failures = Collections.synchronizedMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+            return size() > MAX_REMEMBERED_FAILURES;
+        }
+    });
+    private final Thread flusher;
+    private volatile boolean accepting = true;
+    
+    // Next sequence to hand out and the last one of the reserved block
+    private long nextSequence = 1;
+    private long reservedUpTo = 0;
+    
+    public PerformanceEntryServiceImpl(PerformanceRepository performanceRepository, StudentRepository studentRepository,
+                                       SequenceAllocationRepository sequenceRepository, SubjectService subjectService,
+                                       Validator validator, ApplicationEventPublisher eventPublisher,
+                                       PlatformTransactionManager transactionManager, ShardRouter shardRouter,
+                                       @Value("${app.write-behind.enabled:false}") boolean enabled,
+                                       @Value("${app.write-behind.queue-capacity:10000}") int queueCapacity,
+                                       @Value("${app.write-behind.batch-size:200}") int batchSize,
+                                       @Value("${app.write-behind.flush-interval:PT0.05S}") Duration flushInterval,
+                                       @Value("${app.write-behind.enqueue-timeout:PT0.1S}") Duration enqueueTimeout,
+                                       @Value("${app.write-behind.sequence-block:1000}") int sequenceBlock) {
+        this.performanceRepository = performanceRepository;
+        this.studentRepository = studentRepository;
+        this.sequenceRepository = sequenceRepository;
+        this.subjectService = subjectService;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.shardRouter = shardRouter;
+        // Reservations commit on their own, so a block is never handed out twice
+        this.reserveTransaction = new TransactionTemplate(transactionManager);
+        this.reserveTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.enqueueTimeout = enqueueTimeout;
+        this.sequenceBlock = sequenceBlock;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    
+        this.flusher = new Thread(this::flushLoop, "performance-write-behind");
+        this.flusher.setDaemon(true);
+        if (enabled) {
+            this.flusher.start();
+        }
+    }
+    
+    @Override
+    public boolean isWriteBehindEnabled() {
+        return enabled;
+    }
+    
+    @Override
+    public PerformanceEntryDTO submitPerformance(Long studentId, PerformanceDTO dto) {
+        if (!enabled) {
+            throw new IllegalStateException("Write-behind entry is not enabled");
+        }
+        if (!shardRouter.onShard(shardRouter.shardOfStudent(studentId), true, () -> studentRepository.existsById(studentId))) {
+            throw new ResourceNotFoundException("Student not found with id: " + studentId);
+        }
+        Subject subject = dto.getSubject() != null ? subjectService.resolve(dto.getSubject()) : null;
+        validate(subject, dto);
+        if (!accepting) {
+            throw new WriteQueueFullException("Performance entry is shutting down");
+        }
+    
+        long sequence = nextSequence();
+        PendingEntry entry = new PendingEntry(sequence, studentId, subject, dto.getScore(), dto.getDate(),
+                dto.getRemarks());
+        pending.add(sequence);
+        boolean queued;
+        try {
+            queued = queue.offer(entry, enqueueTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        if (!queued) {
+            // The sequence is simply skipped; gaps are allowed
+            pending.remove(sequence);
+            throw new WriteQueueFullException("Performance entry queue is full, retry shortly");
+        }
+        return new PerformanceEntryDTO(sequence, "QUEUED", null, null);
+    }
+    
+    @Override
+    public PerformanceEntryDTO getEntry(long sequence) {
+        if (pending.contains(sequence)) {
+            return new PerformanceEntryDTO(sequence, "QUEUED", null, null);
+        }
+        String error = failures.get(sequence);
+        if (error != null) {
+            return new PerformanceEntryDTO(sequence, "FAILED", null, error);
+        }
+        // The sequence does not tell which shard the record went to
+        return shardRouter.onEveryShard(true, shard -> performanceRepository.findIdByEntrySequence(sequence)).stream()
+                .flatMap(Optional::stream)
+                .findFirst()
+                .map(id -> new PerformanceEntryDTO(sequence, "COMMITTED", id, null))
+                .orElseThrow(() -> new ResourceNotFoundException("Performance entry not found with sequence: " + sequence));
+    }
+    
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        accepting = false;
+        if (enabled) {
+            // The flusher exits once it finds the queue empty after accepting stopped
+            flusher.join(TimeUnit.SECONDS.toMillis(30));
+            if (!queue.isEmpty()) {
+                log.warn("{} queued performance entries were not written before shutdown", queue.size());
+            }
+        }
+    }
+    
+    // Checks the same constraints the insert would, so that an acknowledged entry only fails on database errors
+    private void validate(Subject subject, PerformanceDTO dto) {
+        Set<ConstraintViolation<PerformanceRecord>> violations = new HashSet<>();
+        violations.addAll(validator.validateValue(PerformanceRecord.class, "subject", subject));
+        violations.addAll(validator.validateValue(PerformanceRecord.class, "score", dto.getScore()));
+        violations.addAll(validator.validateValue(PerformanceRecord.class, "date", dto.getDate()));
+        violations.addAll(validator.validateValue(PerformanceRecord.class, "remarks", dto.getRemarks()));
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+    }
+    
+    private synchronized long nextSequence() {
+        if (nextSequence > reservedUpTo) {
+            long end = reserveBlock();
+            nextSequence = end - sequenceBlock + 1;
+            reservedUpTo = end;
+        }
+        return nextSequence++;
+    }
+    
+    // Another instance may reserve at the same time; the loser of the version check tries again
+    private long reserveBlock() {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return reserveTransaction.execute(status -> {
+                    SequenceAllocation allocation = sequenceRepository.findById(SEQUENCE)
+                            .orElseGet(() -> new SequenceAllocation(SEQUENCE, 0));
+                    allocation.setReservedUpTo(allocation.getReservedUpTo() + sequenceBlock);
+                    return sequenceRepository.saveAndFlush(allocation).getReservedUpTo();
+                });
+            } catch (ObjectOptimisticLockingFailureException | DataIntegrityViolationException e) {
+                if (attempt == MAX_RESERVE_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+    
+    private void flushLoop() {
+        List<PendingEntry> batch = new ArrayList<>(batchSize);
+        while (true) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                accepting = false;
+            }
+            if (batch.isEmpty()) {
+                if (!accepting && queue.isEmpty()) {
+                    return;
+                }
+                continue;
+            }
+            write(batch);
+            batch.clear();
+        }
+    }
+    
+    /**
+     * Wait briefly for a first entry, then gather more until the batch is full or the flush interval has passed
+     * since the first one arrived. Once shutdown has begun, only what is already queued is taken.
+     */
+    private void collect(List<PendingEntry> batch) throws InterruptedException {
+        if (!accepting) {
+            queue.drainTo(batch, batchSize);
+            return;
+        }
+        // Polled rather than taken, so that a shutdown is noticed without interrupting a write
+        PendingEntry first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < batchSize && accepting) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                break;
+            }
+            // Waits in slices, so that a shutdown does not sit out a long flush interval
+            long wait = Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(IDLE_POLL_MILLIS));
+            PendingEntry next = queue.poll(wait, TimeUnit.NANOSECONDS);
+            if (next != null) {
+                batch.add(next);
+            }
+        }
+    }
+    
+    private void write(List<PendingEntry> batch) {
+        batch.stream()
+                .collect(Collectors.groupingBy(entry -> shardRouter.shardOfStudent(entry.studentId()), TreeMap::new,
+                        Collectors.toList()))
+                .forEach(this::write);
+    }
+    
+    private void write(int shard, List<PendingEntry> batch) {
+        try {
+            insert(shard, batch);
+            batch.forEach(entry -> pending.remove(entry.sequence()));
+        } catch (Exception e) {
+            // One bad entry must not take the rest of its batch with it, so fall back to one transaction each
+            log.warn("Write-behind batch of {} failed, retrying entries one by one", batch.size(), e);
+            for (PendingEntry entry : batch) {
+                try {
+                    insert(shard, List.of(entry));
+                } catch (Exception entryFailure) {
+                    log.error("Performance entry {} failed", entry.sequence(), entryFailure);
+                    failures.put(entry.sequence(), String.valueOf(entryFailure.getMessage()));
+                }
+                pending.remove(entry.sequence());
+            }
+        }
+    }
+    
+    private void insert(int shard, List<PendingEntry> entries) {
+        shardRouter.onShard(shard, false, () -> {
+            insert(entries);
+            return null;
+        });
+    }
+    
+    private void insert(List<PendingEntry> entries) {
+        List<PerformanceRecord> records = new ArrayList<>(entries.size());
+        for (PendingEntry entry : entries) {
+            PerformanceRecord record = new PerformanceRecord();
+            record.setStudent(studentRepository.getReferenceById(entry.studentId()));
+            record.setSubject(entry.subject());
+            record.setScore(entry.score());
+            record.setDate(entry.date());
+            record.setRemarks(entry.remarks());
+            record.setEntrySequence(entry.sequence());
+            records.add(record);
+        }
+        performanceRepository.saveAll(records);
+        performanceRepository.flush();
+        // Listeners run after commit, as for records created one at a time
+        for (PerformanceRecord record : records) {
+            eventPublisher.publishEvent(new PerformanceChangedEvent(null, new PerformanceSnapshot(
+                    record.getId(),
+                    record.getStudent().getId(),
+                    record.getSubject().getId(),
+                    record.getScore(),
+                    record.getDate()
+            )));
+        }
+    }
+    
+    private record PendingEntry(long sequence, long studentId, Subject subject, Double score, LocalDate date,
+                                String remarks) {
+    }
+}
@@ -1,99 +1,520 @@
 package com.example.studentmonitor.service.impl;
 
+import com.example.studentmonitor.analytics.PerformanceChangedEvent;
+import com.example.studentmonitor.analytics.PerformanceSnapshot;
 import com.example.studentmonitor.dto.PerformanceDTO;
+import com.example.studentmonitor.dto.PerformanceSearchResultDTO;
+import com.example.studentmonitor.dto.TextSearchResultDTO;
+import com.example.studentmonitor.dto.TimelineBucketDTO;
 import com.example.studentmonitor.exception.ResourceNotFoundException;
+import com.example.studentmonitor.exception.VersionConflictException;
 import com.example.studentmonitor.model.PerformanceRecord;
 import com.example.studentmonitor.model.Student;
+import com.example.studentmonitor.model.Subject;
+import com.example.studentmonitor.repository.PerformanceFilter;
 import com.example.studentmonitor.repository.PerformanceRepository;
+import com.example.studentmonitor.repository.RiskAssessmentRepository;
 import com.example.studentmonitor.repository.StudentRepository;
+import com.example.studentmonitor.search.RemarksSearchIndex;
 import com.example.studentmonitor.service.PerformanceService;
+import com.example.studentmonitor.service.SubjectService;
+import com.example.studentmonitor.sharding.ShardRouter;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.YearMonth;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class PerformanceServiceImpl implements PerformanceService {
     
+    // Bounds used for an open end of a timeline range
+    private static final LocalDate TIMELINE_START = LocalDate.of(1, 1, 1);
+    private static final LocalDate TIMELINE_END = LocalDate.of(9999, 12, 31);
+    private static final int MAX_SEARCH_LIMIT = 500;
+    // Deep pages cost a ranking of everything before them
+    private static final int MAX_TEXT_SEARCH_WINDOW = 10_000;
+    // The order of search pages, newest first with undated records last
+    private static final Comparator<PerformanceRecord> SEARCH_ORDER = Comparator
+            .comparing(PerformanceRecord::getDate, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(PerformanceRecord::getId, Comparator.reverseOrder());
+    
     private final PerformanceRepository performanceRepository;
     private final StudentRepository studentRepository;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SubjectService subjectService;
+    private final RiskAssessmentRepository riskAssessmentRepository;
+    private final RemarksSearchIndex remarksSearchIndex;
+    private final ShardRouter shardRouter;
     
-    public PerformanceServiceImpl(PerformanceRepository performanceRepository, StudentRepository studentRepository) {
+    public PerformanceServiceImpl(PerformanceRepository performanceRepository, StudentRepository studentRepository,
+                                  Validator validator, ApplicationEventPublisher eventPublisher,
+                                  SubjectService subjectService,
+                                  RiskAssessmentRepository riskAssessmentRepository,
+                                  RemarksSearchIndex remarksSearchIndex, ShardRouter shardRouter) {
         this.performanceRepository = performanceRepository;
         this.studentRepository = studentRepository;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.subjectService = subjectService;
+        this.riskAssessmentRepository = riskAssessmentRepository;
+        this.remarksSearchIndex = remarksSearchIndex;
+        this.shardRouter = shardRouter;
     }
     
     @Override
     public PerformanceDTO createPerformance(Long studentId, PerformanceDTO dto) {
-        Student student = studentRepository.findById(studentId)
-                .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + studentId));
-        
         PerformanceRecord performance = mapToEntity(dto);
-        performance.setStudent(student);
         
-        PerformanceRecord savedPerformance = performanceRepository.save(performance);
+        PerformanceRecord savedPerformance = shardRouter.onShard(shardRouter.shardOfStudent(studentId), false, () -> {
+            Student student = studentRepository.findById(studentId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + studentId));
+            performance.setStudent(student);
+            
+            PerformanceRecord saved = performanceRepository.save(performance);
+            eventPublisher.publishEvent(new PerformanceChangedEvent(null, snapshotOf(saved)));
+            return saved;
+        });
         return mapToDto(savedPerformance);
     }
     
     @Override
     public List<PerformanceDTO> getByStudent(Long studentId) {
-        // Verify student exists
-        studentRepository.findById(studentId)
-                .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + studentId));
-        
-        List<PerformanceRecord> performances = performanceRepository.findByStudentId(studentId);
+        List<PerformanceRecord> performances = shardRouter.onShard(shardRouter.shardOfStudent(studentId), true, () -> {
+            // Verify student exists
+            studentRepository.findById(studentId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + studentId));
+            
+            return performanceRepository.findByStudentId(studentId);
+        });
+        return performances.stream()
+                .map(this::mapToDto)
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    public List<PerformanceDTO> getByStudents(Collection<Long> studentIds) {
+        List<PerformanceRecord> performances = shardRouter.onShardsOf(studentIds, shardRouter::shardOfStudent, true,
+                performanceRepository::findByStudentIdIn);
         return performances.stream()
                 .map(this::mapToDto)
                 .collect(Collectors.toList());
     }
     
+    @Override
+    public PerformanceSearchResultDTO searchPerformances(String subject, Long studentId, Double minScore, Double maxScore,
+                                                         LocalDate from, LocalDate to, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+        if (minScore != null && maxScore != null && minScore > maxScore) {
+            throw new IllegalArgumentException("'minScore' must not be greater than 'maxScore'");
+        }
+        if (from != null && to != null) {
+            validateRange(from, to);
+        }
+        Integer subjectId = null;
+        if (subject != null) {
+            Optional<Integer> id = subjectService.findId(subject.trim());
+            if (id.isEmpty()) {
+                return new PerformanceSearchResultDTO(List.of(), null);
+            }
+            subjectId = id.get();
+        }
+        
+        LocalDate afterDate = null;
+        Long afterId = null;
+        if (cursor != null) {
+            SearchCursor position = decodeCursor(cursor);
+            afterDate = position.date();
+            afterId = position.id();
+        }
+        
+        // One extra row tells whether another page exists without a count query
+        PerformanceFilter filter = new PerformanceFilter(studentId, subjectId, minScore, maxScore, from, to);
+        LocalDate keyDate = afterDate;
+        Long keyId = afterId;
+        List<PerformanceRecord> page;
+        if (studentId != null) {
+            page = shardRouter.onShard(shardRouter.shardOfStudent(studentId), true,
+                    () -> performanceRepository.search(filter, keyDate, keyId, limit + 1));
+        } else {
+            // Each shard's page after the key holds every row of the merged page that lives there
+            page = shardRouter.onEveryShard(true, shard -> performanceRepository.search(filter, keyDate, keyId, limit + 1))
+                    .stream()
+                    .flatMap(List::stream)
+                    .sorted(SEARCH_ORDER)
+                    .limit(limit + 1)
+                    .collect(Collectors.toList());
+        }
+        String nextCursor = null;
+        if (page.size() > limit) {
+            page = page.subList(0, limit);
+            PerformanceRecord last = page.get(limit - 1);
+            nextCursor = encodeCursor(last.getDate(), last.getId());
+        }
+        return new PerformanceSearchResultDTO(page.stream().map(this::mapToDto).collect(Collectors.toList()), nextCursor);
+    }
+    
+    @Override
+    public TextSearchResultDTO searchRemarks(String query, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Query must not be blank");
+        }
+        if (page < 0 || size < 1 || size > MAX_SEARCH_LIMIT) {
+            throw new IllegalArgumentException("Page must be at least 0 and size between 1 and " + MAX_SEARCH_LIMIT);
+        }
+        if ((long) (page + 1) * size > MAX_TEXT_SEARCH_WINDOW) {
+            throw new IllegalArgumentException("Only the first " + MAX_TEXT_SEARCH_WINDOW + " matches can be paged through");
+        }
+        
+        RemarksSearchIndex.Hits hits = remarksSearchIndex.search(query, page * size, size);
+        // Rows come from the database; a hit deleted since the last index refresh is dropped
+        Map<Long, PerformanceRecord> records = shardRouter.onShardsOf(hits.recordIds(), shardRouter::shardOfRecord, true,
+                        performanceRepository::findAllById).stream()
+                .collect(Collectors.toMap(PerformanceRecord::getId, Function.identity()));
+        List<PerformanceDTO> performances = hits.recordIds().stream()
+                .map(records::get)
+                .filter(Objects::nonNull)
+                .map(this::mapToDto)
+                .collect(Collectors.toList());
+        return new TextSearchResultDTO(hits.total(), page, size, performances);
+    }
+    
+    @Override
+    public List<TimelineBucketDTO> getTimeline(Long studentId, LocalDate from, LocalDate to, String bucket) {
+        boolean weekly = isWeekly(bucket);
+        LocalDate start = from != null ? from : TIMELINE_START;
+        LocalDate end = to != null ? to : TIMELINE_END;
+        validateRange(start, end);
+        List<PerformanceRepository.TimelineBucket> buckets = shardRouter.onShard(shardRouter.shardOfStudent(studentId), true, () -> {
+            if (!studentRepository.existsById(studentId)) {
+                throw new ResourceNotFoundException("Student not found with id: " + studentId);
+            }
+            return weekly
+                    ? performanceRepository.findWeeklyTimelineByStudentId(studentId, start, end)
+                    : performanceRepository.findMonthlyTimelineByStudentId(studentId, start, end);
+        });
+        return mapTimeline(buckets, weekly);
+    }
+    
+    @Override
+    public List<TimelineBucketDTO> getClassTimeline(LocalDate from, LocalDate to, String bucket) {
+        boolean weekly = isWeekly(bucket);
+        LocalDate start = from != null ? from : TIMELINE_START;
+        LocalDate end = to != null ? to : TIMELINE_END;
+        validateRange(start, end);
+        List<List<PerformanceRepository.TimelineBucket>> buckets = shardRouter.onEveryShard(true, shard -> weekly
+                ? performanceRepository.findWeeklyTimeline(start, end)
+                : performanceRepository.findMonthlyTimeline(start, end));
+        return mapTimeline(buckets.size() == 1 ? buckets.get(0) : mergeTimelines(buckets), weekly);
+    }
+    
     @Override
     public PerformanceDTO getPerformance(Long id) {
-        PerformanceRecord performance = performanceRepository.findById(id)
+        PerformanceRecord performance = shardRouter.onShard(shardRouter.shardOfRecord(id), true, () -> performanceRepository.findById(id))
                 .orElseThrow(() -> new ResourceNotFoundException("Performance record not found with id: " + id));
         return mapToDto(performance);
     }
     
     @Override
-    public PerformanceDTO updatePerformance(Long id, PerformanceDTO dto) {
-        PerformanceRecord existingPerformance = performanceRepository.findById(id)
+    public long getPerformanceVersion(Long id) {
+        return shardRouter.onShard(shardRouter.shardOfRecord(id), true, () -> performanceRepository.findVersionById(id))
                 .orElseThrow(() -> new ResourceNotFoundException("Performance record not found with id: " + id));
-        
-        existingPerformance.setSubject(dto.getSubject());
-        existingPerformance.setScore(dto.getScore());
-        existingPerformance.setDate(dto.getDate());
-        existingPerformance.setRemarks(dto.getRemarks());
-        
-        PerformanceRecord updatedPerformance = performanceRepository.save(existingPerformance);
+    }
+    
+    @Override
+    public String getStudentPerformancesTag(Long studentId) {
+        PerformanceRepository.RecordSetVersion version = shardRouter.onShard(shardRouter.shardOfStudent(studentId), true,
+                        () -> performanceRepository.findRecordSetVersionByStudentId(studentId))
+                .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + studentId));
+        return formatTag(version.getCount(), version.getIdSum(), version.getVersionSum());
+    }
+    
+    @Override
+    public String computePerformancesTag(List<PerformanceDTO> performances) {
+        long idSum = 0;
+        long versionSum = 0;
+        for (PerformanceDTO performance : performances) {
+            idSum += performance.getId();
+            versionSum += performance.getVersion();
+        }
+        return formatTag(performances.size(), idSum, versionSum);
+    }
+    
+    // Ids only grow, so any insert or delete moves the count or id sum, and any update moves the version sum
+    private String formatTag(long count, long idSum, long versionSum) {
+        return count + "-" + idSum + "-" + versionSum;
+    }
+    
+    @Override
+    public PerformanceDTO updatePerformance(Long id, PerformanceDTO dto) {
+        Subject subject = resolveSubject(dto.getSubject());
+        PerformanceRecord updatedPerformance = shardRouter.onShard(shardRouter.shardOfRecord(id), false, () -> {
+            PerformanceRecord existingPerformance = performanceRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Performance record not found with id: " + id));
+            PerformanceSnapshot before = snapshotOf(existingPerformance);
+            
+            existingPerformance.setSubject(subject);
+            existingPerformance.setScore(dto.getScore());
+            existingPerformance.setDate(dto.getDate());
+            existingPerformance.setRemarks(dto.getRemarks());
+            
+            PerformanceRecord updated = performanceRepository.save(existingPerformance);
+            eventPublisher.publishEvent(new PerformanceChangedEvent(before, snapshotOf(updated)));
+            return updated;
+        });
         return mapToDto(updatedPerformance);
     }
     
+    @Override
+    public long patchPerformance(Long id, PerformanceDTO dto) {
+        if (dto.getVersion() == null) {
+            throw new IllegalArgumentException("Version is required to patch a performance record");
+        }
+        validatePatch(dto);
+        Integer subjectId = dto.getSubject() != null ? subjectService.resolve(dto.getSubject()).getId() : null;
+        
+        shardRouter.onShard(shardRouter.shardOfRecord(id), false, () -> {
+            PerformanceSnapshot before = currentSnapshot(id);
+            
+            int updated = performanceRepository.patchById(id, dto.getVersion(),
+                    subjectId, dto.getScore(), dto.getDate(), dto.getRemarks());
+            if (updated == 0) {
+                throw missingOrConflict(id);
+            }
+            
+            PerformanceSnapshot after = new PerformanceSnapshot(id, before.studentId(),
+                    subjectId != null ? subjectId : before.subjectId(),
+                    dto.getScore() != null ? dto.getScore() : before.score(),
+                    dto.getDate() != null ? dto.getDate() : before.date());
+            eventPublisher.publishEvent(new PerformanceChangedEvent(before, after));
+            return updated;
+        });
+        return dto.getVersion() + 1;
+    }
+    
     @Override
     public void deletePerformance(Long id) {
-        PerformanceRecord performance = performanceRepository.findById(id)
+        deletePerformance(id, null);
+    }
+    
+    @Override
+    public void deletePerformance(Long id, Long expectedVersion) {
+        shardRouter.onShard(shardRouter.shardOfRecord(id), false, () -> {
+            PerformanceSnapshot before = currentSnapshot(id);
+            int deleted = performanceRepository.deleteByIdAndVersion(id, expectedVersion);
+            if (deleted == 0) {
+                throw missingOrConflict(id);
+            }
+            // A deleted row cannot advance the risk job's change watermark; assessments live on the global shard
+            shardRouter.onShard(ShardRouter.GLOBAL_SHARD, false,
+                    () -> riskAssessmentRepository.markStale(before.studentId()));
+            eventPublisher.publishEvent(new PerformanceChangedEvent(before, null));
+            return deleted;
+        });
+    }
+    
+    private static boolean isWeekly(String bucket) {
+        return switch (bucket) {
+            case "week" -> true;
+            case "month" -> false;
+            default -> throw new IllegalArgumentException("Bucket must be 'week' or 'month'");
+        };
+    }
+    
+    private static String encodeCursor(LocalDate date, Long id) {
+        String position = (date != null ? date.toString() : "") + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static SearchCursor decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.indexOf(':');
+            String date = position.substring(0, separator);
+            return new SearchCursor(date.isEmpty() ? null : LocalDate.parse(date), Long.valueOf(position.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid search cursor");
+        }
+    }
+    
+    private static void validateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+    }
+    
+    // Bucket numbers come back from the database; periods are rebuilt from them here
+    private static List<TimelineBucketDTO> mapTimeline(List<PerformanceRepository.TimelineBucket> buckets, boolean weekly) {
+        return buckets.stream()
+                .map(bucket -> {
+                    long number = bucket.getBucket().longValue();
+                    LocalDate start;
+                    LocalDate end;
+                    if (weekly) {
+                        start = LocalDate.ofEpochDay(number * 7 - 3);
+                        end = start.plusDays(6);
+                    } else {
+                        YearMonth month = YearMonth.of((int) (number / 12), (int) (number % 12) + 1);
+                        start = month.atDay(1);
+                        end = month.atEndOfMonth();
+                    }
+                    return new TimelineBucketDTO(start, end, bucket.getCount(),
+                            bucket.getAverage() != null ? Math.round(bucket.getAverage() * 100.0) / 100.0 : null,
+                            bucket.getMinimum(), bucket.getMaximum());
+                })
+                .collect(Collectors.toList());
+    }
+    
+    // Counts and extremes add up directly; averages are weighted by each shard's count
+    private static List<PerformanceRepository.TimelineBucket> mergeTimelines(
+            List<List<PerformanceRepository.TimelineBucket>> shards) {
+        Map<Long, MergedBucket> merged = new TreeMap<>();
+        for (List<PerformanceRepository.TimelineBucket> buckets : shards) {
+            for (PerformanceRepository.TimelineBucket bucket : buckets) {
+                merged.merge(bucket.getBucket().longValue(), MergedBucket.of(bucket), MergedBucket::combine);
+            }
+        }
+        return List.copyOf(merged.values());
+    }
+    
+    // Read under a row lock in the write transaction: the in-memory store is only updated after commit, so it can
+    // still hold an image that a committed write has already replaced
+    private PerformanceSnapshot currentSnapshot(Long id) {
+        return performanceRepository.lockSnapshotById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Performance record not found with id: " + id));
-        performanceRepository.delete(performance);
+    }
+    
+    // Only reached when a targeted statement touched no rows
+    private RuntimeException missingOrConflict(Long id) {
+        if (performanceRepository.existsById(id)) {
+            return new VersionConflictException("Performance record with id " + id + " was modified concurrently");
+        }
+        return new ResourceNotFoundException("Performance record not found with id: " + id);
+    }
+    
+    // Bulk updates bypass entity validation, so check the supplied fields against the entity constraints
+    private void validatePatch(PerformanceDTO dto) {
+        // Subject names are checked when they are resolved against the dictionary
+        Set<ConstraintViolation<PerformanceRecord>> violations = new HashSet<>();
+        if (dto.getScore() != null) {
+            violations.addAll(validator.validateValue(PerformanceRecord.class, "score", dto.getScore()));
+        }
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
     }
     
     // Manual mapping methods
+    // The subject reference is never initialized; only its id is read and the name comes from the dictionary
     private PerformanceDTO mapToDto(PerformanceRecord performance) {
+        Integer subjectId = performance.getSubject() != null ? performance.getSubject().getId() : null;
         return new PerformanceDTO(
                 performance.getId(),
-                performance.getSubject(),
+                subjectId != null ? subjectService.getName(subjectId) : null,
+                subjectId,
                 performance.getScore(),
                 performance.getDate(),
                 performance.getRemarks(),
-                performance.getStudent() != null ? performance.getStudent().getId() : null
+                performance.getStudent() != null ? performance.getStudent().getId() : null,
+                performance.getVersion()
+        );
+    }
+    
+    private PerformanceSnapshot snapshotOf(PerformanceRecord performance) {
+        return new PerformanceSnapshot(
+                performance.getId(),
+                performance.getStudent().getId(),
+                performance.getSubject().getId(),
+                performance.getScore(),
+                performance.getDate()
         );
     }
     
     private PerformanceRecord mapToEntity(PerformanceDTO dto) {
         PerformanceRecord performance = new PerformanceRecord();
         performance.setId(dto.getId());
-        performance.setSubject(dto.getSubject());
+        performance.setSubject(resolveSubject(dto.getSubject()));
         performance.setScore(dto.getScore());
         performance.setDate(dto.getDate());
         performance.setRemarks(dto.getRemarks());
         return performance;
     }
-}
\ No newline at end of file
+    
+    // A missing name is left to the entity's own not-null constraint
+    private Subject resolveSubject(String name) {
+        return name != null ? subjectService.resolve(name) : null;
+    }
+    
+    private record SearchCursor(LocalDate date, Long id) {
+    }
+    
+    private record MergedBucket(Long bucket, long count, Double average, Double minimum, Double maximum)
+            implements PerformanceRepository.TimelineBucket {
+        
+        static MergedBucket of(PerformanceRepository.TimelineBucket bucket) {
+            return new MergedBucket(bucket.getBucket().longValue(), bucket.getCount(), bucket.getAverage(),
+                    bucket.getMinimum(), bucket.getMaximum());
+        }
+        
+        MergedBucket combine(MergedBucket other) {
+            long total = count + other.count;
+            Double mergedAverage = average == null ? other.average
+                    : other.average == null ? average
+                    : (average * count + other.average * other.count) / total;
+            return new MergedBucket(bucket, total, mergedAverage, min(minimum, other.minimum), max(maximum, other.maximum));
+        }
+        
+        private static Double min(Double a, Double b) {
+            return a == null ? b : b == null ? a : Math.min(a, b);
+        }
+        
+        private static Double max(Double a, Double b) {
+            return a == null ? b : b == null ? a : Math.max(a, b);
+        }
+        
+        @Override
+        public Number getBucket() {
+            return bucket;
+        }
+        
+        @Override
+        public long getCount() {
+            return count;
+        }
+        
+        @Override
+        public Double getAverage() {
+            return average;
+        }
+        
+        @Override
+        public Double getMinimum() {
+            return minimum;
+        }
+        
+        @Override
+        public Double getMaximum() {
+            return maximum;
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package com.example.studentmonitor.service.impl;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.studentmonitor.dto.PerformanceDTO;
+import com.example.studentmonitor.dto.ReportJobDTO;
+import com.example.studentmonitor.dto.StudentDTO;
+import com.example.studentmonitor.exception.ReportNotReadyException;
+import com.example.studentmonitor.exception.ResourceNotFoundException;
+import com.example.studentmonitor.model.PerformanceRecord;
+import com.example.studentmonitor.model.ReportJob;
+import com.example.studentmonitor.model.ReportStatus;
+import com.example.studentmonitor.repository.ReportJobRepository;
+import com.example.studentmonitor.service.PerformanceService;
+import com.example.studentmonitor.service.ReportService;
+import com.example.studentmonitor.service.StudentService;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Class report cards generated off the request thread. Submitted jobs are rows in QUEUED state, which makes the
+ * queue survive restarts; a fixed pool of workers claims them with a conditional update, so a job runs once
+ * however many dispatchers race for it. A worker that finishes a job claims the next queued one itself, and a
+ * poller covers jobs that found every worker busy. Students are read in keyset pages of app.reports.chunk-size
+ * and the CSV is written to a temporary file that is renamed into place only once it is complete. A job cut short
+ * by shutdown, wherever the interrupt lands, is left RUNNING so that the next start requeues it.
+ */
+@Service
+public class ReportServiceImpl implements ReportService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ReportServiceImpl.class);
+    
+    private static final String HEADER = "student_id,first_name,last_name,email,subject,records,average,min,max,latest_date";
+    private static final String ALL_SUBJECTS = "ALL";
+    private static final String LINE_END = "\r\n";
+    // How long shutdown waits for interrupted workers to put their jobs down before the datasource closes
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+    
+    private final ReportJobRepository reportJobRepository;
+    private final StudentService studentService;
+    private final PerformanceService performanceService;
+    private final Path directory;
+    private final int workers;
+    private final int chunkSize;
+    private final ThreadPoolExecutor executor;
+    
+    public ReportServiceImpl(ReportJobRepository reportJobRepository, StudentService studentService,
+                             PerformanceService performanceService,
+                             @Value("${app.reports.directory:${java.io.tmpdir}/student-monitor-reports}") String directory,
+                             @Value("${app.reports.workers:2}") int workers,
+                             @Value("${app.reports.chunk-size:500}") int chunkSize) throws IOException {
+        this.reportJobRepository = reportJobRepository;
+        this.studentService = studentService;
+        this.performanceService = performanceService;
+        this.directory = Files.createDirectories(Path.of(directory));
+        this.workers = workers;
+        this.chunkSize = chunkSize;
+    
+        // No internal queue: a job either gets an idle worker now or stays queued in the database
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS, new SynchronousQueue<>(),
+                runnable -> new Thread(runnable, "report-worker-" + threads.incrementAndGet()));
+    }
+    
+    @Override
+    public ReportJobDTO submitReport(String requestedBy) {
+        ReportJob job = reportJobRepository.save(new ReportJob(requestedBy, PerformanceRecord.now()));
+        dispatch(job.getId());
+        return mapToDto(job);
+    }
+    
+    @Override
+    public ReportJobDTO getReport(Long id) {
+        return mapToDto(findJob(id));
+    }
+    
+    @Override
+    public Resource getReportFile(Long id) {
+        ReportJob job = findJob(id);
+        if (job.getStatus() != ReportStatus.COMPLETED) {
+            throw new ReportNotReadyException("Report " + id + " is " + job.getStatus().name().toLowerCase());
+        }
+        Path file = directory.resolve(job.getFileName());
+        if (!Files.isReadable(file)) {
+            throw new ResourceNotFoundException("Report file is no longer available for report: " + id);
+        }
+        return new FileSystemResource(file);
+    }
+    
+    /**
+     * Single-instance recovery: jobs left RUNNING were interrupted by the previous shutdown
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        int requeued = reportJobRepository.requeueRunning();
+        if (requeued > 0) {
+            log.info("Requeued {} interrupted report jobs", requeued);
+        }
+        dispatchQueued();
+    }
+    
+    @Scheduled(fixedDelayString = "${app.reports.poll-interval:PT10S}")
+    public void dispatchQueued() {
+        for (Long id : reportJobRepository.findQueuedIds(PageRequest.of(0, workers))) {
+            if (!dispatch(id)) {
+                break;
+            }
+        }
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Report workers still running after {}", SHUTDOWN_TIMEOUT);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private boolean dispatch(Long jobId) {
+        try {
+            executor.execute(() -> work(jobId));
+            return true;
+        } catch (RejectedExecutionException e) {
+            // Every worker is busy; the job stays queued until one frees up
+            return false;
+        }
+    }
+    
+    private void work(Long firstJobId) {
+        Long jobId = firstJobId;
+        while (jobId != null && !Thread.currentThread().isInterrupted()) {
+            generate(jobId);
+            List<Long> next = reportJobRepository.findQueuedIds(PageRequest.of(0, 1));
+            jobId = next.isEmpty() ? null : next.get(0);
+        }
+    }
+    
+    private void generate(Long jobId) {
+        long total = studentService.countStudents();
+        if (reportJobRepository.claim(jobId, total, PerformanceRecord.now()) == 0) {
+            return;
+        }
+        String fileName = "report-" + jobId + ".csv";
+        Path partial = directory.resolve(fileName + ".part");
+        try {
+            boolean complete = writeReport(jobId, partial);
+            if (!complete) {
+                // Interrupted by shutdown; left RUNNING so that the next start requeues it
+                deletePartial(partial);
+                return;
+            }
+            Files.move(partial, directory.resolve(fileName), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            reportJobRepository.finish(jobId, ReportStatus.COMPLETED, fileName, null, PerformanceRecord.now());
+            log.info("Report {} completed", jobId);
+        } catch (Exception e) {
+            deletePartial(partial);
+            if (interruptedBy(e)) {
+                // A file write or query cut short by shutdown, not a broken report; left RUNNING like above
+                log.info("Report {} interrupted by shutdown", jobId);
+                return;
+            }
+            log.error("Report {} failed", jobId, e);
+            reportJobRepository.finish(jobId, ReportStatus.FAILED, null, truncate(e.getMessage()), PerformanceRecord.now());
+        }
+    }
+    
+    private static boolean interruptedBy(Exception e) {
+        if (Thread.currentThread().isInterrupted()) {
+            return true;
+        }
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ClosedByInterruptException || cause instanceof InterruptedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static void deletePartial(Path partial) {
+        try {
+            Files.deleteIfExists(partial);
+        } catch (IOException ignored) {
+            // Nothing more to clean up
+        }
+    }
+    
+    private boolean writeReport(Long jobId, Path file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.write(LINE_END);
+    
+            long afterId = 0;
+            long processed = 0;
+            while (true) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return false;
+                }
+                List<StudentDTO> students = studentService.getStudentsAfter(afterId, chunkSize);
+                if (students.isEmpty()) {
+                    break;
+                }
+                Map<Long, List<PerformanceDTO>> performances = performanceService.getByStudents(
+                                students.stream().map(StudentDTO::getId).collect(Collectors.toList()))
+                        .stream()
+                        .collect(Collectors.groupingBy(PerformanceDTO::getStudentId));
+                for (StudentDTO student : students) {
+                    writeStudent(writer, student, performances.getOrDefault(student.getId(), List.of()));
+                }
+    
+                processed += students.size();
+                afterId = students.get(students.size() - 1).getId();
+                reportJobRepository.updateProgress(jobId, processed);
+                if (students.size() < chunkSize) {
+                    break;
+                }
+            }
+        }
+        return true;
+    }
+    
+    // One overall row per student followed by one row per subject in name order
+    private void writeStudent(Writer writer, StudentDTO student, List<PerformanceDTO> performances) throws IOException {
+        writeRow(writer, student, ALL_SUBJECTS, performances);
+        Map<String, List<PerformanceDTO>> bySubject = performances.stream()
+                .collect(Collectors.groupingBy(PerformanceDTO::getSubject, TreeMap::new, Collectors.toList()));
+        for (Map.Entry<String, List<PerformanceDTO>> subject : bySubject.entrySet()) {
+            writeRow(writer, student, subject.getKey(), subject.getValue());
+        }
+    }
+    
+    private void writeRow(Writer writer, StudentDTO student, String subject, List<PerformanceDTO> performances) throws IOException {
+        DoubleSummaryStatistics scores = performances.stream()
+                .filter(performance -> performance.getScore() != null)
+                .mapToDouble(PerformanceDTO::getScore)
+                .summaryStatistics();
+        LocalDate latest = performances.stream()
+                .map(PerformanceDTO::getDate)
+                .filter(date -> date != null)
+                .max(LocalDate::compareTo)
+                .orElse(null);
+        boolean scored = scores.getCount() > 0;
+    
+        writer.write(String.join(",",
+                String.valueOf(student.getId()),
+                csv(student.getFirstName()),
+                csv(student.getLastName()),
+                csv(student.getEmail()),
+                csv(subject),
+                String.valueOf(performances.size()),
+                scored ? String.valueOf(Math.round(scores.getAverage() * 100.0) / 100.0) : "",
+                scored ? String.valueOf(scores.getMin()) : "",
+                scored ? String.valueOf(scores.getMax()) : "",
+                latest != null ? latest.toString() : ""));
+        writer.write(LINE_END);
+    }
+    
+    // Quotes fields that need it and defuses values a spreadsheet would read as a formula
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        String field = value;
+        if (!field.isEmpty() && "=+-@".indexOf(field.charAt(0)) >= 0) {
+            field = "'" + field;
+        }
+        if (field.contains(",") || field.contains("\"") || field.contains("\n") || field.contains("\r")) {
+            field = "\"" + field.replace("\"", "\"\"") + "\"";
+        }
+        return field;
+    }
+    
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+    
+    private ReportJob findJob(Long id) {
+        return reportJobRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Report not found with id: " + id));
+    }
+    
+    private ReportJobDTO mapToDto(ReportJob job) {
+        Long total = job.getTotalStudents();
+        double progress;
+        if (job.getStatus() == ReportStatus.COMPLETED) {
+            progress = 100.0;
+        } else if (total == null || total == 0) {
+            progress = 0.0;
+        } else {
+            progress = Math.min(100.0, Math.round(job.getProcessedStudents() * 1000.0 / total) / 10.0);
+        }
+        return new ReportJobDTO(
+                job.getId(),
+                job.getStatus().name(),
+                job.getRequestedBy(),
+                total,
+                job.getProcessedStudents(),
+                progress,
+                job.getCreatedAt(),
+                job.getStartedAt(),
+                job.getFinishedAt(),
+                job.getErrorMessage(),
+                job.getStatus() == ReportStatus.COMPLETED ? "/api/reports/" + job.getId() + "/download" : null
+        );
+    }
+}
@@ -0,0 +1,291 @@
+package com.example.studentmonitor.service.impl;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.studentmonitor.analytics.PerformanceSnapshot;
+import com.example.studentmonitor.dto.RiskAssessmentDTO;
+import com.example.studentmonitor.dto.RiskScanResultDTO;
+import com.example.studentmonitor.exception.ResourceNotFoundException;
+import com.example.studentmonitor.model.JobWatermark;
+import com.example.studentmonitor.model.PerformanceRecord;
+import com.example.studentmonitor.model.RiskAssessment;
+import com.example.studentmonitor.model.Student;
+import com.example.studentmonitor.repository.JobWatermarkRepository;
+import com.example.studentmonitor.repository.PerformanceRepository;
+import com.example.studentmonitor.repository.RiskAssessmentRepository;
+import com.example.studentmonitor.repository.StudentRepository;
+import com.example.studentmonitor.service.RiskAssessmentService;
+import com.example.studentmonitor.sharding.ShardRouter;
+
+/**
+ * Incremental at-risk detection. Each batch reads the records changed past a persisted (updatedAt, id) watermark,
+ * re-evaluates only the students they belong to, and advances the watermark in the same transaction, so a crash
+ * repeats at most one batch. Deletes cannot move the watermark and instead mark the student's assessment stale.
+ * When sharded, the watermark is shared and each batch is the first changes past it over all shards.
+ * Never lazily initialized, so the scheduled scan runs without waiting for a first request.
+ */
+@Service
+@Lazy(false)
+public class RiskAssessmentServiceImpl implements RiskAssessmentService {
+    
+    private static final Logger log = LoggerFactory.getLogger(RiskAssessmentServiceImpl.class);
+    
+    private static final String WATERMARK = "risk-assessment";
+    
+    private final PerformanceRepository performanceRepository;
+    private final RiskAssessmentRepository riskAssessmentRepository;
+    private final JobWatermarkRepository watermarkRepository;
+    private final StudentRepository studentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    
+    @Value("${app.at-risk.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${app.at-risk.max-batches:20}")
+    private int maxBatches;
+    
+    // Rows newer than this may still belong to open transactions that would commit behind the watermark
+    @Value("${app.at-risk.commit-lag:PT1M}")
+    private Duration commitLag;
+    
+    @Value("${app.at-risk.average-threshold:50}")
+    private double averageThreshold;
+    
+    @Value("${app.at-risk.drop-threshold:15}")
+    private double dropThreshold;
+    
+    @Value("${app.at-risk.inactivity-days:90}")
+    private int inactivityDays;
+    
+    public RiskAssessmentServiceImpl(PerformanceRepository performanceRepository,
+                                     RiskAssessmentRepository riskAssessmentRepository,
+                                     JobWatermarkRepository watermarkRepository,
+                                     StudentRepository studentRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     ShardRouter shardRouter) {
+        this.performanceRepository = performanceRepository;
+        this.riskAssessmentRepository = riskAssessmentRepository;
+        this.watermarkRepository = watermarkRepository;
+        this.studentRepository = studentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardRouter = shardRouter;
+    }
+    
+    @Scheduled(fixedDelayString = "${app.at-risk.interval:PT5M}", initialDelayString = "${app.at-risk.initial-delay:PT1M}")
+    public void scheduledScan() {
+        RiskScanResultDTO result = runScan();
+        if (result.getStudentsEvaluated() > 0 || result.getNewlyMissingAssessments() > 0) {
+            log.info("Risk scan evaluated {} students in {} batches, {} newly missing assessments",
+                    result.getStudentsEvaluated(), result.getBatches(), result.getNewlyMissingAssessments());
+        }
+    }
+    
+    @Override
+    public synchronized RiskScanResultDTO runScan() {
+        Instant until = PerformanceRecord.now().minus(commitLag);
+        int batches = 0;
+        int evaluated = 0;
+        try {
+            while (batches < maxBatches) {
+                BatchResult batch = transactionTemplate.execute(status -> processBatch(until));
+                batches++;
+                evaluated += batch.evaluated();
+                if (!batch.full()) {
+                    break;
+                }
+            }
+        } catch (ObjectOptimisticLockingFailureException e) {
+            log.warn("Risk scan watermark was advanced concurrently; leaving this run to the other instance");
+        }
+    
+        LocalDate cutoff = LocalDate.now().minusDays(inactivityDays);
+        Integer newlyMissing = transactionTemplate.execute(status ->
+                riskAssessmentRepository.flagMissingAssessments(cutoff, PerformanceRecord.now()));
+        Instant watermark = watermarkRepository.findById(WATERMARK).map(JobWatermark::getPosition).orElse(null);
+        return new RiskScanResultDTO(batches, evaluated, newlyMissing, watermark);
+    }
+    
+    @Override
+    public List<RiskAssessmentDTO> getAtRiskStudents(String reason) {
+        List<RiskAssessment> assessments;
+        if (reason == null) {
+            assessments = riskAssessmentRepository.findByAtRiskTrueOrderByAverageScoreAsc();
+        } else {
+            assessments = switch (reason) {
+                case "low-average" -> riskAssessmentRepository.findByLowAverageTrueOrderByAverageScoreAsc();
+                case "sharp-drop" -> riskAssessmentRepository.findBySharpDropTrueOrderByAverageScoreAsc();
+                case "missing-assessments" -> riskAssessmentRepository.findByMissingAssessmentsTrueOrderByAverageScoreAsc();
+                default -> throw new IllegalArgumentException(
+                        "Reason must be 'low-average', 'sharp-drop' or 'missing-assessments'");
+            };
+        }
+        Map<Long, Student> students = shardRouter.onShardsOf(
+                        assessments.stream().map(RiskAssessment::getStudentId).collect(Collectors.toList()),
+                        shardRouter::shardOfStudent, true, studentRepository::findAllById)
+                .stream()
+                .collect(Collectors.toMap(Student::getId, Function.identity()));
+        return assessments.stream()
+                .map(assessment -> mapToDto(assessment, students.get(assessment.getStudentId())))
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    public RiskAssessmentDTO getAssessment(Long studentId) {
+        Student student = shardRouter.onShard(shardRouter.shardOfStudent(studentId), true,
+                        () -> studentRepository.findById(studentId))
+                .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + studentId));
+        RiskAssessment assessment = riskAssessmentRepository.findById(studentId)
+                .orElseThrow(() -> new ResourceNotFoundException("No risk assessment yet for student with id: " + studentId));
+        return mapToDto(assessment, student);
+    }
+    
+    private BatchResult processBatch(Instant until) {
+        JobWatermark watermark = watermarkRepository.findById(WATERMARK)
+                .orElseGet(() -> new JobWatermark(WATERMARK, Instant.EPOCH, 0L));
+        // Each shard's first changes past the watermark hold every change of the merged batch that lives there
+        List<PerformanceRepository.ChangeMarker> changes = shardRouter.onEveryShard(true,
+                        shard -> performanceRepository.findChangesAfter(
+                                watermark.getPosition(), watermark.getLastId(), until, PageRequest.of(0, batchSize)))
+                .stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparing(PerformanceRepository.ChangeMarker::getUpdatedAt)
+                        .thenComparing(PerformanceRepository.ChangeMarker::getId))
+                .limit(batchSize)
+                .collect(Collectors.toList());
+        List<Long> staleStudents = riskAssessmentRepository.findStaleStudentIds(PageRequest.of(0, batchSize));
+    
+        Set<Long> studentIds = new LinkedHashSet<>(staleStudents);
+        changes.forEach(change -> studentIds.add(change.getStudentId()));
+        if (!studentIds.isEmpty()) {
+            evaluate(studentIds);
+        }
+    
+        if (!changes.isEmpty()) {
+            PerformanceRepository.ChangeMarker last = changes.get(changes.size() - 1);
+            watermark.setPosition(last.getUpdatedAt());
+            watermark.setLastId(last.getId());
+            watermarkRepository.save(watermark);
+        }
+        return new BatchResult(studentIds.size(), changes.size() == batchSize || staleStudents.size() == batchSize);
+    }
+    
+    private void evaluate(Set<Long> studentIds) {
+        Map<Long, List<PerformanceSnapshot>> recordsByStudent = shardRouter.onShardsOf(studentIds,
+                        shardRouter::shardOfStudent, true, performanceRepository::findSnapshotsByStudentIdIn)
+                .stream()
+                .collect(Collectors.groupingBy(PerformanceSnapshot::studentId));
+        Map<Long, RiskAssessment> existing = riskAssessmentRepository.findAllById(studentIds).stream()
+                .collect(Collectors.toMap(RiskAssessment::getStudentId, Function.identity()));
+    
+        List<RiskAssessment> updated = new ArrayList<>();
+        List<Long> removed = new ArrayList<>();
+        for (Long studentId : studentIds) {
+            List<PerformanceSnapshot> records = recordsByStudent.get(studentId);
+            if (records == null) {
+                // Every record, or the student, is gone
+                removed.add(studentId);
+                continue;
+            }
+            RiskAssessment assessment = existing.getOrDefault(studentId, new RiskAssessment(studentId));
+            assess(assessment, records);
+            updated.add(assessment);
+        }
+        riskAssessmentRepository.saveAll(updated);
+        if (!removed.isEmpty()) {
+            riskAssessmentRepository.deleteAllByStudentIdIn(removed);
+        }
+    }
+    
+    private void assess(RiskAssessment assessment, List<PerformanceSnapshot> records) {
+        double average = records.stream()
+                .filter(record -> record.score() != null)
+                .mapToDouble(PerformanceSnapshot::score)
+                .average()
+                .orElse(Double.NaN);
+        LocalDate lastAssessment = records.stream()
+                .map(PerformanceSnapshot::date)
+                .filter(date -> date != null)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+    
+        // Compare each subject's latest score with the one before it
+        Map<Integer, List<PerformanceSnapshot>> bySubject = new HashMap<>();
+        for (PerformanceSnapshot record : records) {
+            if (record.score() != null && record.date() != null) {
+                bySubject.computeIfAbsent(record.subjectId(), subject -> new ArrayList<>()).add(record);
+            }
+        }
+        Double largestDrop = null;
+        for (List<PerformanceSnapshot> history : bySubject.values()) {
+            if (history.size() < 2) {
+                continue;
+            }
+            history.sort(Comparator.comparing(PerformanceSnapshot::date).thenComparingLong(PerformanceSnapshot::id));
+            double drop = history.get(history.size() - 2).score() - history.get(history.size() - 1).score();
+            if (largestDrop == null || drop > largestDrop) {
+                largestDrop = drop;
+            }
+        }
+    
+        assessment.setRecordCount(records.size());
+        assessment.setAverageScore(Double.isNaN(average) ? null : Math.round(average * 100.0) / 100.0);
+        assessment.setLargestDrop(largestDrop);
+        assessment.setLastAssessmentDate(lastAssessment);
+        assessment.setLowAverage(!Double.isNaN(average) && average < averageThreshold);
+        assessment.setSharpDrop(largestDrop != null && largestDrop >= dropThreshold);
+        assessment.setMissingAssessments(lastAssessment != null
+                && lastAssessment.isBefore(LocalDate.now().minusDays(inactivityDays)));
+        assessment.setAtRisk(assessment.isLowAverage() || assessment.isSharpDrop() || assessment.isMissingAssessments());
+        assessment.setStale(false);
+        assessment.setEvaluatedAt(PerformanceRecord.now());
+    }
+    
+    private RiskAssessmentDTO mapToDto(RiskAssessment assessment, Student student) {
+        List<String> reasons = new ArrayList<>();
+        if (assessment.isLowAverage()) {
+            reasons.add("low-average");
+        }
+        if (assessment.isSharpDrop()) {
+            reasons.add("sharp-drop");
+        }
+        if (assessment.isMissingAssessments()) {
+            reasons.add("missing-assessments");
+        }
+        return new RiskAssessmentDTO(
+                assessment.getStudentId(),
+                student != null ? student.getFirstName() + " " + student.getLastName() : null,
+                assessment.getRecordCount(),
+                assessment.getAverageScore(),
+                assessment.getLargestDrop(),
+                assessment.getLastAssessmentDate(),
+                reasons,
+                assessment.getEvaluatedAt()
+        );
+    }
+    
+    private record BatchResult(int evaluated, boolean full) {
+    }
+}
@@ -0,0 +1,386 @@
+package com.example.studentmonitor.service.impl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.studentmonitor.analytics.PerformanceIndexMaintainer;
+import com.example.studentmonitor.dto.SnapshotDTO;
+import com.example.studentmonitor.exception.ResourceNotFoundException;
+import com.example.studentmonitor.model.PerformanceRecord;
+import com.example.studentmonitor.repository.BulkLoadSupport;
+import com.example.studentmonitor.search.RemarksSearchIndex;
+import com.example.studentmonitor.service.SnapshotService;
+import com.example.studentmonitor.service.SubjectService;
+import com.example.studentmonitor.sharding.ShardRouter;
+import com.example.studentmonitor.snapshot.SnapshotFormat;
+import com.example.studentmonitor.snapshot.SnapshotReader;
+import com.example.studentmonitor.snapshot.SnapshotWriter;
+
+/**
+ * Binary snapshots of subjects, students, users and performance records for seeding dev and staging databases.
+ * Export streams each table through plain JDBC inside one repeatable-read transaction, so the file is a
+ * consistent cut. Restore replaces the four tables in one transaction with one JDBC batch per snapshot block,
+ * after dropping the secondary indexes on performance_record so they are built once over the loaded rows instead
+ * of being updated row by row. Identity counters are moved past the restored ids, and every in-memory structure
+ * derived from the tables is rebuilt. Risk assessments are cleared for the next scan to recompute, and
+ * write-behind entry sequences are not carried over. Snapshots work on a single database and are refused while
+ * sharding is enabled.
+ */
+@Service
+public class SnapshotServiceImpl implements SnapshotService {
+    
+    private static final Logger log = LoggerFactory.getLogger(SnapshotServiceImpl.class);
+    
+    private static final Pattern NAME = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]*\\.snap");
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmssSSS");
+    
+    // Children first
+    private static final String[] CLEAR_TABLES = {
+            "DELETE FROM risk_assessment",
+            "DELETE FROM job_watermark",
+            "DELETE FROM performance_record",
+            "DELETE FROM student",
+            "DELETE FROM subject",
+            "DELETE FROM users"
+    };
+    
+    private static final String SELECT_SUBJECTS = "SELECT id, name FROM subject ORDER BY id";
+    private static final String SELECT_STUDENTS =
+            "SELECT id, first_name, last_name, email, date_of_birth, version FROM student ORDER BY id";
+    private static final String SELECT_USERS =
+            "SELECT id, username, email, password, first_name, last_name, role, enabled, account_non_expired, "
+            + "account_non_locked, credentials_non_expired, created_at, updated_at FROM users ORDER BY id";
+    private static final String SELECT_PERFORMANCES =
+            "SELECT id, subject_id, student_id, score, date, remarks, version, updated_at FROM performance_record ORDER BY id";
+    
+    private static final String INSERT_SUBJECT = "INSERT INTO subject (id, name) VALUES (?, ?)";
+    private static final int[] SUBJECT_TYPES = {Types.INTEGER, Types.VARCHAR};
+    private static final String INSERT_STUDENT =
+            "INSERT INTO student (id, first_name, last_name, email, date_of_birth, version) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final int[] STUDENT_TYPES = {Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.DATE, Types.BIGINT};
+    private static final String INSERT_USER =
+            "INSERT INTO users (id, username, email, password, first_name, last_name, role, enabled, account_non_expired, "
+            + "account_non_locked, credentials_non_expired, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int[] USER_TYPES = {Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+            Types.VARCHAR, Types.VARCHAR, Types.BOOLEAN, Types.BOOLEAN, Types.BOOLEAN, Types.BOOLEAN, Types.TIMESTAMP,
+            Types.TIMESTAMP};
+    private static final String INSERT_PERFORMANCE =
+            "INSERT INTO performance_record (id, subject_id, student_id, score, date, remarks, version, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int[] PERFORMANCE_TYPES = {Types.BIGINT, Types.INTEGER, Types.BIGINT, Types.DOUBLE, Types.DATE,
+            Types.VARCHAR, Types.BIGINT, Types.TIMESTAMP_WITH_TIMEZONE};
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final BulkLoadSupport bulkLoadSupport;
+    private final TransactionTemplate exportTransaction;
+    private final TransactionTemplate restoreTransaction;
+    private final SubjectService subjectService;
+    private final PerformanceIndexMaintainer indexMaintainer;
+    private final RemarksSearchIndex remarksSearchIndex;
+    private final ShardRouter shardRouter;
+    private final Path directory;
+    
+    public SnapshotServiceImpl(DataSource dataSource, BulkLoadSupport bulkLoadSupport,
+                               PlatformTransactionManager transactionManager,
+                               SubjectService subjectService, PerformanceIndexMaintainer indexMaintainer,
+                               RemarksSearchIndex remarksSearchIndex, ShardRouter shardRouter,
+                               @Value("${app.snapshots.directory:${java.io.tmpdir}/student-monitor-snapshots}") String directory) throws IOException {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        // Streams large tables instead of buffering them in the driver
+        this.jdbcTemplate.setFetchSize(1000);
+        this.bulkLoadSupport = bulkLoadSupport;
+        this.exportTransaction = new TransactionTemplate(transactionManager);
+        this.exportTransaction.setReadOnly(true);
+        this.exportTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.restoreTransaction = new TransactionTemplate(transactionManager);
+        this.subjectService = subjectService;
+        this.indexMaintainer = indexMaintainer;
+        this.remarksSearchIndex = remarksSearchIndex;
+        this.shardRouter = shardRouter;
+        this.directory = Files.createDirectories(Path.of(directory));
+    }
+    
+    @Override
+    public List<SnapshotDTO> getSnapshots() {
+        List<SnapshotDTO> snapshots = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(file -> NAME.matcher(file.getFileName().toString()).matches()).toList()) {
+                try {
+                    snapshots.add(mapToDto(file, SnapshotFormat.readHeader(file), null));
+                } catch (RuntimeException e) {
+                    // Unfinished or damaged files are not offered for restore
+                    log.debug("Skipping unreadable snapshot {}", file, e);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        snapshots.sort(Comparator.comparing(SnapshotDTO::getCreatedAt).reversed());
+        return snapshots;
+    }
+    
+    @Override
+    public synchronized SnapshotDTO createSnapshot() {
+        requireSingleDatabase();
+        long started = System.currentTimeMillis();
+        String name = "snapshot-" + LocalDateTime.now(ZoneOffset.UTC).format(FILE_TIMESTAMP) + ".snap";
+        Path partial = directory.resolve(name + ".part");
+        try {
+            try (SnapshotWriter writer = new SnapshotWriter(partial)) {
+                exportTransaction.executeWithoutResult(status -> export(writer));
+                writer.finish(PerformanceRecord.now().toEpochMilli());
+            }
+            Path file = directory.resolve(name);
+            Files.move(partial, file, StandardCopyOption.ATOMIC_MOVE);
+            SnapshotDTO snapshot = mapToDto(file, SnapshotFormat.readHeader(file), System.currentTimeMillis() - started);
+            log.info("Wrote snapshot {} with {} performance records in {} ms",
+                    name, snapshot.getPerformances(), snapshot.getDurationMillis());
+            return snapshot;
+        } catch (IOException e) {
+            deleteQuietly(partial);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            deleteQuietly(partial);
+            throw e;
+        }
+    }
+    
+    @Override
+    public Resource getSnapshotFile(String name) {
+        return new FileSystemResource(findSnapshot(name));
+    }
+    
+    @Override
+    public synchronized SnapshotDTO restoreSnapshot(String name) {
+        requireSingleDatabase();
+        Path file = findSnapshot(name);
+        long started = System.currentTimeMillis();
+        SnapshotFormat.Header header;
+        try (SnapshotReader reader = new SnapshotReader(file)) {
+            header = reader.getHeader();
+            bulkLoadSupport.dropPerformanceIndexes();
+            try {
+                restoreTransaction.executeWithoutResult(status -> load(reader));
+            } finally {
+                bulkLoadSupport.createPerformanceIndexes();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        bulkLoadSupport.restartIdentities("subject", "student", "users", "performance_record");
+    
+        subjectService.reload();
+        indexMaintainer.rebuild();
+        remarksSearchIndex.rebuild();
+        SnapshotDTO snapshot = mapToDto(file, header, System.currentTimeMillis() - started);
+        log.info("Restored snapshot {} with {} performance records in {} ms",
+                name, snapshot.getPerformances(), snapshot.getDurationMillis());
+        return snapshot;
+    }
+    
+    // Plain JDBC through the routing datasource would only see the global shard
+    private void requireSingleDatabase() {
+        if (shardRouter.isSharded()) {
+            throw new IllegalStateException("Snapshots are not supported while sharding is enabled");
+        }
+    }
+    
+    private void export(SnapshotWriter writer) {
+        exportTable(writer, SnapshotFormat.SUBJECTS, SELECT_SUBJECTS, (rs, buffer) -> {
+            buffer.putInt(rs.getInt(1));
+            SnapshotFormat.putString(buffer, rs.getString(2));
+        });
+        exportTable(writer, SnapshotFormat.STUDENTS, SELECT_STUDENTS, (rs, buffer) -> {
+            buffer.putLong(rs.getLong(1));
+            SnapshotFormat.putString(buffer, rs.getString(2));
+            SnapshotFormat.putString(buffer, rs.getString(3));
+            SnapshotFormat.putString(buffer, rs.getString(4));
+            SnapshotFormat.putDate(buffer, rs.getObject(5, LocalDate.class));
+            SnapshotFormat.putLong(buffer, rs.getObject(6, Long.class));
+        });
+        exportTable(writer, SnapshotFormat.USERS, SELECT_USERS, (rs, buffer) -> {
+            buffer.putLong(rs.getLong(1));
+            for (int column = 2; column <= 7; column++) {
+                SnapshotFormat.putString(buffer, rs.getString(column));
+            }
+            for (int column = 8; column <= 11; column++) {
+                buffer.put((byte) (rs.getBoolean(column) ? 1 : 0));
+            }
+            SnapshotFormat.putDateTime(buffer, rs.getObject(12, LocalDateTime.class));
+            SnapshotFormat.putDateTime(buffer, rs.getObject(13, LocalDateTime.class));
+        });
+        exportTable(writer, SnapshotFormat.PERFORMANCES, SELECT_PERFORMANCES, (rs, buffer) -> {
+            buffer.putLong(rs.getLong(1));
+            buffer.putInt(rs.getInt(2));
+            SnapshotFormat.putLong(buffer, rs.getObject(3, Long.class));
+            SnapshotFormat.putDouble(buffer, rs.getObject(4, Double.class));
+            SnapshotFormat.putDate(buffer, rs.getObject(5, LocalDate.class));
+            SnapshotFormat.putString(buffer, rs.getString(6));
+            SnapshotFormat.putLong(buffer, rs.getObject(7, Long.class));
+            OffsetDateTime updatedAt = rs.getObject(8, OffsetDateTime.class);
+            SnapshotFormat.putInstant(buffer, updatedAt != null ? updatedAt.toInstant() : null);
+        });
+    }
+    
+    private void exportTable(SnapshotWriter writer, int table, String sql, RowExporter exporter) {
+        try {
+            writer.beginSection(table);
+            jdbcTemplate.query(sql, rs -> {
+                try {
+                    writer.write(buffer -> {
+                        try {
+                            exporter.export(rs, buffer);
+                        } catch (SQLException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    });
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.endSection();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private void load(SnapshotReader reader) {
+        for (String statement : CLEAR_TABLES) {
+            jdbcTemplate.update(statement);
+        }
+        loadTable(reader, SnapshotFormat.SUBJECTS, INSERT_SUBJECT, SUBJECT_TYPES, buffer -> new Object[] {
+                buffer.getInt(),
+                SnapshotFormat.getString(buffer)
+        });
+        loadTable(reader, SnapshotFormat.STUDENTS, INSERT_STUDENT, STUDENT_TYPES, buffer -> new Object[] {
+                buffer.getLong(),
+                SnapshotFormat.getString(buffer),
+                SnapshotFormat.getString(buffer),
+                SnapshotFormat.getString(buffer),
+                SnapshotFormat.getDate(buffer),
+                SnapshotFormat.getLong(buffer)
+        });
+        loadTable(reader, SnapshotFormat.USERS, INSERT_USER, USER_TYPES, buffer -> new Object[] {
+                buffer.getLong(),
+                SnapshotFormat.getString(buffer),
+                SnapshotFormat.getString(buffer),
+                SnapshotFormat.getString(buffer),
+                SnapshotFormat.getString(buffer),
+                SnapshotFormat.getString(buffer),
+                SnapshotFormat.getString(buffer),
+                buffer.get() != 0,
+                buffer.get() != 0,
+                buffer.get() != 0,
+                buffer.get() != 0,
+                SnapshotFormat.getDateTime(buffer),
+                SnapshotFormat.getDateTime(buffer)
+        });
+        loadTable(reader, SnapshotFormat.PERFORMANCES, INSERT_PERFORMANCE, PERFORMANCE_TYPES, buffer -> {
+            Object[] row = new Object[] {
+                    buffer.getLong(),
+                    buffer.getInt(),
+                    SnapshotFormat.getLong(buffer),
+                    SnapshotFormat.getDouble(buffer),
+                    SnapshotFormat.getDate(buffer),
+                    SnapshotFormat.getString(buffer),
+                    SnapshotFormat.getLong(buffer),
+                    null
+            };
+            Instant updatedAt = SnapshotFormat.getInstant(buffer);
+            row[7] = updatedAt != null ? updatedAt.atOffset(ZoneOffset.UTC) : null;
+            return row;
+        });
+    }
+    
+    // One JDBC batch per snapshot block
+    private void loadTable(SnapshotReader reader, int table, String sql, int[] types, RowDecoder decoder) {
+        try {
+            reader.readSection(table, (buffer, rowCount) -> {
+                List<Object[]> rows = new ArrayList<>(rowCount);
+                for (int i = 0; i < rowCount; i++) {
+                    rows.add(decoder.decode(buffer));
+                }
+                jdbcTemplate.batchUpdate(sql, rows, types);
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private Path findSnapshot(String name) {
+        Path file = directory.resolve(name);
+        if (!NAME.matcher(name).matches() || !Files.isRegularFile(file)) {
+            throw new ResourceNotFoundException("Snapshot not found: " + name);
+        }
+        return file;
+    }
+    
+    private SnapshotDTO mapToDto(Path file, SnapshotFormat.Header header, Long durationMillis) {
+        long size;
+        try {
+            size = Files.size(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        long[] counts = header.counts();
+        return new SnapshotDTO(
+                file.getFileName().toString(),
+                size,
+                header.createdAt(),
+                counts[SnapshotFormat.SUBJECTS],
+                counts[SnapshotFormat.STUDENTS],
+                counts[SnapshotFormat.USERS],
+                counts[SnapshotFormat.PERFORMANCES],
+                durationMillis
+        );
+    }
+    
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // Nothing more to clean up
+        }
+    }
+    
+    @FunctionalInterface
+    private interface RowExporter {
+        void export(ResultSet rs, ByteBuffer buffer) throws SQLException;
+    }
+    
+    @FunctionalInterface
+    private interface RowDecoder {
+        Object[] decode(ByteBuffer buffer);
+    }
+}
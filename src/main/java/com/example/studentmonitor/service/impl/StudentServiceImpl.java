@@ -1,68 +1,250 @@
 package com.example.studentmonitor.service.impl;
 
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import com.example.studentmonitor.analytics.StudentsPurgedEvent;
+import com.example.studentmonitor.dto.PurgeResultDTO;
 import com.example.studentmonitor.dto.StudentDTO;
 import com.example.studentmonitor.exception.ResourceNotFoundException;
+import com.example.studentmonitor.exception.StudentHasRecordsException;
+import com.example.studentmonitor.exception.VersionConflictException;
 import com.example.studentmonitor.model.Student;
+import com.example.studentmonitor.repository.PerformanceRepository;
+import com.example.studentmonitor.repository.RiskAssessmentRepository;
 import com.example.studentmonitor.repository.StudentRepository;
 import com.example.studentmonitor.service.StudentService;
+import com.example.studentmonitor.sharding.ShardRouter;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
 
 @Service
 public class StudentServiceImpl implements StudentService {
     
+    private static final Logger log = LoggerFactory.getLogger(StudentServiceImpl.class);
+    
     private final StudentRepository studentRepository;
+    private final PerformanceRepository performanceRepository;
+    private final RiskAssessmentRepository riskAssessmentRepository;
+    private final Validator validator;
+    private final ShardRouter shardRouter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int purgeChunkSize;
     
     @Autowired
-    public StudentServiceImpl(StudentRepository studentRepository) {
+    public StudentServiceImpl(StudentRepository studentRepository, PerformanceRepository performanceRepository,
+                              RiskAssessmentRepository riskAssessmentRepository, Validator validator, ShardRouter shardRouter,
+                              ApplicationEventPublisher eventPublisher,
+                              @Value("${app.purge.chunk-size:500}") int purgeChunkSize) {
+        if (purgeChunkSize <= 0) {
+            throw new IllegalStateException("app.purge.chunk-size must be positive");
+        }
         this.studentRepository = studentRepository;
+        this.performanceRepository = performanceRepository;
+        this.riskAssessmentRepository = riskAssessmentRepository;
+        this.validator = validator;
+        this.shardRouter = shardRouter;
+        this.eventPublisher = eventPublisher;
+        this.purgeChunkSize = purgeChunkSize;
     }
     
     @Override
     public StudentDTO createStudent(StudentDTO dto) {
         Student student = mapToEntity(dto);
-        Student savedStudent = studentRepository.save(student);
+        Student savedStudent = shardRouter.onShard(shardRouter.nextShardForNewStudent(), false,
+                () -> studentRepository.save(student));
         return mapToDto(savedStudent);
     }
     
     @Override
     public StudentDTO getStudent(Long id) {
-        Student student = studentRepository.findById(id)
+        Student student = shardRouter.onShard(shardRouter.shardOfStudent(id), true, () -> studentRepository.findById(id))
                 .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + id));
         return mapToDto(student);
     }
     
+    @Override
+    public long getStudentVersion(Long id) {
+        return shardRouter.onShard(shardRouter.shardOfStudent(id), true, () -> studentRepository.findVersionById(id))
+                .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + id));
+    }
+    
     @Override
     public List<StudentDTO> getAllStudents() {
-        List<Student> students = studentRepository.findAll();
+        List<List<Student>> students = shardRouter.onEveryShard(true, shard -> studentRepository.findAll());
         return students.stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparing(Student::getId))
+                .map(this::mapToDto)
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    public long countStudents() {
+        return shardRouter.onEveryShard(true, shard -> studentRepository.count()).stream()
+                .mapToLong(Long::longValue)
+                .sum();
+    }
+    
+    @Override
+    public List<StudentDTO> getStudentsAfter(Long afterId, int limit) {
+        // Each shard's first page after the key holds every student of the merged page that lives there
+        List<List<Student>> pages = shardRouter.onEveryShard(true,
+                shard -> studentRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, limit)));
+        return pages.stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparing(Student::getId))
+                .limit(limit)
                 .map(this::mapToDto)
                 .collect(Collectors.toList());
     }
     
     @Override
     public StudentDTO updateStudent(Long id, StudentDTO dto) {
-        Student existingStudent = studentRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + id));
-        
-        existingStudent.setFirstName(dto.getFirstName());
-        existingStudent.setLastName(dto.getLastName());
-        existingStudent.setEmail(dto.getEmail());
-        existingStudent.setDateOfBirth(dto.getDateOfBirth());
-        
-        Student updatedStudent = studentRepository.save(existingStudent);
+        Student updatedStudent = shardRouter.onShard(shardRouter.shardOfStudent(id), false, () -> {
+            Student existingStudent = studentRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + id));
+            
+            existingStudent.setFirstName(dto.getFirstName());
+            existingStudent.setLastName(dto.getLastName());
+            existingStudent.setEmail(dto.getEmail());
+            existingStudent.setDateOfBirth(dto.getDateOfBirth());
+            
+            return studentRepository.save(existingStudent);
+        });
         return mapToDto(updatedStudent);
     }
     
+    @Override
+    public long patchStudent(Long id, StudentDTO dto) {
+        if (dto.getVersion() == null) {
+            throw new IllegalArgumentException("Version is required to patch a student");
+        }
+        validatePatch(dto);
+        
+        shardRouter.onShard(shardRouter.shardOfStudent(id), false, () -> {
+            int updated = studentRepository.patchById(id, dto.getVersion(),
+                    dto.getFirstName(), dto.getLastName(), dto.getEmail(), dto.getDateOfBirth());
+            if (updated == 0) {
+                throw missingOrConflict(id);
+            }
+            return updated;
+        });
+        return dto.getVersion() + 1;
+    }
+    
     @Override
     public void deleteStudent(Long id) {
-        Student student = studentRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + id));
-        studentRepository.delete(student);
+        deleteStudent(id, null);
+    }
+    
+    @Override
+    public void deleteStudent(Long id, Long expectedVersion) {
+        try {
+            shardRouter.onShard(shardRouter.shardOfStudent(id), false, () -> {
+                int deleted = studentRepository.deleteByIdAndVersion(id, expectedVersion);
+                if (deleted == 0) {
+                    throw missingOrConflict(id);
+                }
+                return deleted;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Only performance records reference a student; purge removes them together with the student
+            throw new StudentHasRecordsException("Student " + id + " still has performance records; "
+                    + "delete them together with the student through DELETE /api/students/" + id + "/purge", e);
+        }
+    }
+    
+    @Override
+    public PurgeResultDTO purgeStudent(Long id) {
+        return shardRouter.onShard(shardRouter.shardOfStudent(id), false, () -> {
+            int performancesDeleted = performanceRepository.deleteAllByStudentId(id);
+            int studentsDeleted = studentRepository.deleteByIdAndVersion(id, null);
+            if (studentsDeleted == 0) {
+                throw new ResourceNotFoundException("Student not found with id: " + id);
+            }
+            deleteRiskAssessments(List.of(id));
+            eventPublisher.publishEvent(new StudentsPurgedEvent(List.of(id)));
+            return new PurgeResultDTO(1, studentsDeleted, performancesDeleted);
+        });
+    }
+    
+    @Override
+    @Async
+    public CompletableFuture<PurgeResultDTO> purgeStudentsAsync(List<Long> ids) {
+        int studentsDeleted = 0;
+        int performancesDeleted = 0;
+        
+        // One short transaction per chunk and shard keeps lock hold times bounded
+        for (int from = 0; from < ids.size(); from += purgeChunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + purgeChunkSize, ids.size()));
+            for (Map.Entry<Integer, List<Long>> shard : shardRouter.groupByShard(chunk, shardRouter::shardOfStudent).entrySet()) {
+                List<Long> shardIds = shard.getValue();
+                int[] deleted = shardRouter.onShard(shard.getKey(), false, () -> {
+                    deleteRiskAssessments(shardIds);
+                    int[] counts = {
+                            performanceRepository.deleteAllByStudentIdIn(shardIds),
+                            studentRepository.deleteAllByIdIn(shardIds)
+                    };
+                    eventPublisher.publishEvent(new StudentsPurgedEvent(List.copyOf(shardIds)));
+                    return counts;
+                });
+                performancesDeleted += deleted[0];
+                studentsDeleted += deleted[1];
+            }
+        }
+        
+        log.info("Purged {} of {} requested students and {} performance records",
+                studentsDeleted, ids.size(), performancesDeleted);
+        return CompletableFuture.completedFuture(new PurgeResultDTO(ids.size(), studentsDeleted, performancesDeleted));
+    }
+    
+    // Assessments live on the global shard; in the caller's transaction unless the student lives elsewhere
+    private void deleteRiskAssessments(List<Long> studentIds) {
+        shardRouter.onShard(ShardRouter.GLOBAL_SHARD, false,
+                () -> riskAssessmentRepository.deleteAllByStudentIdIn(studentIds));
+    }
+    
+    // Only reached when a targeted statement touched no rows
+    private RuntimeException missingOrConflict(Long id) {
+        if (studentRepository.existsById(id)) {
+            return new VersionConflictException("Student with id " + id + " was modified concurrently");
+        }
+        return new ResourceNotFoundException("Student not found with id: " + id);
+    }
+    
+    // Bulk updates bypass entity validation, so check the supplied fields against the entity constraints
+    private void validatePatch(StudentDTO dto) {
+        Set<ConstraintViolation<Student>> violations = new HashSet<>();
+        if (dto.getFirstName() != null) {
+            violations.addAll(validator.validateValue(Student.class, "firstName", dto.getFirstName()));
+        }
+        if (dto.getLastName() != null) {
+            violations.addAll(validator.validateValue(Student.class, "lastName", dto.getLastName()));
+        }
+        if (dto.getEmail() != null) {
+            violations.addAll(validator.validateValue(Student.class, "email", dto.getEmail()));
+        }
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
     }
     
     // Manual mapping methods
@@ -72,7 +254,8 @@ public class StudentServiceImpl implements StudentService {
                 student.getFirstName(),
                 student.getLastName(),
                 student.getEmail(),
-                student.getDateOfBirth()
+                student.getDateOfBirth(),
+                student.getVersion()
         );
     }
     
@@ -0,0 +1,135 @@
+package com.example.studentmonitor.service.impl;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.studentmonitor.exception.ResourceNotFoundException;
+import com.example.studentmonitor.model.Subject;
+import com.example.studentmonitor.repository.SubjectRepository;
+import com.example.studentmonitor.service.SubjectService;
+import com.example.studentmonitor.sharding.ShardRouter;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+
+/**
+ * Interned subject dictionary. Every known subject is held in memory by name and by id, so resolving a name on
+ * write and rendering a name on read never touch the database once the subject has been seen.
+ */
+@Service
+public class SubjectServiceImpl implements SubjectService {
+    
+    private final SubjectRepository subjectRepository;
+    private final Validator validator;
+    private final TransactionTemplate insertTemplate;
+    private final ShardRouter shardRouter;
+    
+    private final Map<String, Subject> byName = new ConcurrentHashMap<>();
+    private final Map<Integer, Subject> byId = new ConcurrentHashMap<>();
+    
+    public SubjectServiceImpl(SubjectRepository subjectRepository, Validator validator,
+                              PlatformTransactionManager transactionManager, ShardRouter shardRouter) {
+        this.subjectRepository = subjectRepository;
+        this.validator = validator;
+        this.insertTemplate = new TransactionTemplate(transactionManager);
+        // A new subject is committed on its own, so a rolled back record never leaves a dangling cached id
+        this.insertTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.shardRouter = shardRouter;
+    }
+    
+    @PostConstruct
+    void load() {
+        subjectRepository.findAll().forEach(this::cache);
+    }
+    
+    @Override
+    public Subject resolve(String name) {
+        String key = name != null ? name.trim() : null;
+        Set<ConstraintViolation<Subject>> violations = validator.validateValue(Subject.class, "name", key);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        Subject subject = byName.get(key);
+        if (subject != null) {
+            return subject;
+        }
+        return insert(key);
+    }
+    
+    @Override
+    public Optional<Integer> findId(String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        Subject subject = byName.get(name.trim());
+        if (subject == null) {
+            subject = subjectRepository.findByName(name.trim()).map(this::cache).orElse(null);
+        }
+        return Optional.ofNullable(subject).map(Subject::getId);
+    }
+    
+    @Override
+    public String getName(int id) {
+        Subject subject = byId.get(id);
+        if (subject == null) {
+            // Another instance may have added it since this one loaded the dictionary
+            subject = subjectRepository.findById(id)
+                    .map(this::cache)
+                    .orElseThrow(() -> new ResourceNotFoundException("Subject not found with id: " + id));
+        }
+        return subject.getName();
+    }
+    
+    @Override
+    public List<Subject> getAllSubjects() {
+        return byId.values().stream()
+                .sorted(Comparator.comparing(Subject::getName))
+                .toList();
+    }
+    
+    @Override
+    public synchronized void reload() {
+        byName.clear();
+        byId.clear();
+        load();
+    }
+    
+    private synchronized Subject insert(String name) {
+        Subject subject = byName.get(name);
+        if (subject != null) {
+            return subject;
+        }
+        // The dictionary is kept on the global shard and copied to the others before anything refers to the id
+        try {
+            subject = shardRouter.onShard(ShardRouter.GLOBAL_SHARD, false,
+                    () -> insertTemplate.execute(status -> subjectRepository.findByName(name)
+                            .orElseGet(() -> subjectRepository.saveAndFlush(new Subject(name)))));
+        } catch (DataIntegrityViolationException e) {
+            // Lost a race with another instance on the unique name
+            subject = shardRouter.onShard(ShardRouter.GLOBAL_SHARD, true, () -> subjectRepository.findByName(name))
+                    .orElseThrow(() -> e);
+        }
+        if (shardRouter.isSharded()) {
+            shardRouter.replicateSubject(subject);
+        }
+        return cache(subject);
+    }
+    
+    private Subject cache(Subject subject) {
+        byId.put(subject.getId(), subject);
+        byName.put(subject.getName(), subject);
+        return subject;
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.studentmonitor.session;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.csrf.DefaultCsrfToken;
+
+import com.example.studentmonitor.model.User;
+
+/**
+ * The format session attributes are stored in by the JDBC session store. The two attributes every logged-in session
+ * carries get a compact encoding of their own: the security context of a form login keeps only the user's profile,
+ * without the password hash, the timestamps or the request details, and its authorities are derived from the role
+ * again when read; the CSRF token keeps its three strings. Everything else, such as flash attributes, a saved
+ * request or a remember-me login, falls back to Java serialization. The first byte of a value names its encoding.
+ */
+public class SessionAttributeCodec {
+    
+    private static final byte SERIALIZED = 0;
+    private static final byte SECURITY_CONTEXT = 1;
+    private static final byte CSRF_TOKEN = 2;
+    private static final byte BOOLEAN = 3;
+    
+    private final SerializingConverter serializer = new SerializingConverter();
+    private final DeserializingConverter deserializer = new DeserializingConverter();
+    
+    public byte[] encode(Object value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            if (value instanceof SecurityContext context && isCompactLogin(context.getAuthentication())) {
+                out.writeByte(SECURITY_CONTEXT);
+                writeUser(out, (User) context.getAuthentication().getPrincipal());
+            } else if (value instanceof DefaultCsrfToken token) {
+                out.writeByte(CSRF_TOKEN);
+                out.writeUTF(token.getHeaderName());
+                out.writeUTF(token.getParameterName());
+                out.writeUTF(token.getToken());
+            } else if (value instanceof Boolean flag) {
+                out.writeByte(BOOLEAN);
+                out.writeBoolean(flag);
+            } else {
+                out.writeByte(SERIALIZED);
+                out.write(serializer.convert(value));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+    
+    public Object decode(byte[] bytes) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            byte encoding = in.readByte();
+            switch (encoding) {
+                case SECURITY_CONTEXT: {
+                    User user = readUser(in);
+                    return new SecurityContextImpl(
+                            UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities()));
+                }
+                case CSRF_TOKEN:
+                    return new DefaultCsrfToken(in.readUTF(), in.readUTF(), in.readUTF());
+                case BOOLEAN:
+                    return in.readBoolean();
+                case SERIALIZED: {
+                    byte[] serialized = new byte[bytes.length - 1];
+                    in.readFully(serialized);
+                    return deserializer.convert(serialized);
+                }
+                default:
+                    throw new IllegalStateException("Unknown session attribute encoding " + encoding);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    // A form login of a User whose authorities are the ones its role gives, so they can be derived again
+    private boolean isCompactLogin(Authentication authentication) {
+        return authentication != null
+                && authentication.getClass() == UsernamePasswordAuthenticationToken.class
+                && authentication.isAuthenticated()
+                && authentication.getPrincipal() instanceof User user
+                && user.getId() != null
+                && user.getRole() != null
+                && authentication.getAuthorities().equals(user.getAuthorities());
+    }
+    
+    private void writeUser(DataOutputStream out, User user) throws IOException {
+        out.writeLong(user.getId());
+        out.writeUTF(user.getUsername());
+        writeNullable(out, user.getEmail());
+        writeNullable(out, user.getFirstName());
+        writeNullable(out, user.getLastName());
+        out.writeUTF(user.getRole().name());
+        out.writeByte((user.isEnabled() ? 1 : 0)
+                | (user.isAccountNonExpired() ? 2 : 0)
+                | (user.isAccountNonLocked() ? 4 : 0)
+                | (user.isCredentialsNonExpired() ? 8 : 0));
+    }
+    
+    private User readUser(DataInputStream in) throws IOException {
+        User user = new User();
+        user.setId(in.readLong());
+        user.setUsername(in.readUTF());
+        user.setEmail(readNullable(in));
+        user.setFirstName(readNullable(in));
+        user.setLastName(readNullable(in));
+        user.setRole(User.Role.valueOf(in.readUTF()));
+        int flags = in.readByte();
+        user.setEnabled((flags & 1) != 0);
+        user.setAccountNonExpired((flags & 2) != 0);
+        user.setAccountNonLocked((flags & 4) != 0);
+        user.setCredentialsNonExpired((flags & 8) != 0);
+        return user;
+    }
+    
+    private void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+    
+    private String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
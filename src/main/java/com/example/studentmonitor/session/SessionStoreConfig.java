@@ -0,0 +1,133 @@
+package com.example.studentmonitor.session;
+
+import java.time.Duration;
+import java.util.EnumSet;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.boot.web.servlet.server.Session;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.GenericConversionService;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.security.core.session.SessionRegistry;
+import org.springframework.security.core.session.SessionRegistryImpl;
+import org.springframework.security.web.session.HttpSessionEventPublisher;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.config.SessionRepositoryCustomizer;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+import org.springframework.session.jdbc.config.annotation.web.http.EnableJdbcHttpSession;
+import org.springframework.session.security.SpringSessionBackedSessionRegistry;
+import org.springframework.session.web.http.DefaultCookieSerializer;
+import org.springframework.session.web.http.SessionRepositoryFilter;
+
+import jakarta.servlet.DispatcherType;
+
+/**
+ * Where HTTP sessions are kept, chosen with app.session.store. With memory, the default, they stay in the servlet
+ * container of the node that created them. With jdbc they are stored through Spring Session in the
+ * spring_session tables of the main database, so any node can serve any session, the one-session-per-user limit
+ * is checked against the sessions of all nodes and a restart logs nobody out. Spring Boot's own session
+ * auto-configuration is excluded in application.properties, since it would switch to JDBC as soon as the library
+ * is on the classpath; the pieces of it this application needs are set up here.
+ */
+@Configuration
+public class SessionStoreConfig {
+    
+    private static final String SCHEMA = "db/session-store-migration.sql";
+    
+    @Configuration
+    @ConditionalOnProperty(prefix = "app.session", name = "store", havingValue = "memory", matchIfMissing = true)
+    static class MemorySessionStore {
+        
+        @Bean
+        public SessionRegistry sessionRegistry() {
+            return new SessionRegistryImpl();
+        }
+        
+        // Tells the registry about expired sessions, which it would otherwise keep for good
+        @Bean
+        public HttpSessionEventPublisher httpSessionEventPublisher() {
+            return new HttpSessionEventPublisher();
+        }
+    }
+    
+    @Configuration
+    @ConditionalOnProperty(prefix = "app.session", name = "store", havingValue = "jdbc")
+    @EnableJdbcHttpSession
+    static class JdbcSessionStore {
+        
+        @Bean
+        public <S extends org.springframework.session.Session> SessionRegistry sessionRegistry(
+                FindByIndexNameSessionRepository<S> sessionRepository) {
+            return new SpringSessionBackedSessionRegistry<>(sessionRepository);
+        }
+        
+        // Picked up by name for the attribute values
+        @Bean
+        public ConversionService springSessionConversionService() {
+            SessionAttributeCodec codec = new SessionAttributeCodec();
+            GenericConversionService conversionService = new GenericConversionService();
+            conversionService.addConverter(Object.class, byte[].class, codec::encode);
+            conversionService.addConverter(byte[].class, Object.class, codec::decode);
+            return conversionService;
+        }
+        
+        // Created along with the repository, so the tables exist before it is first used even with lazy initialization
+        @Bean
+        public SessionRepositoryCustomizer<JdbcIndexedSessionRepository> sessionRepositoryCustomizer(
+                DataSource dataSource, ServerProperties serverProperties,
+                @Value("${app.session.jdbc.initialize-schema:false}") boolean initializeSchema,
+                @Value("${app.session.jdbc.cleanup-cron:0 * * * * *}") String cleanupCron) {
+            if (initializeSchema) {
+                new ResourceDatabasePopulator(new ClassPathResource(SCHEMA)).execute(dataSource);
+            }
+            Duration timeout = serverProperties.getServlet().getSession().getTimeout();
+            return repository -> {
+                repository.setDefaultMaxInactiveInterval(timeout);
+                // Every node deletes the expired sessions of all nodes; running it more than once is harmless
+                repository.setCleanupCron(cleanupCron);
+            };
+        }
+        
+        // The cookie keeps the container's name and the server.servlet.session.cookie settings
+        @Bean
+        public DefaultCookieSerializer cookieSerializer(ServerProperties serverProperties) {
+            Session.Cookie cookie = serverProperties.getServlet().getSession().getCookie();
+            DefaultCookieSerializer serializer = new DefaultCookieSerializer();
+            serializer.setCookieName(cookie.getName() != null ? cookie.getName() : "JSESSIONID");
+            if (cookie.getSecure() != null) {
+                serializer.setUseSecureCookie(cookie.getSecure());
+            }
+            if (cookie.getHttpOnly() != null) {
+                serializer.setUseHttpOnlyCookie(cookie.getHttpOnly());
+            }
+            if (cookie.getSameSite() != null) {
+                serializer.setSameSite(cookie.getSameSite().attributeValue());
+            }
+            if (cookie.getPath() != null) {
+                serializer.setCookiePath(cookie.getPath());
+            }
+            if (cookie.getDomain() != null) {
+                serializer.setDomainName(cookie.getDomain());
+            }
+            return serializer;
+        }
+        
+        // Error pages and async dispatches must see the same session as the request
+        @Bean
+        public FilterRegistrationBean<SessionRepositoryFilter<?>> sessionRepositoryFilterRegistration(
+                SessionRepositoryFilter<?> filter) {
+            FilterRegistrationBean<SessionRepositoryFilter<?>> registration = new FilterRegistrationBean<>(filter);
+            registration.setDispatcherTypes(EnumSet.of(DispatcherType.ASYNC, DispatcherType.ERROR, DispatcherType.REQUEST));
+            registration.setOrder(SessionRepositoryFilter.DEFAULT_ORDER);
+            return registration;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.studentmonitor.sharding;
+
+/**
+ * The shard the current thread's next connection is taken from. Only {@link ShardRouter} moves it, around the
+ * transactions it starts, and always puts it back; outside of those every thread is on the global shard.
+ */
+final class ShardContext {
+    
+    private static final ThreadLocal<Integer> CURRENT = ThreadLocal.withInitial(() -> ShardRouter.GLOBAL_SHARD);
+    
+    private ShardContext() {
+    }
+    
+    static int current() {
+        return CURRENT.get();
+    }
+    
+    static void set(int shard) {
+        CURRENT.set(shard);
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.studentmonitor.sharding;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.studentmonitor.model.Subject;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Decides which shard holds a student or performance record and runs work there. Students and their records are
+ * spread over the shards by student id: each shard generates the ids of both tables in its own stride, see
+ * {@link ShardSchemaInitializer}, so an id modulo the shard count names its shard and a record's id names the
+ * same shard as its student's. New students go to the shards in turn. Every other table lives on the global shard,
+ * shard 0, except that subjects are copied to all shards for the foreign key.
+ * <p>
+ * Without app.sharding.enabled there is a single shard and every method simply runs the work in a transaction,
+ * so services are written against this class either way. Work spanning shards runs in one transaction per shard;
+ * there is no atomicity across them.
+ */
+@Component
+public class ShardRouter {
+    
+    public static final int GLOBAL_SHARD = 0;
+    
+    // Scatter threads run their shard's work inline instead of queueing behind themselves
+    private static final ThreadLocal<Boolean> SCATTER_THREAD = ThreadLocal.withInitial(() -> false);
+    
+    private final ShardRoutingDataSource routingDataSource;
+    private final int shardCount;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final ExecutorService scatterExecutor;
+    private final AtomicInteger nextShard = new AtomicInteger();
+    
+    public ShardRouter(ObjectProvider<ShardRoutingDataSource> routingDataSource,
+                       PlatformTransactionManager transactionManager) {
+        this.routingDataSource = routingDataSource.getIfAvailable();
+        this.shardCount = this.routingDataSource != null ? this.routingDataSource.getShardCount() : 1;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        AtomicInteger threads = new AtomicInteger();
+        this.scatterExecutor = shardCount > 1
+                ? Executors.newFixedThreadPool(shardCount, runnable -> {
+                    Thread thread = new Thread(() -> {
+                        SCATTER_THREAD.set(true);
+                        runnable.run();
+                    }, "shard-scatter-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null;
+    }
+    
+    public int getShardCount() {
+        return shardCount;
+    }
+    
+    public boolean isSharded() {
+        return shardCount > 1;
+    }
+    
+    public int shardOfStudent(Long studentId) {
+        return shardOf(studentId);
+    }
+    
+    public int shardOfRecord(Long recordId) {
+        return shardOf(recordId);
+    }
+    
+    /**
+     * The shard a new student is created on
+     */
+    public int nextShardForNewStudent() {
+        return Math.floorMod(nextShard.getAndIncrement(), shardCount);
+    }
+    
+    /**
+     * Run the work in a transaction on the given shard. The current transaction is joined when it is already on
+     * that shard; otherwise it is suspended for a new one.
+     */
+    public <T> T onShard(int shard, boolean readOnly, Supplier<T> work) {
+        int previous = ShardContext.current();
+        if (previous == shard && TransactionSynchronizationManager.isActualTransactionActive()) {
+            return work.get();
+        }
+        ShardContext.set(shard);
+        try {
+            return (readOnly ? readTransaction : writeTransaction).execute(status -> work.get());
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+    
+    /**
+     * Run the work on every shard, in parallel when there are several, and return the results in shard order
+     */
+    public <T> List<T> onEveryShard(boolean readOnly, IntFunction<T> work) {
+        List<Supplier<T>> tasks = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            tasks.add(() -> onShard(target, readOnly, () -> work.apply(target)));
+        }
+        return gather(tasks);
+    }
+    
+    /**
+     * Run the work on one shard after another on the calling thread, for consumers that are not thread-safe
+     */
+    public void forEachShard(boolean readOnly, IntConsumer work) {
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            onShard(target, readOnly, () -> {
+                work.accept(target);
+                return null;
+            });
+        }
+    }
+    
+    /**
+     * Split the ids by shard, run the work on each shard with that shard's ids and concatenate the results
+     */
+    public <T> List<T> onShardsOf(Collection<Long> ids, ToIntFunction<Long> shardOf, boolean readOnly,
+                                  Function<List<Long>, ? extends Collection<T>> work) {
+        Map<Integer, List<Long>> byShard = groupByShard(ids, shardOf);
+        List<Supplier<Collection<T>>> tasks = new ArrayList<>(byShard.size());
+        byShard.forEach((shard, shardIds) -> tasks.add(() -> onShard(shard, readOnly, () -> work.apply(shardIds))));
+        List<T> results = new ArrayList<>();
+        gather(tasks).forEach(results::addAll);
+        return results;
+    }
+    
+    /**
+     * The ids per shard, in shard order and keeping their order within each shard
+     */
+    public Map<Integer, List<Long>> groupByShard(Collection<Long> ids, ToIntFunction<Long> shardOf) {
+        Map<Integer, List<Long>> byShard = new TreeMap<>();
+        for (Long id : ids) {
+            byShard.computeIfAbsent(shardOf.applyAsInt(id), shard -> new ArrayList<>()).add(id);
+        }
+        return byShard;
+    }
+    
+    /**
+     * Copy a subject committed on the global shard to the other shards; does nothing where it already exists
+     */
+    public void replicateSubject(Subject subject) {
+        for (int shard = 0; shard < shardCount; shard++) {
+            if (shard != GLOBAL_SHARD) {
+                new JdbcTemplate(routingDataSource.getShard(shard)).update(
+                        "INSERT INTO subject (id, name) SELECT ?, ? WHERE NOT EXISTS (SELECT 1 FROM subject WHERE id = ?)",
+                        subject.getId(), subject.getName(), subject.getId());
+            }
+        }
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        if (scatterExecutor != null) {
+            scatterExecutor.shutdownNow();
+        }
+    }
+    
+    private int shardOf(Long id) {
+        return (int) Math.floorMod(id - 1, (long) shardCount);
+    }
+    
+    private <T> List<T> gather(List<Supplier<T>> tasks) {
+        List<T> results = new ArrayList<>(tasks.size());
+        if (tasks.size() < 2 || SCATTER_THREAD.get()) {
+            tasks.forEach(task -> results.add(task.get()));
+            return results;
+        }
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        tasks.forEach(task -> futures.add(scatterExecutor.submit(task::get)));
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Interrupted while waiting for the shards", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("A shard query failed", e.getCause());
+        }
+        return results;
+    }
+}
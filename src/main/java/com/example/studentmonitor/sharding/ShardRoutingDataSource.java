@@ -0,0 +1,55 @@
+package com.example.studentmonitor.sharding;
+
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Hands out connections of the shard the calling thread is on, see {@link ShardContext}. Like the replica routing
+ * it must sit behind a LazyConnectionDataSourceProxy, so that a transaction's connection is taken once the shard
+ * has been chosen rather than when the transaction begins.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+    
+    private final List<HikariDataSource> shards;
+    
+    public ShardRoutingDataSource(List<HikariDataSource> shards) {
+        this.shards = List.copyOf(shards);
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            targets.put(shard, shards.get(shard));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(ShardRouter.GLOBAL_SHARD));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+    
+    public int getShardCount() {
+        return shards.size();
+    }
+    
+    /**
+     * The pool of one shard, for plain JDBC work that must not depend on the calling thread's shard
+     */
+    public DataSource getShard(int shard) {
+        return shards.get(shard);
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+    
+    @Override
+    public void close() {
+        shards.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.studentmonitor.sharding;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Prepares the shards once Hibernate has set up the schema, which it only does on the global shard. On H2 an empty
+ * shard gets a copy of that schema, so local shards need no migrations; other databases are expected to have it
+ * already. Then every shard's student and performance_record identities are set to its own stride: shard k of N
+ * generates k + 1, k + 1 + N, k + 1 + 2N and so on, past the largest id already there. Finally the subjects known
+ * on the global shard are copied to the others.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class ShardSchemaInitializer {
+    
+    private static final Logger log = LoggerFactory.getLogger(ShardSchemaInitializer.class);
+    
+    private static final String[] SHARDED_TABLES = {"student", "performance_record"};
+    
+    private final ShardRoutingDataSource shards;
+    
+    // Taking the factory makes this run after Hibernate created the schema
+    public ShardSchemaInitializer(ShardRoutingDataSource shards, EntityManagerFactory entityManagerFactory) {
+        this.shards = shards;
+    }
+    
+    @PostConstruct
+    void initialize() throws SQLException {
+        int count = shards.getShardCount();
+        for (int shard = 0; shard < count; shard++) {
+            if (shard != ShardRouter.GLOBAL_SHARD) {
+                copySchemaIfEmpty(shard);
+            }
+            setIdentityStride(shard, count);
+        }
+        copySubjects();
+        log.info("Sharding students and performance records over {} shards", count);
+    }
+    
+    private void copySchemaIfEmpty(int shard) throws SQLException {
+        try (Connection source = shards.getShard(ShardRouter.GLOBAL_SHARD).getConnection();
+             Connection target = shards.getShard(shard).getConnection()) {
+            if (!"H2".equals(target.getMetaData().getDatabaseProductName()) || hasTable(target, "STUDENT")) {
+                return;
+            }
+            try (Statement script = source.createStatement();
+                 ResultSet statements = script.executeQuery("SCRIPT NODATA NOPASSWORDS NOSETTINGS");
+                 Statement apply = target.createStatement()) {
+                while (statements.next()) {
+                    String sql = statements.getString(1);
+                    if (!sql.startsWith("CREATE USER")) {
+                        apply.execute(sql);
+                    }
+                }
+            }
+            log.info("Copied the schema to shard {}", shard);
+        }
+    }
+    
+    private boolean hasTable(Connection connection, String table) throws SQLException {
+        try (ResultSet tables = connection.getMetaData().getTables(null, null, table, new String[] {"TABLE"})) {
+            return tables.next();
+        }
+    }
+    
+    private void setIdentityStride(int shard, int count) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(shards.getShard(shard));
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        for (String table : SHARDED_TABLES) {
+            long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            // The first id of this shard's stride above the current maximum
+            long next = max + 1 + Math.floorMod(shard - max, (long) count);
+            if ("H2".equals(database) || "PostgreSQL".equals(database)) {
+                jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id SET INCREMENT BY " + count
+                        + " RESTART WITH " + next);
+            } else {
+                throw new IllegalStateException("Cannot set the identity stride of " + table + " on " + database
+                        + "; set it to start at " + next + " with increment " + count + " by hand");
+            }
+        }
+    }
+    
+    private void copySubjects() {
+        List<Map<String, Object>> subjects = new JdbcTemplate(shards.getShard(ShardRouter.GLOBAL_SHARD))
+                .queryForList("SELECT id, name FROM subject");
+        for (int shard = 0; shard < shards.getShardCount(); shard++) {
+            if (shard == ShardRouter.GLOBAL_SHARD) {
+                continue;
+            }
+            JdbcTemplate target = new JdbcTemplate(shards.getShard(shard));
+            for (Map<String, Object> subject : subjects) {
+                target.update("INSERT INTO subject (id, name) SELECT ?, ? WHERE NOT EXISTS (SELECT 1 FROM subject WHERE id = ?)",
+                        subject.get("id"), subject.get("name"), subject.get("id"));
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.studentmonitor.sharding;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Replaces the single datasource with one pool per entry of app.sharding.urls behind a
+ * {@link ShardRoutingDataSource}. The first url is the global shard, which also holds every table that is not
+ * sharded, so spring.datasource.url is not used. Only active with app.sharding.enabled=true, and not together with
+ * the read replica routing.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class ShardingDataSourceConfig {
+    
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(@Value("${app.sharding.urls}") List<String> urls,
+                                                         @Value("${app.sharding.username:}") String username,
+                                                         @Value("${app.sharding.password:}") String password,
+                                                         @Value("${app.sharding.maximum-pool-size:10}") int maximumPoolSize,
+                                                         @Value("${app.datasource.replica.enabled:false}") boolean replicaEnabled) {
+        if (replicaEnabled) {
+            throw new IllegalStateException("Sharding cannot be combined with the read replica routing");
+        }
+        if (urls.isEmpty()) {
+            throw new IllegalStateException("app.sharding.urls must list at least one database");
+        }
+        List<HikariDataSource> shards = new ArrayList<>(urls.size());
+        for (String url : urls) {
+            HikariDataSource shard = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(url.trim())
+                    .username(username)
+                    .password(password)
+                    .build();
+            shard.setPoolName("shard-" + shards.size());
+            shard.setMaximumPoolSize(maximumPoolSize);
+            shards.add(shard);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+    
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+}
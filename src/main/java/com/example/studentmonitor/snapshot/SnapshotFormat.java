@@ -0,0 +1,157 @@
+package com.example.studentmonitor.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.CRC32C;
+
+import com.example.studentmonitor.exception.SnapshotCorruptException;
+
+/**
+ * Layout shared by {@link SnapshotWriter} and {@link SnapshotReader}, all big-endian:
+ * <pre>
+ * header   magic(8) version(4) createdAt(8) rowCount(8) per table, crc32c(4)
+ * section  table(1) block... emptyBlock
+ * block    payloadLength(4) rows(4) payload crc32c(4), the checksum covering rows and payload
+ * </pre>
+ * Sections follow the table order below, parents before children. Nullable values are written with a presence
+ * byte, strings as a UTF-8 length (-1 for null) and bytes, and timestamps as epoch seconds and nanoseconds.
+ */
+public final class SnapshotFormat {
+    
+    public static final int SUBJECTS = 0;
+    public static final int STUDENTS = 1;
+    public static final int USERS = 2;
+    public static final int PERFORMANCES = 3;
+    public static final int TABLES = 4;
+    
+    static final long MAGIC = 0x534D534E41505348L; // "SMSNAPSH"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 8 + 4 + 8 + 8 * TABLES + 4;
+    static final int BLOCK_BYTES = 1 << 20;
+    
+    /**
+     * What a snapshot holds, read from its header alone
+     */
+    public record Header(Instant createdAt, long[] counts) {
+    }
+    
+    private SnapshotFormat() {
+    }
+    
+    public static Header readHeader(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return readHeader(channel);
+        }
+    }
+    
+    static Header readHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (header.hasRemaining()) {
+            if (channel.read(header) < 0) {
+                throw new SnapshotCorruptException("File is too short for a snapshot header");
+            }
+        }
+        header.flip();
+        if (header.getLong() != MAGIC) {
+            throw new SnapshotCorruptException("Not a snapshot file");
+        }
+        int version = header.getInt();
+        if (version != VERSION) {
+            throw new SnapshotCorruptException("Unsupported snapshot version " + version);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(header.array(), 0, HEADER_BYTES - 4);
+        if (header.getInt(HEADER_BYTES - 4) != (int) crc.getValue()) {
+            throw new SnapshotCorruptException("Snapshot header checksum mismatch; the export may not have finished");
+        }
+        Instant createdAt = Instant.ofEpochMilli(header.getLong());
+        long[] counts = new long[TABLES];
+        for (int i = 0; i < TABLES; i++) {
+            counts[i] = header.getLong();
+        }
+        return new Header(createdAt, counts);
+    }
+    
+    public static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+    
+    public static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    public static void putLong(ByteBuffer buffer, Long value) {
+        buffer.put((byte) (value != null ? 1 : 0));
+        if (value != null) {
+            buffer.putLong(value);
+        }
+    }
+    
+    public static Long getLong(ByteBuffer buffer) {
+        return buffer.get() != 0 ? buffer.getLong() : null;
+    }
+    
+    public static void putDouble(ByteBuffer buffer, Double value) {
+        buffer.put((byte) (value != null ? 1 : 0));
+        if (value != null) {
+            buffer.putDouble(value);
+        }
+    }
+    
+    public static Double getDouble(ByteBuffer buffer) {
+        return buffer.get() != 0 ? buffer.getDouble() : null;
+    }
+    
+    public static void putDate(ByteBuffer buffer, LocalDate value) {
+        buffer.put((byte) (value != null ? 1 : 0));
+        if (value != null) {
+            buffer.putLong(value.toEpochDay());
+        }
+    }
+    
+    public static LocalDate getDate(ByteBuffer buffer) {
+        return buffer.get() != 0 ? LocalDate.ofEpochDay(buffer.getLong()) : null;
+    }
+    
+    public static void putInstant(ByteBuffer buffer, Instant value) {
+        buffer.put((byte) (value != null ? 1 : 0));
+        if (value != null) {
+            buffer.putLong(value.getEpochSecond());
+            buffer.putInt(value.getNano());
+        }
+    }
+    
+    public static Instant getInstant(ByteBuffer buffer) {
+        return buffer.get() != 0 ? Instant.ofEpochSecond(buffer.getLong(), buffer.getInt()) : null;
+    }
+    
+    // Local date-times are stored as if they were UTC; only the wall-clock value round-trips
+    public static void putDateTime(ByteBuffer buffer, LocalDateTime value) {
+        putInstant(buffer, value != null ? value.toInstant(ZoneOffset.UTC) : null);
+    }
+    
+    public static LocalDateTime getDateTime(ByteBuffer buffer) {
+        Instant instant = getInstant(buffer);
+        return instant != null ? LocalDateTime.ofInstant(instant, ZoneOffset.UTC) : null;
+    }
+}
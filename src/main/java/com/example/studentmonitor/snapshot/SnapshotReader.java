@@ -0,0 +1,94 @@
+package com.example.studentmonitor.snapshot;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+import com.example.studentmonitor.exception.SnapshotCorruptException;
+
+/**
+ * Reads a snapshot written by {@link SnapshotWriter} block by block. Every block is checked against its checksum
+ * before any of its rows are handed out, so a damaged file is reported before its bad rows are loaded.
+ */
+public class SnapshotReader implements Closeable {
+    
+    /**
+     * Receives one verified block; the buffer holds exactly the given number of encoded rows
+     */
+    @FunctionalInterface
+    public interface BlockHandler {
+        void block(ByteBuffer rows, int rowCount);
+    }
+    
+    private final FileChannel channel;
+    private final SnapshotFormat.Header header;
+    private final ByteBuffer block = ByteBuffer.allocateDirect(SnapshotFormat.BLOCK_BYTES);
+    private final CRC32C crc = new CRC32C();
+    
+    public SnapshotReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            this.header = SnapshotFormat.readHeader(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+    
+    public SnapshotFormat.Header getHeader() {
+        return header;
+    }
+    
+    /**
+     * Read the next section, which must be the given table, returning the number of rows it held
+     */
+    public long readSection(int table, BlockHandler handler) throws IOException {
+        readFully(1);
+        int tag = block.get();
+        if (tag != table) {
+            throw new SnapshotCorruptException("Expected snapshot section " + table + " but found " + tag);
+        }
+        long rows = 0;
+        while (true) {
+            readFully(8);
+            int payloadBytes = block.getInt();
+            int rowCount = block.getInt();
+            if (payloadBytes < 0 || payloadBytes + 12 > block.capacity() || rowCount < 0) {
+                throw new SnapshotCorruptException("Invalid snapshot block in section " + table);
+            }
+            if (payloadBytes == 0 && rowCount == 0) {
+                readFully(4);
+                return rows;
+            }
+            readFully(payloadBytes + 4);
+            crc.reset();
+            crc.update(ByteBuffer.allocate(4).putInt(0, rowCount));
+            crc.update(block.slice(0, payloadBytes));
+            if (block.getInt(payloadBytes) != (int) crc.getValue()) {
+                throw new SnapshotCorruptException("Snapshot block checksum mismatch in section " + table);
+            }
+            handler.block(block.slice(0, payloadBytes), rowCount);
+            rows += rowCount;
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+    
+    // Leaves exactly the next length bytes of the file between position and limit
+    private void readFully(int length) throws IOException {
+        block.clear().limit(length);
+        while (block.hasRemaining()) {
+            if (channel.read(block) < 0) {
+                throw new SnapshotCorruptException("Snapshot file ends unexpectedly");
+            }
+        }
+        block.flip();
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.studentmonitor.snapshot;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Writes a snapshot file: a fixed header, then one section per table made of checksummed blocks of rows. Rows are
+ * encoded by the caller straight into a direct buffer that is handed to the channel whenever it fills up, so a
+ * snapshot of any size is written with one buffer of memory. The row counts in the header are filled in by
+ * {@link #finish}, so a file that was never finished fails its header checksum.
+ */
+public class SnapshotWriter implements Closeable {
+    
+    /**
+     * Encodes one row; it must fit in a single block
+     */
+    @FunctionalInterface
+    public interface RowEncoder {
+        void encode(ByteBuffer buffer);
+    }
+    
+    private final FileChannel channel;
+    private final ByteBuffer block = ByteBuffer.allocateDirect(SnapshotFormat.BLOCK_BYTES);
+    private final CRC32C crc = new CRC32C();
+    private final long[] counts = new long[SnapshotFormat.TABLES];
+    private int table = -1;
+    private int blockRows;
+    
+    public SnapshotWriter(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        // Placeholder until the counts are known
+        channel.write(ByteBuffer.allocate(SnapshotFormat.HEADER_BYTES));
+        startBlock();
+    }
+    
+    public void beginSection(int table) throws IOException {
+        this.table = table;
+        ByteBuffer tag = ByteBuffer.allocate(1).put((byte) table).flip();
+        writeFully(tag);
+    }
+    
+    public void write(RowEncoder encoder) throws IOException {
+        int mark = block.position();
+        try {
+            encoder.encode(block);
+        } catch (BufferOverflowException e) {
+            block.position(mark);
+            flushBlock();
+            encoder.encode(block);
+        }
+        blockRows++;
+        counts[table]++;
+    }
+    
+    public void endSection() throws IOException {
+        if (blockRows > 0) {
+            flushBlock();
+        }
+        // An empty block ends the section
+        flushBlock();
+        table = -1;
+    }
+    
+    /**
+     * Write the header with the final row counts and force the file to disk
+     */
+    public void finish(long createdAt) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(SnapshotFormat.HEADER_BYTES);
+        header.putLong(SnapshotFormat.MAGIC);
+        header.putInt(SnapshotFormat.VERSION);
+        header.putLong(createdAt);
+        for (long count : counts) {
+            header.putLong(count);
+        }
+        crc.reset();
+        crc.update(header.array(), 0, header.position());
+        header.putInt((int) crc.getValue());
+        header.flip();
+        channel.write(header, 0);
+        channel.force(true);
+    }
+    
+    public long getCount(int table) {
+        return counts[table];
+    }
+    
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+    
+    private void startBlock() {
+        // Payload length and row count are filled in when the block is flushed, the checksum after the limit
+        block.clear().limit(block.capacity() - 4).position(8);
+        blockRows = 0;
+    }
+    
+    private void flushBlock() throws IOException {
+        int payloadBytes = block.position() - 8;
+        block.putInt(0, payloadBytes);
+        block.putInt(4, blockRows);
+        crc.reset();
+        crc.update(block.slice(4, payloadBytes + 4));
+        block.limit(block.capacity());
+        block.putInt((int) crc.getValue());
+        block.flip();
+        writeFully(block);
+        startBlock();
+    }
+    
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
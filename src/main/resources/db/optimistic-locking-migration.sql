@@ -0,0 +1,6 @@
+-- Optimistic locking: the version a PATCH sends in its body and a DELETE in ?version=, checked before the write.
+-- Run once against an existing database before deploying the build that maps Student.version and
+-- PerformanceRecord.version; existing rows start at version 0.
+
+ALTER TABLE student ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE performance_record ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,11 @@
+-- Write-behind score entry: the sequence acknowledged for a queued record, and the block counter it comes from.
+-- Records created synchronously keep a null sequence; the unique index allows any number of nulls.
+
+ALTER TABLE performance_record ADD COLUMN entry_sequence BIGINT;
+CREATE UNIQUE INDEX idx_performance_entry_sequence ON performance_record (entry_sequence);
+
+CREATE TABLE sequence_allocation (
+    name VARCHAR(255) NOT NULL PRIMARY KEY,
+    reserved_up_to BIGINT NOT NULL,
+    version BIGINT
+);
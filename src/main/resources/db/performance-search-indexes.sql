@@ -0,0 +1,5 @@
+-- Index behind /api/performances/search: subject filters with a date range, read newest first.
+-- It leads with subject_id, so it also covers the foreign key and replaces the single-column index.
+
+CREATE INDEX idx_performance_subject_date ON performance_record (subject_id, date);
+DROP INDEX idx_performance_subject;
@@ -0,0 +1,5 @@
+-- Indexes behind the timeline endpoints: per-student date ranges and class-wide date ranges.
+-- Run once against an existing database; neither changes any data.
+
+CREATE INDEX idx_performance_student_date ON performance_record (student_id, date);
+CREATE INDEX idx_performance_date ON performance_record (date);
@@ -0,0 +1,31 @@
+-- Adds the change watermark used by the incremental at-risk job.
+-- Run once against an existing database before deploying the build that maps PerformanceRecord.updatedAt;
+-- the first scan then treats every existing record as changed and works through them in bounded batches.
+
+ALTER TABLE performance_record ADD COLUMN updated_at TIMESTAMP(6) WITH TIME ZONE;
+UPDATE performance_record SET updated_at = CURRENT_TIMESTAMP WHERE updated_at IS NULL;
+CREATE INDEX idx_performance_updated ON performance_record (updated_at, id);
+
+CREATE TABLE job_watermark (
+    name VARCHAR(255) NOT NULL PRIMARY KEY,
+    position TIMESTAMP(6) WITH TIME ZONE,
+    last_id BIGINT,
+    version BIGINT
+);
+
+CREATE TABLE risk_assessment (
+    student_id BIGINT NOT NULL PRIMARY KEY,
+    record_count BIGINT NOT NULL,
+    average_score DOUBLE PRECISION,
+    largest_drop DOUBLE PRECISION,
+    last_assessment_date DATE,
+    low_average BOOLEAN NOT NULL,
+    sharp_drop BOOLEAN NOT NULL,
+    missing_assessments BOOLEAN NOT NULL,
+    at_risk BOOLEAN NOT NULL,
+    stale BOOLEAN NOT NULL,
+    evaluated_at TIMESTAMP(6) WITH TIME ZONE
+);
+CREATE INDEX idx_risk_at_risk ON risk_assessment (at_risk);
+CREATE INDEX idx_risk_last_assessment ON risk_assessment (last_assessment_date);
+CREATE INDEX idx_risk_stale ON risk_assessment (stale);
@@ -0,0 +1,6 @@
+-- Read replica routing: the primary's heartbeat, whose age on the replica is taken as the replication lag.
+
+CREATE TABLE replication_heartbeat (
+    name VARCHAR(255) NOT NULL PRIMARY KEY,
+    beat_at TIMESTAMP(6) WITH TIME ZONE
+);
@@ -0,0 +1,23 @@
+-- Moves performance_record.subject from free text onto the subject dictionary table.
+-- Run once against an existing database before deploying the build that maps PerformanceRecord.subject to Subject;
+-- development databases are recreated by Hibernate and do not need it.
+
+CREATE TABLE subject (
+    id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    CONSTRAINT uk_subject_name UNIQUE (name)
+);
+
+INSERT INTO subject (name)
+SELECT DISTINCT TRIM(subject) FROM performance_record WHERE subject IS NOT NULL;
+
+ALTER TABLE performance_record ADD COLUMN subject_id INTEGER;
+
+UPDATE performance_record p
+SET subject_id = (SELECT s.id FROM subject s WHERE s.name = TRIM(p.subject));
+
+ALTER TABLE performance_record ALTER COLUMN subject_id SET NOT NULL;
+ALTER TABLE performance_record ADD CONSTRAINT fk_performance_subject FOREIGN KEY (subject_id) REFERENCES subject (id);
+CREATE INDEX idx_performance_subject ON performance_record (subject_id);
+
+ALTER TABLE performance_record DROP COLUMN subject;